@@ -0,0 +1,28 @@
+package com.example.expense_manager.archive;
+
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.entity.Expense;
+import com.example.expense_manager.enums.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Gasto leído del almacenamiento en frío (sin la entidad ni el usuario cargados)
+ */
+public record ArchivedExpense(Long id, Long userId, BigDecimal amount, String currency,
+                              ExpenseCategory category, LocalDate date, String description,
+                              LocalDateTime createdAt, boolean anomalous, Double anomalyScore) {
+
+    static ArchivedExpense from(Expense expense, Long userId) {
+        return new ArchivedExpense(expense.getId(), userId, expense.getAmount(), expense.getCurrency(),
+            expense.getCategory(), expense.getDate(), expense.getDescription(), expense.getCreatedAt(),
+            expense.isAnomalous(), expense.getAnomalyScore());
+    }
+
+    public ExpenseResponse toResponse(String userName) {
+        return new ExpenseResponse(id, amount, currency, category, date, description, createdAt,
+            userId, userName, anomalous, anomalyScore);
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.expense_manager.archive;
+
+import com.example.expense_manager.enums.ExpenseCategory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Archivo columnar inmutable con los gastos de un usuario en un año
+ *
+ * Formato (versión 1, big-endian):
+ *   cabecera   magic "EXPA", versión, escala de los montos, userId, año, número de filas
+ *   diccionarios  categorías y monedas usadas en el archivo (longitud + UTF-8)
+ *   columnas, una detrás de otra y en orden de fecha:
+ *     fecha        short, días desde el 1 de enero del año
+ *     id           long
+ *     monto        long, valor en punto fijo con la escala de la cabecera
+ *     categoría    byte, índice en el diccionario
+ *     moneda       byte, índice en el diccionario
+ *     flags        byte (anómalo, tiene puntuación, tiene descripción)
+ *     puntuación   double
+ *     creación     long, microsegundos desde 1970-01-01T00:00 (sin zona)
+ *     descripción  int[filas + 1] con desplazamientos y a continuación los bytes UTF-8
+ *
+ * Las columnas de ancho fijo se leen directamente del archivo mapeado en memoria: buscar
+ * un rango de fechas es una búsqueda binaria sobre la columna de fechas y recorrerlo no
+ * reserva nada salvo las filas devueltas. La lectura solo usa accesos absolutos, así que
+ * una instancia se comparte entre hilos.
+ */
+public final class ColumnarExpenseFile {
+
+    private static final int MAGIC = 0x45585041;
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 26;
+
+    private static final int FLAG_ANOMALOUS = 1;
+    private static final int FLAG_SCORE = 1 << 1;
+    private static final int FLAG_DESCRIPTION = 1 << 2;
+
+    private final MappedByteBuffer buffer;
+    private final long userId;
+    private final int year;
+    private final int rows;
+    private final int amountScale;
+    private final ExpenseCategory[] categories;
+    private final String[] currencies;
+    private final LocalDate firstDay;
+
+    private final int dates;
+    private final int ids;
+    private final int amounts;
+    private final int categoryIndexes;
+    private final int currencyIndexes;
+    private final int flags;
+    private final int scores;
+    private final int createdAts;
+    private final int descriptionOffsets;
+    private final int descriptionBytes;
+
+    private ColumnarExpenseFile(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+            throw new IllegalStateException("Archivo de gastos con formato no reconocido");
+        }
+        this.amountScale = buffer.getShort(6);
+        this.userId = buffer.getLong(8);
+        this.year = buffer.getInt(16);
+        this.rows = buffer.getInt(20);
+        this.firstDay = LocalDate.of(year, 1, 1);
+
+        int position = HEADER_SIZE;
+        String[] categoryNames = new String[buffer.get(24)];
+        for (int i = 0; i < categoryNames.length; i++) {
+            categoryNames[i] = readString(position);
+            position += 2 + buffer.getShort(position);
+        }
+        this.categories = new ExpenseCategory[categoryNames.length];
+        for (int i = 0; i < categoryNames.length; i++) {
+            categories[i] = ExpenseCategory.valueOf(categoryNames[i]);
+        }
+        this.currencies = new String[buffer.get(25)];
+        for (int i = 0; i < currencies.length; i++) {
+            currencies[i] = readString(position);
+            position += 2 + buffer.getShort(position);
+        }
+
+        this.dates = position;
+        this.ids = dates + rows * Short.BYTES;
+        this.amounts = ids + rows * Long.BYTES;
+        this.categoryIndexes = amounts + rows * Long.BYTES;
+        this.currencyIndexes = categoryIndexes + rows;
+        this.flags = currencyIndexes + rows;
+        this.scores = flags + rows;
+        this.createdAts = scores + rows * Double.BYTES;
+        this.descriptionOffsets = createdAts + rows * Long.BYTES;
+        this.descriptionBytes = descriptionOffsets + (rows + 1) * Integer.BYTES;
+    }
+
+    /**
+     * Mapea un archivo existente en memoria (solo lectura)
+     */
+    public static ColumnarExpenseFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // El mapeo sigue siendo válido después de cerrar el canal
+            return new ColumnarExpenseFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Escribe los gastos (todos del mismo usuario y año) en un archivo nuevo
+     * Se escribe en un temporal del mismo directorio y se renombra al final: un lector
+     * nunca ve un archivo a medias y los que ya lo tenían mapeado conservan la versión anterior.
+     */
+    public static void write(Path path, long userId, int year, List<ArchivedExpense> expenses) throws IOException {
+        List<ArchivedExpense> sorted = new ArrayList<>(expenses);
+        sorted.sort(Comparator.comparing(ArchivedExpense::date).thenComparing(ArchivedExpense::id));
+        int rows = sorted.size();
+
+        Map<String, Integer> categoryDictionary = new LinkedHashMap<>();
+        Map<String, Integer> currencyDictionary = new LinkedHashMap<>();
+        int amountScale = 0;
+        byte[][] descriptions = new byte[rows][];
+        int descriptionLength = 0;
+        for (int i = 0; i < rows; i++) {
+            ArchivedExpense expense = sorted.get(i);
+            if (!expense.userId().equals(userId) || expense.date().getYear() != year) {
+                throw new IllegalArgumentException("El gasto " + expense.id() + " no pertenece al usuario "
+                    + userId + " en " + year);
+            }
+            categoryDictionary.putIfAbsent(expense.category().name(), categoryDictionary.size());
+            currencyDictionary.putIfAbsent(expense.currency(), currencyDictionary.size());
+            amountScale = Math.max(amountScale, expense.amount().scale());
+            if (expense.description() != null) {
+                descriptions[i] = expense.description().getBytes(StandardCharsets.UTF_8);
+                descriptionLength += descriptions[i].length;
+            }
+        }
+        if (currencyDictionary.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiadas monedas distintas en un mismo archivo");
+        }
+
+        int dictionaryLength = 0;
+        for (String value : categoryDictionary.keySet()) {
+            dictionaryLength += 2 + value.getBytes(StandardCharsets.UTF_8).length;
+        }
+        for (String value : currencyDictionary.keySet()) {
+            dictionaryLength += 2 + value.getBytes(StandardCharsets.UTF_8).length;
+        }
+        int rowBytes = Short.BYTES + Long.BYTES + Long.BYTES + 1 + 1 + 1 + Double.BYTES + Long.BYTES + Integer.BYTES;
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + dictionaryLength + rows * rowBytes
+            + Integer.BYTES + descriptionLength);
+
+        out.putInt(MAGIC).putShort(VERSION).putShort((short) amountScale)
+            .putLong(userId).putInt(year).putInt(rows)
+            .put((byte) categoryDictionary.size()).put((byte) currencyDictionary.size());
+        for (String value : categoryDictionary.keySet()) {
+            putString(out, value);
+        }
+        for (String value : currencyDictionary.keySet()) {
+            putString(out, value);
+        }
+
+        LocalDate firstDay = LocalDate.of(year, 1, 1);
+        for (ArchivedExpense expense : sorted) {
+            out.putShort((short) ChronoUnit.DAYS.between(firstDay, expense.date()));
+        }
+        for (ArchivedExpense expense : sorted) {
+            out.putLong(expense.id());
+        }
+        for (ArchivedExpense expense : sorted) {
+            out.putLong(expense.amount().setScale(amountScale).unscaledValue().longValueExact());
+        }
+        for (ArchivedExpense expense : sorted) {
+            out.put(categoryDictionary.get(expense.category().name()).byteValue());
+        }
+        for (ArchivedExpense expense : sorted) {
+            out.put(currencyDictionary.get(expense.currency()).byteValue());
+        }
+        for (int i = 0; i < rows; i++) {
+            ArchivedExpense expense = sorted.get(i);
+            int value = (expense.anomalous() ? FLAG_ANOMALOUS : 0)
+                | (expense.anomalyScore() != null ? FLAG_SCORE : 0)
+                | (descriptions[i] != null ? FLAG_DESCRIPTION : 0);
+            out.put((byte) value);
+        }
+        for (ArchivedExpense expense : sorted) {
+            out.putDouble(expense.anomalyScore() != null ? expense.anomalyScore() : 0);
+        }
+        for (ArchivedExpense expense : sorted) {
+            out.putLong(expense.createdAt() != null ? toMicros(expense.createdAt()) : Long.MIN_VALUE);
+        }
+        int offset = 0;
+        for (int i = 0; i < rows; i++) {
+            out.putInt(offset);
+            offset += descriptions[i] != null ? descriptions[i].length : 0;
+        }
+        out.putInt(offset);
+        for (byte[] description : descriptions) {
+            if (description != null) {
+                out.put(description);
+            }
+        }
+        out.flip();
+
+        Files.createDirectories(path.getParent());
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public long userId() {
+        return userId;
+    }
+
+    public int year() {
+        return year;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Gastos con fecha entre from y to (ambas incluidas), en orden de fecha
+     */
+    public List<ArchivedExpense> scan(LocalDate from, LocalDate to) {
+        LocalDate lastDay = firstDay.plusYears(1).minusDays(1);
+        if (rows == 0 || from.isAfter(lastDay) || to.isBefore(firstDay)) {
+            return List.of();
+        }
+        int fromDay = from.isBefore(firstDay) ? 0 : (int) ChronoUnit.DAYS.between(firstDay, from);
+        int toDay = to.isAfter(lastDay) ? Integer.MAX_VALUE : (int) ChronoUnit.DAYS.between(firstDay, to);
+
+        List<ArchivedExpense> result = new ArrayList<>();
+        for (int row = lowerBound(fromDay); row < rows && day(row) <= toDay; row++) {
+            result.add(row(row));
+        }
+        return result;
+    }
+
+    /**
+     * Todas las filas del archivo
+     */
+    public List<ArchivedExpense> readAll() {
+        List<ArchivedExpense> result = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            result.add(row(row));
+        }
+        return result;
+    }
+
+    private int lowerBound(int targetDay) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (day(middle) < targetDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int day(int row) {
+        return buffer.getShort(dates + row * Short.BYTES);
+    }
+
+    private ArchivedExpense row(int row) {
+        int rowFlags = buffer.get(flags + row);
+        long created = buffer.getLong(createdAts + row * Long.BYTES);
+        String description = null;
+        if ((rowFlags & FLAG_DESCRIPTION) != 0) {
+            int start = buffer.getInt(descriptionOffsets + row * Integer.BYTES);
+            int end = buffer.getInt(descriptionOffsets + (row + 1) * Integer.BYTES);
+            byte[] bytes = new byte[end - start];
+            buffer.get(descriptionBytes + start, bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new ArchivedExpense(
+            buffer.getLong(ids + row * Long.BYTES),
+            userId,
+            BigDecimal.valueOf(buffer.getLong(amounts + row * Long.BYTES), amountScale),
+            currencies[buffer.get(currencyIndexes + row)],
+            categories[buffer.get(categoryIndexes + row)],
+            firstDay.plusDays(day(row)),
+            description,
+            created != Long.MIN_VALUE ? fromMicros(created) : null,
+            (rowFlags & FLAG_ANOMALOUS) != 0,
+            (rowFlags & FLAG_SCORE) != 0 ? buffer.getDouble(scores + row * Double.BYTES) : null);
+    }
+
+    private String readString(int position) {
+        byte[] bytes = new byte[buffer.getShort(position)];
+        buffer.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static long toMicros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+            (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
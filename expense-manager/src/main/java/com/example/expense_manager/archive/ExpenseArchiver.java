@@ -0,0 +1,129 @@
+package com.example.expense_manager.archive;
+
+import com.example.expense_manager.dto.ColdArchiveResponse;
+import com.example.expense_manager.entity.Expense;
+import com.example.expense_manager.event.ExpensesBulkChangedEvent;
+import com.example.expense_manager.repository.ExpenseRepository;
+import com.example.expense_manager.shard.ShardContext;
+import com.example.expense_manager.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mueve los gastos antiguos de la base de datos al almacenamiento en frío
+ * Solo se archivan años completos (anteriores al año de hoy menos la antigüedad
+ * configurada), de modo que cada archivo se escribe una vez. Cada usuario se procesa
+ * en su propia transacción: primero se escriben sus archivos y después se borran las
+ * filas; si el borrado falla, las filas quedan en los dos sitios y las consultas
+ * se quedan con la de la base de datos.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+public class ExpenseArchiver {
+
+    private static final int DELETE_CHUNK = 1000;
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseColdStorage coldStorage;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final ShardRouter shardRouter;
+    private final int afterMonths;
+
+    public ExpenseArchiver(ExpenseRepository expenseRepository,
+                           ExpenseColdStorage coldStorage,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           ShardRouter shardRouter,
+                           @Value("${app.archive.after-months:24}") int afterMonths) {
+        if (afterMonths < 1) {
+            throw new IllegalArgumentException("app.archive.after-months debe ser al menos 1");
+        }
+        this.expenseRepository = expenseRepository;
+        this.coldStorage = coldStorage;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.afterMonths = afterMonths;
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 45 3 * * *}")
+    public void scheduledArchive() {
+        archive();
+    }
+
+    /**
+     * Archiva los gastos anteriores al límite calculado a partir de hoy
+     */
+    public ColdArchiveResponse archive() {
+        return archiveBefore(cutoff(YearMonth.now(), afterMonths));
+    }
+
+    ColdArchiveResponse archiveBefore(LocalDate before) {
+        long start = System.nanoTime();
+        List<Long> userIds = shardRouter.onEveryShard(() -> expenseRepository.findUserIdsWithExpensesBefore(before))
+            .stream()
+            .flatMap(List::stream)
+            .toList();
+        int files = 0;
+        long archived = 0;
+        for (Long userId : userIds) {
+            ColdArchiveResponse result = ShardContext.callOn(shardRouter.shardOfId(userId),
+                () -> transaction.execute(status -> archiveUser(userId, before)));
+            files += result.getFiles();
+            archived += result.getArchivedExpenses();
+        }
+        if (archived > 0) {
+            log.info("Archivados {} gastos anteriores a {} de {} usuarios en {} archivos ({} ms)",
+                archived, before, userIds.size(), files, (System.nanoTime() - start) / 1_000_000);
+        }
+        return new ColdArchiveResponse(before, userIds.size(), files, archived);
+    }
+
+    private ColdArchiveResponse archiveUser(Long userId, LocalDate before) {
+        List<Expense> expenses = expenseRepository.findByUserIdAndDateBefore(userId, before);
+        if (expenses.isEmpty()) {
+            return new ColdArchiveResponse(before, 1, 0, 0);
+        }
+        Map<Integer, List<ArchivedExpense>> byYear = new TreeMap<>();
+        List<Long> ids = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            byYear.computeIfAbsent(expense.getDate().getYear(), year -> new ArrayList<>())
+                .add(ArchivedExpense.from(expense, userId));
+            ids.add(expense.getId());
+        }
+        byYear.forEach((year, rows) -> coldStorage.append(userId, year, rows));
+
+        int deleted = 0;
+        for (int i = 0; i < ids.size(); i += DELETE_CHUNK) {
+            deleted += expenseRepository.deleteByUserIdAndIdIn(userId, ids.subList(i, Math.min(ids.size(), i + DELETE_CHUNK)));
+        }
+        // Los listados paginados solo leen la base de datos: hay que invalidar sus cachés
+        LocalDate first = expenses.stream().map(Expense::getDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate last = expenses.stream().map(Expense::getDate).max(Comparator.naturalOrder()).orElseThrow();
+        eventPublisher.publishEvent(new ExpensesBulkChangedEvent(userId, first, last, deleted));
+        return new ColdArchiveResponse(before, 1, byYear.size(), deleted);
+    }
+
+    /**
+     * Primer día del año que contiene el mes actual menos la antigüedad configurada
+     */
+    static LocalDate cutoff(YearMonth current, int afterMonths) {
+        return LocalDate.of(current.minusMonths(afterMonths).getYear(), 1, 1);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.expense_manager.archive;
+
+import com.example.expense_manager.event.UserDeletedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Almacenamiento en frío de gastos antiguos: un archivo columnar por usuario y año
+ * ({directorio}/{userId}/{año}.col)
+ * Mantiene en memoria el catálogo de archivos existentes, de modo que las consultas sin
+ * datos archivados en su rango no tocan el disco, y los lectores ya mapeados. Los gastos
+ * archivados son de solo lectura: aparecen en las consultas por rango de fechas pero no
+ * se pueden modificar ni borrar uno a uno; se eliminan junto con su usuario.
+ */
+@Slf4j
+@Component
+public class ExpenseColdStorage {
+
+    private static final Pattern FILE_NAME = Pattern.compile("(\\d{4})\\.col");
+
+    private final Path directory;
+    private final Map<Long, NavigableSet<Integer>> catalog = new ConcurrentHashMap<>();
+    private final Map<Path, ColumnarExpenseFile> readers = new ConcurrentHashMap<>();
+
+    public ExpenseColdStorage(@Value("${app.archive.directory:data/archive}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    /**
+     * Carga el catálogo a partir de los archivos ya existentes
+     */
+    @PostConstruct
+    void loadCatalog() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> users = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path userDirectory : users) {
+                Long userId = parseUserId(userDirectory.getFileName().toString());
+                if (userId == null) {
+                    continue;
+                }
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(userDirectory, "*.col")) {
+                    for (Path file : files) {
+                        Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                        if (matcher.matches()) {
+                            years(userId).add(Integer.parseInt(matcher.group(1)));
+                        }
+                    }
+                }
+            }
+        }
+        if (!catalog.isEmpty()) {
+            log.info("Almacenamiento en frío: {} archivos de {} usuarios en {}",
+                catalog.values().stream().mapToInt(NavigableSet::size).sum(), catalog.size(), directory);
+        }
+    }
+
+    public boolean isEmpty() {
+        return catalog.isEmpty();
+    }
+
+    /**
+     * Gastos archivados de un usuario entre dos fechas (ambas incluidas)
+     */
+    public List<ArchivedExpense> find(Long userId, LocalDate startDate, LocalDate endDate) {
+        NavigableSet<Integer> years = catalog.get(userId);
+        if (years == null || startDate.isAfter(endDate)) {
+            return List.of();
+        }
+        List<ArchivedExpense> result = new ArrayList<>();
+        for (int year : years.subSet(startDate.getYear(), true, endDate.getYear(), true)) {
+            result.addAll(reader(userId, year).scan(startDate, endDate));
+        }
+        return result;
+    }
+
+    /**
+     * Gastos archivados de todos los usuarios entre dos fechas (ambas incluidas)
+     */
+    public List<ArchivedExpense> find(LocalDate startDate, LocalDate endDate) {
+        List<ArchivedExpense> result = new ArrayList<>();
+        for (Long userId : catalog.keySet()) {
+            result.addAll(find(userId, startDate, endDate));
+        }
+        return result;
+    }
+
+    /**
+     * Añade gastos de un usuario y año a su archivo
+     * Como los archivos son inmutables, si ya existía se reescribe entero con sus filas
+     * más las nuevas (una fila con el mismo id se sustituye por la nueva).
+     */
+    public synchronized void append(Long userId, int year, Collection<ArchivedExpense> expenses) {
+        Path file = file(userId, year);
+        Map<Long, ArchivedExpense> rows = new LinkedHashMap<>();
+        try {
+            if (Files.exists(file)) {
+                reader(userId, year).readAll().forEach(row -> rows.put(row.id(), row));
+            }
+            expenses.forEach(row -> rows.put(row.id(), row));
+            ColumnarExpenseFile.write(file, userId, year, new ArrayList<>(rows.values()));
+            readers.put(file, ColumnarExpenseFile.open(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el archivo " + file, e);
+        }
+        years(userId).add(year);
+    }
+
+    /**
+     * Los gastos archivados se borran con su usuario
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        NavigableSet<Integer> years = catalog.remove(event.userId());
+        if (years == null) {
+            return;
+        }
+        Path userDirectory = directory.resolve(event.userId().toString());
+        try (Stream<Path> paths = Files.walk(userDirectory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                readers.remove(path);
+                Files.deleteIfExists(path);
+            }
+            log.info("Eliminados {} archivos de gastos del usuario {}", years.size(), event.userId());
+        } catch (IOException e) {
+            log.error("No se pudieron eliminar los gastos archivados del usuario {}", event.userId(), e);
+        }
+    }
+
+    private ColumnarExpenseFile reader(Long userId, int year) {
+        return readers.computeIfAbsent(file(userId, year), path -> {
+            try {
+                return ColumnarExpenseFile.open(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo abrir el archivo " + path, e);
+            }
+        });
+    }
+
+    private NavigableSet<Integer> years(Long userId) {
+        return catalog.computeIfAbsent(userId, id -> new ConcurrentSkipListSet<>());
+    }
+
+    private Path file(Long userId, int year) {
+        return directory.resolve(userId.toString()).resolve(year + ".col");
+    }
+
+    private static Long parseUserId(String name) {
+        try {
+            return Long.valueOf(name);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.expense_manager.config;
+
+import com.example.expense_manager.timing.TimedJacksonHttpMessageConverter;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Configuración de Jackson
+ * Blackbird genera accesores con LambdaMetafactory en lugar de usar reflexión
+ * para leer y escribir propiedades de los DTOs
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Los DTOs con @JsonFilter (selección de campos, fields=) se serializan completos
+     * cuando la respuesta no trae sus propios filtros
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer defaultFiltersCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    /**
+     * Sustituye al conversor JSON por defecto para medir la serialización (Server-Timing)
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJacksonHttpMessageConverter(objectMapper);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.expense_manager.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de métricas
+ * Habilita @Timed en los servicios; las métricas HTTP, del pool de Hikari y de
+ * Hibernate las registra Actuator automáticamente (ver management.* en properties).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
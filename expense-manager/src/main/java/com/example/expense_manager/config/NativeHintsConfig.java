@@ -0,0 +1,118 @@
+package com.example.expense_manager.config;
+
+import com.example.expense_manager.query.QueryCountInspector;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Contact;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.security.SecurityRequirement;
+import io.swagger.v3.oas.models.security.SecurityScheme;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+import java.util.stream.Stream;
+
+/**
+ * Pistas de alcanzabilidad para la imagen nativa (GraalVM)
+ * El procesado AOT de Spring no detecta las clases que solo se usan por reflexión,
+ * por nombre o mediante ServiceLoader; aquí se registran las de JJWT, los DTOs
+ * generados con Lombok y el modelo OpenAPI de springdoc.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ExpenseManagerRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class ExpenseManagerRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final String DTO_PACKAGE = "com.example.expense_manager.dto";
+
+        /**
+         * jjwt-api instancia la implementación por nombre (Classes.newInstance)
+         */
+        private static final String[] JJWT_IMPL_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+        };
+
+        /**
+         * Clases que Hibernate instancia a partir de su nombre en application.properties
+         */
+        private static final String[] PROPERTY_INSTANTIATED_TYPES = {
+            "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            registerJjwt(hints, classLoader);
+            registerDtos(hints, classLoader);
+            registerOpenApiModel(hints);
+
+            hints.reflection().registerType(QueryCountInspector.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            for (String type : PROPERTY_INSTANTIATED_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            }
+
+            // Configuración de Caffeine JCache (regiones de la caché de segundo nivel)
+            hints.resources().registerPattern("application.conf");
+        }
+
+        private void registerJjwt(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : JJWT_IMPL_TYPES) {
+                if (ClassUtils.isPresent(type, classLoader)) {
+                    hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+                }
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+        }
+
+        /**
+         * Getters, setters y constructores de los DTOs los genera Lombok en compilación;
+         * Jackson y Bean Validation acceden a ellos por reflexión
+         */
+        private void registerDtos(RuntimeHints hints, ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter((reader, factory) -> true);
+            scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+
+            for (BeanDefinition candidate : scanner.findCandidateComponents(DTO_PACKAGE)) {
+                hints.reflection().registerType(TypeReference.of(candidate.getBeanClassName()),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+            }
+        }
+
+        /**
+         * springdoc serializa el modelo OpenAPI construido en OpenApiConfig
+         */
+        private void registerOpenApiModel(RuntimeHints hints) {
+            Stream.of(OpenAPI.class, Info.class, Contact.class, Components.class,
+                    SecurityScheme.class, SecurityScheme.Type.class, SecurityScheme.In.class,
+                    SecurityRequirement.class)
+                .forEach(type -> hints.reflection().registerType(type,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+        }
+    }
+}
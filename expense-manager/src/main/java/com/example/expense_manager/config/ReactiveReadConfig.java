@@ -0,0 +1,73 @@
+package com.example.expense_manager.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * Configuración de las lecturas reactivas (R2DBC)
+ * Con app.reactive.enabled=true se publica /api/reactive/expenses, que lee con un pool
+ * R2DBC propio (app.reactive.r2dbc.*) contra la misma base de datos que JPA: los hilos
+ * del servidor no se quedan esperando a la base de datos. Las escrituras siguen en JPA.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    private ConnectionPool connectionPool;
+
+    public ReactiveReadConfig(@Value("${app.sharding.enabled:false}") boolean shardingEnabled) {
+        // Las consultas reactivas van a una sola base de datos
+        if (shardingEnabled) {
+            throw new IllegalStateException("app.reactive.enabled y app.sharding.enabled no se pueden combinar");
+        }
+    }
+
+    /**
+     * Cliente R2DBC sobre un pool propio
+     * El pool no se publica como bean: con un ConnectionFactory en el contexto, Spring Boot
+     * deja de configurar el DataSource de JDBC. Se cierra junto con el contexto.
+     */
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(
+            @Value("${app.reactive.r2dbc.url}") String url,
+            @Value("${app.reactive.r2dbc.username:}") String username,
+            @Value("${app.reactive.r2dbc.password:}") String password,
+            @Value("${app.reactive.r2dbc.pool.initial-size:2}") int initialSize,
+            @Value("${app.reactive.r2dbc.pool.max-size:10}") int maxSize,
+            @Value("${app.reactive.r2dbc.pool.max-acquire-time-ms:20000}") long maxAcquireTimeMs) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (StringUtils.hasText(username)) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (StringUtils.hasText(password)) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options.build());
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+            .name("reactive")
+            .initialSize(initialSize)
+            .maxSize(maxSize)
+            .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMs))
+            .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closePool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.expense_manager.config;
+
+import com.example.expense_manager.shard.ShardDataSources;
+import com.example.expense_manager.shard.ShardDirectory;
+import com.example.expense_manager.shard.ShardKeyAspect;
+import com.example.expense_manager.shard.ShardRouter;
+import com.example.expense_manager.shard.ShardRoutingDataSource;
+import com.example.expense_manager.shard.ShardSchemaIntegrator;
+import com.example.expense_manager.shard.ShardingProperties;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Configuración del modo con varias bases de datos (shards)
+ * Con app.sharding.enabled=true cada usuario y sus gastos viven en uno de los shards de
+ * app.sharding.shards; JPA usa un datasource enrutado por el shard del hilo (ShardContext),
+ * que fijan los parámetros @ShardKey de los servicios. Sin la propiedad se mantiene el
+ * datasource autoconfigurado de siempre.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    public ShardingConfig(@Value("${spring.jpa.open-in-view:true}") boolean openInView,
+                          @Value("${app.datasource.replica.enabled:false}") boolean replicaEnabled) {
+        // Con open-in-view la sesión de la petición retiene la primera conexión y las
+        // transacciones siguientes la reutilizarían aunque sean de otro shard
+        if (openInView) {
+            throw new IllegalStateException("Con app.sharding.enabled=true hay que poner spring.jpa.open-in-view=false");
+        }
+        if (replicaEnabled) {
+            throw new IllegalStateException("app.sharding.enabled y app.datasource.replica.enabled no se pueden combinar");
+        }
+    }
+
+    @Bean
+    public ShardDataSources shardDataSources(ShardingProperties properties) {
+        return new ShardDataSources(properties.getShards(), properties.getPoolSize());
+    }
+
+    /**
+     * Datasource que usa JPA: enrutado por shard y con conexión perezosa
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shards) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(ShardDataSources shards, ShardingProperties properties) {
+        return new ShardDirectory(shards.get(0), properties.getDirectoryCacheSize());
+    }
+
+    @Bean
+    public ShardKeyAspect shardKeyAspect(ShardRouter router) {
+        return new ShardKeyAspect(router);
+    }
+
+    /**
+     * Hibernate no gestiona el esquema por sí mismo: ShardSchemaIntegrator aplica la misma acción en cada shard
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaCustomizer(ShardDataSources shards) {
+        return properties -> {
+            Object action = properties.getOrDefault(AvailableSettings.HBM2DDL_AUTO, "none");
+            properties.put(AvailableSettings.HBM2DDL_AUTO, "none");
+            properties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(new ShardSchemaIntegrator(shards, action)));
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.expense_manager.config;
+
+import com.example.expense_manager.timing.TimedBinaryJacksonHttpMessageConverter;
+import com.example.expense_manager.wire.WireFormat;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Formatos binarios de las respuestas (CBOR y Smile) por negociación de contenido
+ * Los mappers salen del mismo builder que el de JSON (spring.jackson.*, Blackbird,
+ * JavaTime y los serializadores propios), así que codifican los mismos objetos.
+ * Los conversores van después del de JSON: sin Accept explícito se sigue respondiendo JSON.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public WireFormatConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring añade sus propios conversores CBOR/Smile si las librerías están presentes, con otra configuración
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+            || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new TimedBinaryJacksonHttpMessageConverter(
+            objectMapperBuilder.getObject().factory(new CBORFactory()).build(), WireFormat.CBOR.getMediaType()));
+        converters.add(new TimedBinaryJacksonHttpMessageConverter(
+            objectMapperBuilder.getObject().factory(new SmileFactory()).build(), WireFormat.SMILE.getMediaType()));
+    }
+
+    /**
+     * Una misma URL tiene una representación por formato: las cachés deben distinguirlas por Accept
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (!response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+                    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                }
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.expense_manager.controller;
+
+import com.example.expense_manager.archive.ExpenseArchiver;
+import com.example.expense_manager.dto.ColdArchiveResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para el almacenamiento en frío de gastos antiguos
+ * Solo existe con app.archive.enabled=true
+ */
+@RestController
+@RequestMapping("/api/admin/archive")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+@Tag(name = "Archivo", description = "Almacenamiento en frío de gastos antiguos")
+@SecurityRequirement(name = "bearerAuth")
+public class ArchiveController {
+
+    private final ExpenseArchiver archiver;
+
+    /**
+     * POST /api/admin/archive - Archivar ahora los gastos antiguos (solo ADMIN)
+     */
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Archivar gastos antiguos (ADMIN)",
+               description = "Mueve a archivos columnares los gastos de los años anteriores a la antigüedad configurada")
+    public ResponseEntity<ColdArchiveResponse> archive() {
+        return ResponseEntity.ok(archiver.archive());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.expense_manager.controller;
+
+import com.example.expense_manager.dto.CacheStatisticsResponse;
+import com.example.expense_manager.service.CacheStatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST para consultar el estado de las cachés
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+@Tag(name = "Cachés", description = "Estadísticas de la caché de segundo nivel")
+@SecurityRequirement(name = "bearerAuth")
+public class CacheController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    /**
+     * GET /api/admin/cache/statistics - Estadísticas de la caché de segundo nivel (solo ADMIN)
+     */
+    @GetMapping("/statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Estadísticas de caché (ADMIN)",
+               description = "Obtiene aciertos, fallos y tamaño de cada región de la caché de segundo nivel")
+    public ResponseEntity<List<CacheStatisticsResponse>> getStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getStatistics());
+    }
+}
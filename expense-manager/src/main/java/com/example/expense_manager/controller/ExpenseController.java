@@ -1,10 +1,28 @@
 package com.example.expense_manager.controller;
 
+import com.example.expense_manager.dto.BulkOperationResponse;
+import com.example.expense_manager.dto.ExpenseField;
+import com.example.expense_manager.dto.ExpenseBatchRequest;
+import com.example.expense_manager.dto.ExpenseBulkRequest;
+import com.example.expense_manager.dto.ExpenseChangesResponse;
 import com.example.expense_manager.dto.ExpenseRequest;
 import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.dto.ExpenseStatisticsResponse;
+import com.example.expense_manager.dto.ExpenseSummaryResponse;
+import com.example.expense_manager.dto.PageResponse;
 import com.example.expense_manager.entity.User;
 import com.example.expense_manager.service.ExpenseService;
+import com.example.expense_manager.service.ExpenseStatisticsService;
+import com.example.expense_manager.service.ExpenseSummaryService;
+import com.example.expense_manager.service.ExpenseVersionTracker;
+import com.example.expense_manager.service.FxRateService;
+import com.example.expense_manager.service.IdempotencyService;
+import com.example.expense_manager.stream.ExpenseStreamBroadcaster;
+import com.example.expense_manager.wire.SparseFields;
+import com.example.expense_manager.wire.WireFormat;
+import com.fasterxml.jackson.core.type.TypeReference;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -15,13 +33,18 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Controlador REST para operaciones con Gastos
@@ -34,19 +57,63 @@ import java.util.List;
 public class ExpenseController {
     
     private final ExpenseService expenseService;
+    private final ExpenseStatisticsService statisticsService;
+    private final ExpenseSummaryService summaryService;
+    private final ExpenseVersionTracker versionTracker;
+    private final FxRateService fxRateService;
+    private final IdempotencyService idempotencyService;
+    private final ExpenseStreamBroadcaster streamBroadcaster;
+    
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    static final String FIELDS_DESCRIPTION = "Campos a devolver separados por comas (id, amount, currency, category, "
+        + "date, description, createdAt, userId, userName, anomalous, anomalyScore); vacío para todos";
     
     /**
      * POST /api/expenses - Crear un nuevo gasto
+     * Con Idempotency-Key los reintentos reciben la respuesta original sin crear otro gasto
      */
     @PostMapping
     @Operation(summary = "Crear gasto", description = "Registra un nuevo gasto para un usuario")
     public ResponseEntity<ExpenseResponse> createExpense(
             @Valid @RequestBody ExpenseRequest request,
+            @Parameter(description = "Clave única por intento lógico; los reintentos con la misma clave no duplican el gasto")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal User currentUser) {
         // El usuario solo puede crear gastos para sí mismo
         request.setUserId(currentUser.getId());
-        ExpenseResponse response = expenseService.createExpense(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        if (idempotencyKey == null) {
+            return new ResponseEntity<>(expenseService.createExpense(request), HttpStatus.CREATED);
+        }
+        IdempotencyService.Result<ExpenseResponse> result = idempotencyService.execute(
+            currentUser.getId(), idempotencyKey, "create", request,
+            new TypeReference<ExpenseResponse>() { },
+            () -> expenseService.createExpense(request));
+        return created(result);
+    }
+    
+    /**
+     * POST /api/expenses/batch - Crear varios gastos de una vez
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Crear gastos en bloque", 
+               description = "Registra varios gastos del usuario autenticado en una sola transacción (todos o ninguno)")
+    public ResponseEntity<List<ExpenseResponse>> createExpenses(
+            @Valid @RequestBody ExpenseBatchRequest request,
+            @Parameter(description = "Clave única por intento lógico; los reintentos con la misma clave no duplican los gastos")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal User currentUser) {
+        // Igual que al crear uno: todos los gastos son del usuario autenticado
+        request.getExpenses().forEach(expense -> expense.setUserId(currentUser.getId()));
+        if (idempotencyKey == null) {
+            return new ResponseEntity<>(
+                expenseService.createExpenses(currentUser.getId(), request.getExpenses()), HttpStatus.CREATED);
+        }
+        IdempotencyService.Result<List<ExpenseResponse>> result = idempotencyService.execute(
+            currentUser.getId(), idempotencyKey, "batch", request,
+            new TypeReference<List<ExpenseResponse>>() { },
+            () -> expenseService.createExpenses(currentUser.getId(), request.getExpenses()));
+        return created(result);
     }
     
     /**
@@ -55,18 +122,22 @@ public class ExpenseController {
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Listar todos los gastos (ADMIN)", description = "Obtiene todos los gastos con paginación (solo administradores)")
-    public ResponseEntity<Page<ExpenseResponse>> getAllExpenses(
+    public ResponseEntity<PageResponse<ExpenseResponse>> getAllExpenses(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "date") String sortBy,
-            @RequestParam(defaultValue = "DESC") String direction) {
+            @RequestParam(defaultValue = "DESC") String direction,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
+        Set<ExpenseField> selected = SparseFields.expenses(webRequest, fields);
         Sort.Direction sortDirection = direction.equalsIgnoreCase("ASC") ? 
             Sort.Direction.ASC : Sort.Direction.DESC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
         
-        Page<ExpenseResponse> expenses = expenseService.getAllExpenses(pageable);
-        return ResponseEntity.ok(expenses);
+        Page<ExpenseResponse> expenses = expenseService.getAllExpenses(pageable, selected);
+        return ResponseEntity.ok(PageResponse.of(expenses));
     }
     
     /**
@@ -74,14 +145,78 @@ public class ExpenseController {
      */
     @GetMapping("/my")
     @Operation(summary = "Mis gastos", description = "Obtiene todos los gastos del usuario autenticado")
-    public ResponseEntity<Page<ExpenseResponse>> getMyExpenses(
+    public ResponseEntity<PageResponse<ExpenseResponse>> getMyExpenses(
             @AuthenticationPrincipal User currentUser,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        
+        Set<ExpenseField> selected = SparseFields.expenses(webRequest, fields);
+        // Si el cliente ya tiene esta versión en el formato y con los campos que pide, responder 304 sin consultar la base
+        if (webRequest.checkNotModified(
+                versionTracker.etag(currentUser.getId(), WireFormat.of(webRequest), "my", page, size, selected))) {
+            return null;
+        }
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date"));
-        Page<ExpenseResponse> expenses = expenseService.getExpensesByUserId(currentUser.getId(), pageable);
-        return ResponseEntity.ok(expenses);
+        Page<ExpenseResponse> expenses = expenseService.getExpensesByUserId(currentUser.getId(), pageable, selected);
+        return ResponseEntity.ok(PageResponse.of(expenses));
+    }
+    
+    /**
+     * GET /api/expenses/my/changes - Cambios de MIS gastos desde un cursor (sincronización incremental)
+     * Sin cursor devuelve todos los gastos; 410 si el cursor ha caducado y hay que empezar de nuevo
+     */
+    @GetMapping("/my/changes")
+    @Operation(summary = "Cambios de mis gastos", 
+               description = "Obtiene los gastos cambiados y los IDs de los borrados desde el cursor indicado, en orden de cambio y por páginas")
+    public ResponseEntity<ExpenseChangesResponse> getMyExpenseChanges(
+            @AuthenticationPrincipal User currentUser,
+            @Parameter(description = "nextCursor de la respuesta anterior; vacío para sincronizar desde el principio")
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "200") int limit) {
+        
+        return ResponseEntity.ok(expenseService.getChanges(currentUser.getId(), since, limit));
+    }
+    
+    /**
+     * GET /api/expenses/my/stream - Cambios de MIS gastos en directo (Server-Sent Events)
+     * Eventos: totals (al conectar y tras cada cambio), expense-created, expense-updated,
+     * expense-deleted, expenses-changed (cambio masivo: recargar el rango) y resync (recargar todo)
+     */
+    @GetMapping(value = "/my/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream de mis gastos", 
+               description = "Mantiene abierta una conexión SSE con las altas, cambios y bajas de gastos del usuario autenticado y sus totales del año")
+    public SseEmitter streamMyExpenses(@AuthenticationPrincipal User currentUser) {
+        return streamBroadcaster.subscribe(currentUser.getId());
+    }
+    
+    /**
+     * GET /api/expenses/my/anomalies - Mis gastos inusuales
+     */
+    @GetMapping("/my/anomalies")
+    @Operation(summary = "Mis gastos inusuales", 
+               description = "Obtiene los gastos del usuario autenticado marcados como inusuales respecto a su historial")
+    public ResponseEntity<PageResponse<ExpenseResponse>> getMyAnomalousExpenses(
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        
+        Set<ExpenseField> selected = SparseFields.expenses(webRequest, fields);
+        if (webRequest.checkNotModified(versionTracker.etag(
+                currentUser.getId(), WireFormat.of(webRequest), "anomalies", page, size, selected))) {
+            return null;
+        }
+        
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date"));
+        Page<ExpenseResponse> expenses =
+            expenseService.getAnomalousExpensesByUserId(currentUser.getId(), pageable, selected);
+        return ResponseEntity.ok(PageResponse.of(expenses));
     }
     
     /**
@@ -101,14 +236,18 @@ public class ExpenseController {
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Gastos por usuario (ADMIN)", description = "Obtiene todos los gastos de un usuario específico (solo administradores)")
-    public ResponseEntity<Page<ExpenseResponse>> getExpensesByUser(
+    public ResponseEntity<PageResponse<ExpenseResponse>> getExpensesByUser(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
+        Set<ExpenseField> selected = SparseFields.expenses(webRequest, fields);
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date"));
-        Page<ExpenseResponse> expenses = expenseService.getExpensesByUserId(userId, pageable);
-        return ResponseEntity.ok(expenses);
+        Page<ExpenseResponse> expenses = expenseService.getExpensesByUserId(userId, pageable, selected);
+        return ResponseEntity.ok(PageResponse.of(expenses));
     }
     
     /**
@@ -119,13 +258,44 @@ public class ExpenseController {
     public ResponseEntity<List<ExpenseResponse>> getMyExpensesByDateRange(
             @AuthenticationPrincipal User currentUser,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        
+        Set<ExpenseField> selected = SparseFields.expenses(webRequest, fields);
+        if (webRequest.checkNotModified(versionTracker.etag(
+                currentUser.getId(), WireFormat.of(webRequest), "date-range", startDate, endDate, selected))) {
+            return null;
+        }
         
         List<ExpenseResponse> expenses = 
-            expenseService.getExpensesByUserAndDateRange(currentUser.getId(), startDate, endDate);
+            expenseService.getExpensesByUserAndDateRange(currentUser.getId(), startDate, endDate, selected);
         return ResponseEntity.ok(expenses);
     }
     
+    /**
+     * GET /api/expenses/my/summary - Resumen anual de mis gastos en mi moneda base
+     */
+    @GetMapping("/my/summary")
+    @Operation(summary = "Resumen anual", 
+               description = "Obtiene los totales por categoría y por mes del usuario autenticado, convertidos a su moneda base")
+    public ResponseEntity<ExpenseSummaryResponse> getMySummary(
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(required = false) Integer year,
+            WebRequest webRequest) {
+        
+        int summaryYear = year != null ? year : LocalDate.now().getYear();
+        // El resumen también depende de la tabla de tipos de cambio
+        if (webRequest.checkNotModified(versionTracker.etag(
+                currentUser.getId(), WireFormat.of(webRequest), "summary", summaryYear, fxRateService.version()))) {
+            return null;
+        }
+        
+        ExpenseSummaryResponse summary = summaryService.getYearSummary(currentUser.getId(), summaryYear);
+        return ResponseEntity.ok(summary);
+    }
+    
     /**
      * GET /api/expenses/date-range - Gastos por rango de fechas (solo ADMIN)
      */
@@ -134,9 +304,13 @@ public class ExpenseController {
     @Operation(summary = "Gastos por fechas (ADMIN)", description = "Obtiene gastos dentro de un rango de fechas (solo administradores)")
     public ResponseEntity<List<ExpenseResponse>> getExpensesByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
-        List<ExpenseResponse> expenses = expenseService.getExpensesByDateRange(startDate, endDate);
+        List<ExpenseResponse> expenses = expenseService.getExpensesByDateRange(
+            startDate, endDate, SparseFields.expenses(webRequest, fields));
         return ResponseEntity.ok(expenses);
     }
     
@@ -150,13 +324,57 @@ public class ExpenseController {
     public ResponseEntity<List<ExpenseResponse>> getExpensesByUserAndDateRange(
             @PathVariable Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
-        List<ExpenseResponse> expenses = 
-            expenseService.getExpensesByUserAndDateRange(userId, startDate, endDate);
+        List<ExpenseResponse> expenses = expenseService.getExpensesByUserAndDateRange(
+            userId, startDate, endDate, SparseFields.expenses(webRequest, fields));
         return ResponseEntity.ok(expenses);
     }
     
+    /**
+     * GET /api/expenses/statistics - Distribución de montos por categoría y mes (solo ADMIN)
+     */
+    @GetMapping("/statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Estadísticas de gastos (ADMIN)", 
+               description = "Obtiene mediana, p90 y p99 de los montos por categoría y por mes (solo administradores)")
+    public ResponseEntity<ExpenseStatisticsResponse> getStatistics(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        
+        ExpenseStatisticsResponse statistics = statisticsService.getStatistics(from, to);
+        return ResponseEntity.ok(statistics);
+    }
+    
+    /**
+     * POST /api/expenses/my/bulk-delete - Eliminar varios de mis gastos de una vez
+     */
+    @PostMapping("/my/bulk-delete")
+    @Operation(summary = "Eliminar gastos en bloque", 
+               description = "Elimina los gastos del usuario autenticado indicados por IDs o por filtro (fechas y categoría)")
+    public ResponseEntity<BulkOperationResponse> bulkDeleteMyExpenses(
+            @Valid @RequestBody ExpenseBulkRequest request,
+            @AuthenticationPrincipal User currentUser) {
+        BulkOperationResponse response = expenseService.bulkDeleteExpenses(currentUser.getId(), request);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * POST /api/expenses/my/bulk-update - Recategorizar varios de mis gastos de una vez
+     */
+    @PostMapping("/my/bulk-update")
+    @Operation(summary = "Recategorizar gastos en bloque", 
+               description = "Asigna una nueva categoría a los gastos del usuario autenticado indicados por IDs o por filtro")
+    public ResponseEntity<BulkOperationResponse> bulkUpdateMyExpenses(
+            @Valid @RequestBody ExpenseBulkRequest request,
+            @AuthenticationPrincipal User currentUser) {
+        BulkOperationResponse response = expenseService.bulkUpdateExpenses(currentUser.getId(), request);
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * PUT /api/expenses/{id} - Actualizar un gasto
      */
@@ -188,4 +406,13 @@ public class ExpenseController {
         expenseService.deleteExpense(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+    
+    /**
+     * Respuesta 201 de una creación idempotente, marcando las repeticiones
+     */
+    private <T> ResponseEntity<T> created(IdempotencyService.Result<T> result) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+            .body(result.body());
+    }
+}
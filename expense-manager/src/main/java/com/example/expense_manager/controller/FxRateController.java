@@ -0,0 +1,43 @@
+package com.example.expense_manager.controller;
+
+import com.example.expense_manager.dto.FxRateImportResponse;
+import com.example.expense_manager.service.FxRateService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Controlador REST para la tabla de tipos de cambio
+ */
+@RestController
+@RequestMapping("/api/fx-rates")
+@RequiredArgsConstructor
+@Tag(name = "Tipos de cambio", description = "API para gestionar los tipos de cambio diarios")
+@SecurityRequirement(name = "bearerAuth")
+public class FxRateController {
+
+    private final FxRateService fxRateService;
+
+    /**
+     * POST /api/fx-rates/import - Importar tipos de cambio desde un CSV (solo ADMIN)
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Importar tipos de cambio (ADMIN)",
+               description = "Importa un CSV con líneas fecha,moneda,tipo (tipo por unidad de la moneda de referencia)")
+    public ResponseEntity<FxRateImportResponse> importRates(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            FxRateImportResponse response = fxRateService.importRates(in);
+            return ResponseEntity.ok(response);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.expense_manager.controller;
+
+import com.example.expense_manager.dto.ExpensePartitionResponse;
+import com.example.expense_manager.dto.PartitionArchiveResponse;
+import com.example.expense_manager.partition.ExpensePartitionManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Controlador REST para el mantenimiento de las particiones de gastos
+ * Solo existe con app.partitioning.enabled=true (PostgreSQL)
+ */
+@RestController
+@RequestMapping("/api/admin/partitions")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.partitioning.enabled", havingValue = "true")
+@Tag(name = "Particiones", description = "Particiones mensuales de la tabla de gastos")
+@SecurityRequirement(name = "bearerAuth")
+public class PartitionController {
+
+    private final ExpensePartitionManager partitionManager;
+
+    /**
+     * GET /api/admin/partitions - Listar particiones (solo ADMIN)
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Listar particiones (ADMIN)",
+               description = "Obtiene las particiones de la tabla de gastos con su rango y filas estimadas")
+    public ResponseEntity<List<ExpensePartitionResponse>> getPartitions() {
+        return ResponseEntity.ok(partitionManager.listPartitions());
+    }
+
+    /**
+     * POST /api/admin/partitions/archive?before=yyyy-MM - Archivar meses anteriores (solo ADMIN)
+     */
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Archivar particiones (ADMIN)",
+               description = "Separa las particiones de los meses anteriores al indicado y las mueve al esquema de archivo")
+    public ResponseEntity<PartitionArchiveResponse> archive(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth before) {
+        return ResponseEntity.ok(partitionManager.archive(before));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.expense_manager.controller;
+
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.dto.ExpenseSummaryResponse;
+import com.example.expense_manager.dto.PageResponse;
+import com.example.expense_manager.entity.User;
+import com.example.expense_manager.reactive.ReactiveExpenseService;
+import com.example.expense_manager.service.ExpenseVersionTracker;
+import com.example.expense_manager.service.FxRateService;
+import com.example.expense_manager.wire.WireFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controlador REST con las lecturas no bloqueantes de los gastos propios (app.reactive.enabled)
+ * Mismas respuestas, autenticación JWT y ETags que /api/expenses/my*; la consulta se
+ * resuelve con R2DBC y el hilo del servidor queda libre hasta que llegan los datos.
+ */
+@RestController
+@RequestMapping("/api/reactive/expenses")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@Tag(name = "Gastos (lectura reactiva)", description = "Lecturas no bloqueantes de los gastos del usuario autenticado")
+@SecurityRequirement(name = "bearerAuth")
+public class ReactiveExpenseController {
+
+    private final ReactiveExpenseService expenseService;
+    private final ExpenseVersionTracker versionTracker;
+    private final FxRateService fxRateService;
+
+    /**
+     * GET /api/reactive/expenses/my - Obtener MIS gastos (usuario autenticado)
+     */
+    @GetMapping("/my")
+    @Operation(summary = "Mis gastos (reactivo)", description = "Obtiene todos los gastos del usuario autenticado")
+    public Mono<ResponseEntity<PageResponse<ExpenseResponse>>> getMyExpenses(
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
+
+        // Mismo ETag que la lectura bloqueante: las dos devuelven la misma representación
+        if (webRequest.checkNotModified(
+                versionTracker.etag(currentUser.getId(), WireFormat.of(webRequest), "my", page, size))) {
+            return null;
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date"));
+        return expenseService.getExpensesByUserId(currentUser, pageable)
+            .map(expenses -> ResponseEntity.ok(PageResponse.of(expenses)));
+    }
+
+    /**
+     * GET /api/reactive/expenses/my/date-range - Mis gastos por rango de fechas
+     */
+    @GetMapping("/my/date-range")
+    @Operation(summary = "Mis gastos por fechas (reactivo)",
+               description = "Obtiene gastos del usuario autenticado dentro de un rango de fechas")
+    public Mono<ResponseEntity<List<ExpenseResponse>>> getMyExpensesByDateRange(
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest webRequest) {
+
+        if (webRequest.checkNotModified(
+                versionTracker.etag(currentUser.getId(), WireFormat.of(webRequest), "date-range", startDate, endDate))) {
+            return null;
+        }
+
+        return expenseService.getExpensesByUserAndDateRange(currentUser, startDate, endDate)
+            .map(ResponseEntity::ok);
+    }
+
+    /**
+     * GET /api/reactive/expenses/my/summary - Resumen anual de mis gastos en mi moneda base
+     */
+    @GetMapping("/my/summary")
+    @Operation(summary = "Resumen anual (reactivo)",
+               description = "Obtiene los totales por categoría y por mes del usuario autenticado, convertidos a su moneda base")
+    public Mono<ResponseEntity<ExpenseSummaryResponse>> getMySummary(
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(required = false) Integer year,
+            WebRequest webRequest) {
+
+        int summaryYear = year != null ? year : LocalDate.now().getYear();
+        if (webRequest.checkNotModified(versionTracker.etag(
+                currentUser.getId(), WireFormat.of(webRequest), "summary", summaryYear, fxRateService.version()))) {
+            return null;
+        }
+
+        return expenseService.getYearSummary(currentUser, summaryYear)
+            .map(ResponseEntity::ok);
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.expense_manager.controller;
 
+import com.example.expense_manager.dto.UserDeletionResponse;
 import com.example.expense_manager.dto.UserRequest;
 import com.example.expense_manager.dto.UserResponse;
+import com.example.expense_manager.enums.DeletionStatus;
 import com.example.expense_manager.service.UserService;
+import com.example.expense_manager.wire.SparseFields;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -12,7 +16,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.net.URI;
 import java.util.List;
 
 /**
@@ -45,8 +51,11 @@ public class UserController {
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Listar usuarios (ADMIN)", description = "Obtiene todos los usuarios (solo administradores)")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers();
+    public ResponseEntity<List<UserResponse>> getAllUsers(
+            @Parameter(description = "Campos a devolver separados por comas (id, email, name, role, baseCurrency, createdAt); vacío para todos")
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        List<UserResponse> users = userService.getAllUsers(SparseFields.users(webRequest, fields));
         return ResponseEntity.ok(users);
     }
     
@@ -76,12 +85,28 @@ public class UserController {
     
     /**
      * DELETE /api/users/{id} - Eliminar un usuario
+     * 204 si se eliminó en la propia petición; 202 con el estado si se elimina en segundo plano
      */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Eliminar usuario (ADMIN)", description = "Elimina un usuario del sistema (solo administradores)")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        userService.deleteUser(id);
-        return ResponseEntity.noContent().build();
+    @Operation(summary = "Eliminar usuario (ADMIN)", description = "Elimina un usuario y sus gastos; los usuarios con muchos gastos se eliminan en segundo plano (solo administradores)")
+    public ResponseEntity<UserDeletionResponse> deleteUser(@PathVariable Long id) {
+        UserDeletionResponse deletion = userService.deleteUser(id);
+        if (deletion.getStatus() == DeletionStatus.COMPLETED) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/users/deletions/" + deletion.getJobId()))
+            .body(deletion);
+    }
+    
+    /**
+     * GET /api/users/deletions/{jobId} - Estado de un borrado en segundo plano
+     */
+    @GetMapping("/deletions/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Estado de borrado (ADMIN)", description = "Progreso del borrado en segundo plano de un usuario (solo administradores)")
+    public ResponseEntity<UserDeletionResponse> getDeletionStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(userService.getDeletionStatus(jobId));
     }
 }
\ No newline at end of file
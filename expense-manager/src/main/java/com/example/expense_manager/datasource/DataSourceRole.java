@@ -0,0 +1,9 @@
+package com.example.expense_manager.datasource;
+
+/**
+ * Destino de las conexiones del datasource enrutado
+ */
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
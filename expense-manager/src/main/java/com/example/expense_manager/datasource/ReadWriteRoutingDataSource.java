@@ -0,0 +1,45 @@
+package com.example.expense_manager.datasource;
+
+import com.example.expense_manager.entity.User;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Datasource que envía las transacciones de solo lectura a la réplica y el resto al primario
+ * Debe envolverse en un LazyConnectionDataSourceProxy: la conexión se pide al ejecutar
+ * la primera sentencia, cuando ya se conoce si la transacción es de solo lectura.
+ * Las lecturas vuelven al primario si la réplica no está sana o si el usuario
+ * autenticado escribió hace poco (lectura de las propias escrituras).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaHealthMonitor healthMonitor;
+    private final ReadYourWritesTracker writesTracker;
+
+    public ReadWriteRoutingDataSource(ReplicaHealthMonitor healthMonitor, ReadYourWritesTracker writesTracker) {
+        this.healthMonitor = healthMonitor;
+        this.writesTracker = writesTracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !healthMonitor.isUsable()) {
+            return DataSourceRole.PRIMARY;
+        }
+        Long userId = currentUserId();
+        if (userId != null && writesTracker.wroteRecently(userId)) {
+            return DataSourceRole.PRIMARY;
+        }
+        return DataSourceRole.REPLICA;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
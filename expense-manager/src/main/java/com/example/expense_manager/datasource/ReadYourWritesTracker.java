@@ -0,0 +1,51 @@
+package com.example.expense_manager.datasource;
+
+import com.example.expense_manager.event.DomainEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recuerda qué usuarios han escrito recientemente
+ * Durante la ventana configurada sus lecturas van al primario, para que no vean
+ * datos anteriores a su propia escritura mientras la réplica se pone al día.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMs) {
+        this.windowNanos = windowMs * 1_000_000L;
+    }
+
+    /**
+     * Registra la escritura de los usuarios afectados una vez confirmada
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        long now = System.nanoTime();
+        for (Long userId : event.affectedUserIds()) {
+            if (userId != null) {
+                lastWrites.put(userId, now);
+            }
+        }
+    }
+
+    /**
+     * Indica si el usuario escribió dentro de la ventana
+     */
+    public boolean wroteRecently(Long userId) {
+        Long lastWrite = lastWrites.get(userId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < windowNanos) {
+            return true;
+        }
+        // Ventana vencida: se descarta para que el mapa no crezca indefinidamente
+        lastWrites.remove(userId, lastWrite);
+        return false;
+    }
+}
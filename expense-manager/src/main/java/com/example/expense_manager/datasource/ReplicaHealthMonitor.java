@@ -0,0 +1,67 @@
+package com.example.expense_manager.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Comprueba periódicamente que la réplica responde y cuánto retraso lleva
+ * Si la consulta falla o el retraso supera la tolerancia, las lecturas vuelven
+ * al primario hasta la siguiente comprobación correcta.
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String lagQuery;
+    private final long maxLagMs;
+
+    // Hasta la primera comprobación no se envía nada a la réplica
+    private volatile boolean usable;
+    private volatile long lastLagMs = -1;
+
+    public ReplicaHealthMonitor(DataSource replica, String lagQuery, long maxLagMs, int timeoutSeconds) {
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.jdbcTemplate.setQueryTimeout(timeoutSeconds);
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+    }
+
+    /**
+     * Indica si las lecturas pueden ir a la réplica
+     */
+    public boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * Último retraso medido en milisegundos (-1 si no se pudo medir)
+     */
+    public long getLastLagMs() {
+        return lastLagMs;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.datasource.replica.check-interval-ms:5000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lagSeconds = jdbcTemplate.queryForObject(lagQuery, Double.class);
+            lastLagMs = lagSeconds != null ? Math.round(lagSeconds * 1000) : 0L;
+            usable = lastLagMs <= maxLagMs;
+            if (!usable && wasUsable) {
+                log.warn("Réplica con {} ms de retraso (máximo {} ms): lecturas al primario", lastLagMs, maxLagMs);
+            }
+        } catch (RuntimeException ex) {
+            lastLagMs = -1;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Réplica no disponible: lecturas al primario", ex);
+            }
+        }
+        if (usable && !wasUsable) {
+            log.info("Réplica disponible ({} ms de retraso): lecturas de solo lectura a la réplica", lastLagMs);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.expense_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO con el resultado de mover gastos antiguos al almacenamiento en frío
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColdArchiveResponse {
+    private LocalDate before;
+    private int users;
+    private int files;
+    private long archivedExpenses;
+}
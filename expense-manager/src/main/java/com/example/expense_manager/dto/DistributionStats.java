@@ -0,0 +1,23 @@
+package com.example.expense_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO con la distribución de montos de un grupo de gastos
+ * Los percentiles son aproximados (calculados con sketches de cuantiles)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistributionStats {
+    private long count;
+    private BigDecimal min;
+    private BigDecimal max;
+    private BigDecimal median;
+    private BigDecimal p90;
+    private BigDecimal p99;
+}
@@ -0,0 +1,23 @@
+package com.example.expense_manager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para crear varios gastos del usuario en una sola petición
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBatchRequest {
+    
+    @NotEmpty(message = "La lista de gastos no puede estar vacía")
+    @Size(max = 500, message = "No se pueden crear más de 500 gastos por petición")
+    private List<@Valid ExpenseRequest> expenses;
+}
@@ -0,0 +1,34 @@
+package com.example.expense_manager.dto;
+
+import com.example.expense_manager.enums.ExpenseCategory;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO para operaciones masivas sobre los gastos del usuario
+ * Los gastos se seleccionan por lista de IDs o por filtro (rango de fechas y,
+ * opcionalmente, categoría), nunca por ambos a la vez.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBulkRequest {
+    
+    @Size(max = 1000, message = "No se pueden indicar más de 1000 IDs por operación")
+    private List<Long> ids;
+    
+    // Filtro: categoría actual de los gastos (opcional)
+    private ExpenseCategory category;
+    
+    private LocalDate startDate;
+    
+    private LocalDate endDate;
+    
+    // Solo para actualización: categoría que se asigna a los gastos seleccionados
+    private ExpenseCategory newCategory;
+}
@@ -0,0 +1,23 @@
+package com.example.expense_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con una página de cambios de los gastos del usuario desde un cursor
+ * El cliente aplica primero las bajas y después los gastos cambiados (nunca se repite un ID
+ * entre las dos listas) y guarda nextCursor para la siguiente petición. Con hasMore hay que
+ * pedir la página siguiente enseguida.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseChangesResponse {
+    private List<ExpenseResponse> changed;
+    private List<Long> deletedIds;
+    private String nextCursor;
+    private boolean hasMore;
+}
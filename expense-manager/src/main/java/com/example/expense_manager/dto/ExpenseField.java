@@ -0,0 +1,52 @@
+package com.example.expense_manager.dto;
+
+import com.example.expense_manager.exeption.InvalidFieldsException;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Propiedades de ExpenseResponse que se pueden pedir con el parámetro fields=
+ * El orden de declaración es el orden en que se serializan.
+ */
+public enum ExpenseField {
+    ID("id"),
+    AMOUNT("amount"),
+    CURRENCY("currency"),
+    CATEGORY("category"),
+    DATE("date"),
+    DESCRIPTION("description"),
+    CREATED_AT("createdAt"),
+    USER_ID("userId"),
+    USER_NAME("userName"),
+    ANOMALOUS("anomalous"),
+    ANOMALY_SCORE("anomalyScore");
+
+    private static final Map<String, ExpenseField> BY_PROPERTY = Arrays.stream(values())
+        .collect(Collectors.toMap(ExpenseField::getProperty, Function.identity()));
+
+    private final String property;
+
+    ExpenseField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Campo con el nombre de propiedad indicado
+     *
+     * @throws InvalidFieldsException si ExpenseResponse no tiene esa propiedad
+     */
+    public static ExpenseField of(String property) {
+        ExpenseField field = BY_PROPERTY.get(property);
+        if (field == null) {
+            throw new InvalidFieldsException("Campo de gasto desconocido: " + property);
+        }
+        return field;
+    }
+}
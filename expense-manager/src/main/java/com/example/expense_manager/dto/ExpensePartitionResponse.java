@@ -0,0 +1,21 @@
+package com.example.expense_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO con una partición de la tabla expenses
+ * La partición por defecto (fechas fuera de rango) no tiene límites
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpensePartitionResponse {
+    private String name;
+    private LocalDate from;
+    private LocalDate to;
+    private long estimatedRows;
+}
@@ -21,6 +21,10 @@ public class ExpenseRequest {
     @DecimalMin(value = "0.01", message = "El monto debe ser mayor a 0")
     private BigDecimal amount;
     
+    // Opcional: si no se indica se usa la moneda base del usuario
+    @Pattern(regexp = "[A-Z]{3}", message = "La moneda debe ser un código ISO de 3 letras")
+    private String currency;
+    
     @NotNull(message = "La categoría es obligatoria")
     private ExpenseCategory category;
     
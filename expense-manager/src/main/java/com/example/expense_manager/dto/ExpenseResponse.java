@@ -1,6 +1,8 @@
 package com.example.expense_manager.dto;
 
+import com.example.expense_manager.dto.serializer.ExpenseResponseSerializer;
 import com.example.expense_manager.enums.ExpenseCategory;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,17 +13,22 @@ import java.time.LocalDateTime;
 
 /**
  * DTO para enviar datos de gasto al cliente
+ * Se serializa con un serializador dedicado por ser el objeto más frecuente en los listados
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonSerialize(using = ExpenseResponseSerializer.class)
 public class ExpenseResponse {
     private Long id;
     private BigDecimal amount;
+    private String currency;
     private ExpenseCategory category;
     private LocalDate date;
     private String description;
     private LocalDateTime createdAt;
     private Long userId;
     private String userName;
+    private boolean anomalous;
+    private Double anomalyScore;
 }
\ No newline at end of file
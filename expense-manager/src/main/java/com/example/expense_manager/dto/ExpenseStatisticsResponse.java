@@ -0,0 +1,24 @@
+package com.example.expense_manager.dto;
+
+import com.example.expense_manager.enums.ExpenseCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * DTO con las estadísticas de gastos de un rango de meses
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseStatisticsResponse {
+    private YearMonth from;
+    private YearMonth to;
+    private String currency;
+    private DistributionStats overall;
+    private Map<ExpenseCategory, DistributionStats> byCategory;
+    private Map<YearMonth, DistributionStats> byMonth;
+}
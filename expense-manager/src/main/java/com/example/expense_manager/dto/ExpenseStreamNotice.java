@@ -0,0 +1,30 @@
+package com.example.expense_manager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO de los avisos del stream de gastos que no llevan el gasto completo
+ * Un gasto eliminado lleva su id; un cambio masivo, el rango de fechas que conviene recargar.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExpenseStreamNotice {
+    private Long id;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    public static ExpenseStreamNotice deleted(Long id) {
+        return new ExpenseStreamNotice(id, null, null);
+    }
+
+    public static ExpenseStreamNotice changed(LocalDate startDate, LocalDate endDate) {
+        return new ExpenseStreamNotice(null, startDate, endDate);
+    }
+}
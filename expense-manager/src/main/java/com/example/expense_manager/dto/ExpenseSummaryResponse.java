@@ -0,0 +1,25 @@
+package com.example.expense_manager.dto;
+
+import com.example.expense_manager.enums.ExpenseCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * DTO con el resumen anual de gastos de un usuario en su moneda base
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseSummaryResponse {
+    private int year;
+    private String currency;
+    private long count;
+    private BigDecimal total;
+    private Map<ExpenseCategory, BigDecimal> byCategory;
+    private Map<YearMonth, BigDecimal> byMonth;
+}
@@ -0,0 +1,21 @@
+package com.example.expense_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * DTO con el resultado de importar una tabla de tipos de cambio
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FxRateImportResponse {
+    private int imported;
+    private Set<String> currencies;
+    private LocalDate from;
+    private LocalDate to;
+}
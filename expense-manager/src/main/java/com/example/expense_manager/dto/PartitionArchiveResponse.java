@@ -0,0 +1,18 @@
+package com.example.expense_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con el resultado de archivar particiones antiguas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartitionArchiveResponse {
+    private String schema;
+    private List<String> archived;
+}
@@ -0,0 +1,27 @@
+package com.example.expense_manager.dto;
+
+import com.example.expense_manager.enums.DeletionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO con el estado del borrado de un usuario
+ * Los borrados pequeños se completan en la propia petición (sin jobId);
+ * los grandes se ejecutan en segundo plano y se consultan por su jobId
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDeletionResponse {
+    private String jobId;
+    private Long userId;
+    private DeletionStatus status;
+    private long totalExpenses;
+    private long deletedExpenses;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
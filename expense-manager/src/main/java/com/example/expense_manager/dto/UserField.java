@@ -0,0 +1,49 @@
+package com.example.expense_manager.dto;
+
+import com.example.expense_manager.exeption.InvalidFieldsException;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Propiedades de UserResponse que se pueden pedir con el parámetro fields=
+ */
+public enum UserField {
+    ID("id"),
+    EMAIL("email"),
+    NAME("name"),
+    ROLE("role"),
+    BASE_CURRENCY("baseCurrency"),
+    CREATED_AT("createdAt");
+
+    // Id del filtro de Jackson declarado en UserResponse
+    public static final String FILTER_ID = "userFields";
+
+    private static final Map<String, UserField> BY_PROPERTY = Arrays.stream(values())
+        .collect(Collectors.toMap(UserField::getProperty, Function.identity()));
+
+    private final String property;
+
+    UserField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Campo con el nombre de propiedad indicado
+     *
+     * @throws InvalidFieldsException si UserResponse no tiene esa propiedad
+     */
+    public static UserField of(String property) {
+        UserField field = BY_PROPERTY.get(property);
+        if (field == null) {
+            throw new InvalidFieldsException("Campo de usuario desconocido: " + property);
+        }
+        return field;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.expense_manager.dto;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -22,4 +23,8 @@ public class UserRequest {
     @NotBlank(message = "El nombre es obligatorio")
     @Size(min = 2, max = 100, message = "El nombre debe tener entre 2 y 100 caracteres")
     private String name;
+    
+    // Opcional: moneda en la que se presentan los resúmenes
+    @Pattern(regexp = "[A-Z]{3}", message = "La moneda debe ser un código ISO de 3 letras")
+    private String baseCurrency;
 }
\ No newline at end of file
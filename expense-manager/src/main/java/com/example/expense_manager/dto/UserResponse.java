@@ -1,5 +1,6 @@
 package com.example.expense_manager.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,14 +9,17 @@ import java.time.LocalDateTime;
 
 /**
  * DTO para enviar datos de usuario al cliente
+ * El filtro permite devolver solo los campos pedidos (UserField)
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(UserField.FILTER_ID)
 public class UserResponse {
     private Long id;
     private String email;
     private String name;
     private String role;
+    private String baseCurrency;
     private LocalDateTime createdAt;
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.example.expense_manager.dto.serializer;
+
+import com.example.expense_manager.dto.ExpenseField;
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.wire.SparseFields;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+
+/**
+ * Serializador escrito a mano para ExpenseResponse
+ * Evita la introspección y los serializadores genéricos de fechas y enums
+ * en los listados; produce el mismo JSON que la serialización por defecto.
+ * Si la respuesta trae una selección de campos (fields=), escribe solo esos.
+ */
+public class ExpenseResponseSerializer extends StdSerializer<ExpenseResponse> {
+
+    // Nombres de campo pre-codificados para no re-escaparlos en cada objeto
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString AMOUNT = new SerializedString("amount");
+    private static final SerializableString CURRENCY = new SerializedString("currency");
+    private static final SerializableString CATEGORY = new SerializedString("category");
+    private static final SerializableString DATE = new SerializedString("date");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString USER_ID = new SerializedString("userId");
+    private static final SerializableString USER_NAME = new SerializedString("userName");
+    private static final SerializableString ANOMALOUS = new SerializedString("anomalous");
+    private static final SerializableString ANOMALY_SCORE = new SerializedString("anomalyScore");
+
+    public ExpenseResponseSerializer() {
+        super(ExpenseResponse.class);
+    }
+
+    @Override
+    public void serialize(ExpenseResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Set<ExpenseField> fields = SparseFields.expenseFields(provider);
+        gen.writeStartObject(value);
+
+        if (selected(fields, ExpenseField.ID)) {
+            gen.writeFieldName(ID);
+            if (value.getId() != null) {
+                gen.writeNumber(value.getId());
+            } else {
+                gen.writeNull();
+            }
+        }
+
+        if (selected(fields, ExpenseField.AMOUNT)) {
+            gen.writeFieldName(AMOUNT);
+            if (value.getAmount() != null) {
+                gen.writeNumber(value.getAmount());
+            } else {
+                gen.writeNull();
+            }
+        }
+
+        if (selected(fields, ExpenseField.CURRENCY)) {
+            gen.writeFieldName(CURRENCY);
+            gen.writeString(value.getCurrency());
+        }
+
+        if (selected(fields, ExpenseField.CATEGORY)) {
+            gen.writeFieldName(CATEGORY);
+            gen.writeString(value.getCategory() != null ? value.getCategory().name() : null);
+        }
+
+        if (selected(fields, ExpenseField.DATE)) {
+            gen.writeFieldName(DATE);
+            gen.writeString(value.getDate() != null ? value.getDate().toString() : null);
+        }
+
+        if (selected(fields, ExpenseField.DESCRIPTION)) {
+            gen.writeFieldName(DESCRIPTION);
+            gen.writeString(value.getDescription());
+        }
+
+        if (selected(fields, ExpenseField.CREATED_AT)) {
+            gen.writeFieldName(CREATED_AT);
+            gen.writeString(value.getCreatedAt() != null
+                ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value.getCreatedAt()) : null);
+        }
+
+        if (selected(fields, ExpenseField.USER_ID)) {
+            gen.writeFieldName(USER_ID);
+            if (value.getUserId() != null) {
+                gen.writeNumber(value.getUserId());
+            } else {
+                gen.writeNull();
+            }
+        }
+
+        if (selected(fields, ExpenseField.USER_NAME)) {
+            gen.writeFieldName(USER_NAME);
+            gen.writeString(value.getUserName());
+        }
+
+        if (selected(fields, ExpenseField.ANOMALOUS)) {
+            gen.writeFieldName(ANOMALOUS);
+            gen.writeBoolean(value.isAnomalous());
+        }
+
+        if (selected(fields, ExpenseField.ANOMALY_SCORE)) {
+            gen.writeFieldName(ANOMALY_SCORE);
+            if (value.getAnomalyScore() != null) {
+                gen.writeNumber(value.getAnomalyScore());
+            } else {
+                gen.writeNull();
+            }
+        }
+
+        gen.writeEndObject();
+    }
+
+    private static boolean selected(Set<ExpenseField> fields, ExpenseField field) {
+        return fields == null || fields.contains(field);
+    }
+}
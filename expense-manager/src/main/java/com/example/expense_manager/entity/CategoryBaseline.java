@@ -0,0 +1,45 @@
+package com.example.expense_manager.entity;
+
+import com.example.expense_manager.enums.ExpenseCategory;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estadísticas acumuladas (EWMA) de los montos de un usuario en una categoría
+ * Se usan para detectar gastos inusuales y se persisten periódicamente
+ */
+@Entity
+@Table(name = "expense_category_baselines",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "category"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryBaseline {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExpenseCategory category;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    @Column(nullable = false)
+    private double mean;
+
+    @Column(nullable = false)
+    private double variance;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
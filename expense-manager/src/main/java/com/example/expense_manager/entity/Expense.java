@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -12,9 +13,15 @@ import java.time.LocalDateTime;
 
 /**
  * Entidad que representa un Gasto del usuario
+ * En PostgreSQL la tabla puede estar particionada por mes sobre date
+ * (ver db/postgresql/expenses-partitioning.sql y ExpensePartitionManager)
  */
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses",
+       indexes = {
+           @Index(name = "idx_expenses_user_date", columnList = "user_id, date"),
+           @Index(name = "idx_expenses_user_change", columnList = "user_id, change_seq, id")
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,6 +34,12 @@ public class Expense {
     @Column(nullable = false)
     private BigDecimal amount;
     
+    // Código ISO 4217 de la moneda del monto (por defecto, la moneda base del usuario)
+    // El default de columna solo rellena las filas anteriores a la columna al añadirla con ddl-auto=update
+    @ColumnDefault("'EUR'")
+    @Column(nullable = false, length = 3)
+    private String currency;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private ExpenseCategory category;
@@ -37,9 +50,25 @@ public class Expense {
     @Column(length = 500)
     private String description;
     
+    // Marcado al crear el gasto si se desvía mucho del historial del usuario en esa categoría
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean anomalous;
+    
+    @Column(name = "anomaly_score")
+    private Double anomalyScore;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Posición del último cambio en la secuencia de cambios del usuario (ver ExpenseChangeLog)
+    @ColumnDefault("0")
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+    
     // Muchos gastos pertenecen a un usuario
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -48,5 +77,11 @@ public class Expense {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 }
\ No newline at end of file
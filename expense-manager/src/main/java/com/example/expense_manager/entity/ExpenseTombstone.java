@@ -0,0 +1,41 @@
+package com.example.expense_manager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marca de un gasto que ha dejado de pertenecer a un usuario (borrado o reasignado a otro)
+ * Permite a la sincronización incremental avisar de las bajas; se purga pasado el tiempo de retención.
+ * Sin clave foránea: el gasto ya no existe o es de otro usuario.
+ */
+@Entity
+@Table(name = "expense_tombstones",
+       indexes = {
+           @Index(name = "idx_expense_tombstones_user_change", columnList = "user_id, change_seq, expense_id"),
+           @Index(name = "idx_expense_tombstones_deleted_at", columnList = "deleted_at")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "expense_id", nullable = false)
+    private Long expenseId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,36 @@
+package com.example.expense_manager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Tipo de cambio diario de una moneda
+ * El valor expresa cuántas unidades de la moneda equivalen a una unidad
+ * de la moneda de referencia configurada (app.fx.reference-currency)
+ */
+@Entity
+@Table(name = "fx_rates",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"rate_date", "currency"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FxRate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(nullable = false, precision = 19, scale = 8)
+    private BigDecimal rate;
+}
@@ -5,6 +5,11 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,18 +21,25 @@ import java.util.Collection;
 
 /**
  * Entidad que representa un Usuario en el sistema
+ * Se guarda en la caché de segundo nivel, también indexado por email (natural id)
  */
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User implements UserDetails{
     
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-email";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String email;
     
@@ -41,6 +53,18 @@ public class User implements UserDetails{
     @Column(nullable = false)
     private UserRole role;
     
+    // Moneda en la que se presentan los resúmenes del usuario (ISO 4217)
+    // Por defecto, la moneda de referencia configurada (app.fx.reference-currency); el default
+    // de columna solo rellena las filas anteriores a la columna al añadirla con ddl-auto=update
+    @ColumnDefault("'EUR'")
+    @Column(name = "base_currency", nullable = false, length = 3)
+    private String baseCurrency;
+
+    // Último valor de la secuencia de cambios de sus gastos; solo lo modifica ExpenseChangeLog
+    @ColumnDefault("0")
+    @Column(name = "expense_change_seq", nullable = false, insertable = false, updatable = false)
+    private long expenseChangeSeq;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
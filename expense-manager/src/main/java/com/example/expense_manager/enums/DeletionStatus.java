@@ -0,0 +1,14 @@
+package com.example.expense_manager.enums;
+/**
+ * Estados del borrado de un usuario y sus gastos
+ * PENDING: En cola, esperando al hilo de borrado
+ * RUNNING: Borrando gastos por lotes
+ * COMPLETED: Gastos y usuario eliminados
+ * FAILED: Interrumpido por un error (lo ya borrado no se restaura; puede reintentarse)
+ */
+public enum DeletionStatus {
+  PENDING,
+  RUNNING,
+  COMPLETED,
+  FAILED
+}
@@ -0,0 +1,39 @@
+package com.example.expense_manager.event;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+/**
+ * Evento de dominio publicado por los servicios al modificar gastos o usuarios
+ * Se entrega a los suscriptores solo después de confirmarse la transacción.
+ */
+public sealed interface DomainEvent
+        permits ExpenseCreatedEvent, ExpenseUpdatedEvent, ExpenseDeletedEvent, ExpensesBulkChangedEvent,
+                ExpensesArchivedEvent, UserUpdatedEvent, UserDeletedEvent {
+
+    /**
+     * Usuarios cuyos datos derivados quedan desactualizados
+     */
+    Set<Long> affectedUserIds();
+
+    /**
+     * Meses con gastos afectados por el cambio
+     */
+    default Set<YearMonth> affectedMonths() {
+        return Set.of();
+    }
+
+    /**
+     * Indica que el cambio puede afectar a cualquier mes (p. ej. al borrar un usuario con sus gastos)
+     */
+    default boolean affectsAllMonths() {
+        return false;
+    }
+
+    /**
+     * Indica que el cambio puede afectar a los datos de cualquier usuario (p. ej. al archivar meses)
+     */
+    default boolean affectsAllUsers() {
+        return false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.expense_manager.event;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Set;
+
+/**
+ * Se ha eliminado un gasto
+ */
+public record ExpenseDeletedEvent(Long expenseId, Long userId, LocalDate date) implements DomainEvent {
+
+    @Override
+    public Set<Long> affectedUserIds() {
+        return Set.of(userId);
+    }
+
+    @Override
+    public Set<YearMonth> affectedMonths() {
+        return Set.of(YearMonth.from(date));
+    }
+}
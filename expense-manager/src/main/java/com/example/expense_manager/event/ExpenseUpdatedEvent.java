@@ -0,0 +1,24 @@
+package com.example.expense_manager.event;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Se ha actualizado un gasto; puede haber cambiado de usuario y de fecha
+ */
+public record ExpenseUpdatedEvent(Long expenseId, Long previousUserId, LocalDate previousDate,
+                                  Long userId, LocalDate date) implements DomainEvent {
+
+    @Override
+    public Set<Long> affectedUserIds() {
+        return new HashSet<>(Arrays.asList(previousUserId, userId));
+    }
+
+    @Override
+    public Set<YearMonth> affectedMonths() {
+        return new HashSet<>(Arrays.asList(YearMonth.from(previousDate), YearMonth.from(date)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.expense_manager.event;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+/**
+ * Se han archivado (separado de la tabla expenses) los gastos de los meses indicados
+ * Afecta a todos los usuarios con gastos en esos meses.
+ */
+public record ExpensesArchivedEvent(Set<YearMonth> months) implements DomainEvent {
+
+    public ExpensesArchivedEvent {
+        months = Set.copyOf(months);
+    }
+
+    @Override
+    public Set<Long> affectedUserIds() {
+        return Set.of();
+    }
+
+    @Override
+    public Set<YearMonth> affectedMonths() {
+        return months;
+    }
+
+    @Override
+    public boolean affectsAllUsers() {
+        return true;
+    }
+}
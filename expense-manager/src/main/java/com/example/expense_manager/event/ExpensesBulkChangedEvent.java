@@ -0,0 +1,41 @@
+package com.example.expense_manager.event;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Se han actualizado o eliminado varios gastos de un usuario en una sola sentencia
+ * El rango cubre las fechas de todos los gastos afectados. Un rango de más de MAX_MONTHS
+ * meses invalida todos los meses en lugar de enumerarlos.
+ */
+public record ExpensesBulkChangedEvent(Long userId, LocalDate startDate, LocalDate endDate,
+                                       int affected) implements DomainEvent {
+
+    public static final int MAX_MONTHS = 120;
+
+    @Override
+    public Set<Long> affectedUserIds() {
+        return Set.of(userId);
+    }
+
+    @Override
+    public Set<YearMonth> affectedMonths() {
+        if (affectsAllMonths()) {
+            return Set.of();
+        }
+        Set<YearMonth> months = new HashSet<>();
+        YearMonth last = YearMonth.from(endDate);
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    @Override
+    public boolean affectsAllMonths() {
+        return ChronoUnit.MONTHS.between(YearMonth.from(startDate), YearMonth.from(endDate)) >= MAX_MONTHS;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.expense_manager.event;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+/**
+ * Invalidaciones acumuladas durante una ventana del bus, ya sin duplicados
+ *
+ * @param userIds        usuarios con datos modificados
+ * @param months         meses con gastos modificados (ignorar si {@code allMonths})
+ * @param allMonths      el lote afecta a cualquier mes (usuario borrado o desbordamiento)
+ * @param deletedUserIds usuarios eliminados, cuyo estado debe olvidarse
+ * @param events         número de eventos coalescidos en el lote
+ */
+public record InvalidationBatch(Set<Long> userIds, Set<YearMonth> months, boolean allMonths,
+                                Set<Long> deletedUserIds, int events) {
+}
@@ -0,0 +1,124 @@
+package com.example.expense_manager.event;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bus de invalidación de datos derivados
+ * Recibe los eventos de dominio tras el commit, los acumula durante una ventana corta
+ * coalesciendo usuarios y meses repetidos, y entrega un único lote a los suscriptores
+ * desde un hilo propio, sin trabajo síncrono en el camino de escritura.
+ * Como mucho hay una entrega pendiente a la vez; si el lote acumulado supera
+ * el máximo se degrada a una invalidación completa en lugar de seguir creciendo.
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    private final List<InvalidationListener> listeners;
+    private final long batchWindowMs;
+    private final int maxPending;
+    private final ScheduledExecutorService executor;
+
+    private final Object lock = new Object();
+    private Set<Long> pendingUsers = new HashSet<>();
+    private Set<YearMonth> pendingMonths = new HashSet<>();
+    private Set<Long> pendingDeletedUsers = new HashSet<>();
+    private boolean pendingAllMonths;
+    private int pendingEvents;
+    private boolean flushScheduled;
+
+    public InvalidationBus(List<InvalidationListener> listeners,
+                           @Value("${app.events.batch-window-ms:50}") long batchWindowMs,
+                           @Value("${app.events.max-pending:10000}") int maxPending) {
+        this.listeners = listeners;
+        this.batchWindowMs = batchWindowMs;
+        this.maxPending = maxPending;
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "invalidation-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.executor = scheduler;
+    }
+
+    /**
+     * Encola un evento confirmado; si se publica fuera de una transacción se encola igualmente
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        synchronized (lock) {
+            pendingEvents++;
+            pendingUsers.addAll(event.affectedUserIds());
+            pendingUsers.remove(null);
+            if (event instanceof UserDeletedEvent deleted) {
+                pendingDeletedUsers.add(deleted.userId());
+            }
+            if (event.affectsAllMonths()) {
+                pendingAllMonths = true;
+            }
+            if (!pendingAllMonths) {
+                pendingMonths.addAll(event.affectedMonths());
+            }
+            if (pendingUsers.size() + pendingMonths.size() > maxPending) {
+                // Demasiadas claves distintas: basta con invalidar todo
+                pendingAllMonths = true;
+            }
+            if (pendingAllMonths) {
+                pendingMonths.clear();
+            }
+            if (!flushScheduled) {
+                flushScheduled = true;
+                executor.schedule(this::flush, batchWindowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Entrega a los suscriptores lo acumulado hasta ahora
+     */
+    void flush() {
+        InvalidationBatch batch;
+        synchronized (lock) {
+            flushScheduled = false;
+            if (pendingEvents == 0) {
+                return;
+            }
+            batch = new InvalidationBatch(pendingUsers, pendingMonths, pendingAllMonths,
+                pendingDeletedUsers, pendingEvents);
+            pendingUsers = new HashSet<>();
+            pendingMonths = new HashSet<>();
+            pendingDeletedUsers = new HashSet<>();
+            pendingAllMonths = false;
+            pendingEvents = 0;
+        }
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidation(batch);
+            } catch (RuntimeException e) {
+                log.warn("Fallo al entregar invalidaciones a {}", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    /**
+     * Entrega lo pendiente y detiene el hilo del bus
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        flush();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.expense_manager.event;
+
+/**
+ * Suscriptor del bus de invalidación
+ * Se invoca desde el hilo del bus, fuera de cualquier transacción y después del commit.
+ */
+public interface InvalidationListener {
+
+    void onInvalidation(InvalidationBatch batch);
+}
@@ -0,0 +1,19 @@
+package com.example.expense_manager.event;
+
+import java.util.Set;
+
+/**
+ * Se ha eliminado un usuario junto con todos sus gastos
+ */
+public record UserDeletedEvent(Long userId) implements DomainEvent {
+
+    @Override
+    public Set<Long> affectedUserIds() {
+        return Set.of(userId);
+    }
+
+    @Override
+    public boolean affectsAllMonths() {
+        return true;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.expense_manager.event;
+
+import java.util.Set;
+
+/**
+ * Se han actualizado los datos de un usuario (nombre, email o moneda base)
+ */
+public record UserUpdatedEvent(Long userId) implements DomainEvent {
+
+    @Override
+    public Set<Long> affectedUserIds() {
+        return Set.of(userId);
+    }
+}
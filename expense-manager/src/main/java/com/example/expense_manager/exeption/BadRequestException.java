@@ -0,0 +1,11 @@
+package com.example.expense_manager.exeption;
+
+/**
+ * Excepción cuando los parámetros de una petición no son válidos (respuesta 400)
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
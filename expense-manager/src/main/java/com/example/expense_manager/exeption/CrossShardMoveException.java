@@ -0,0 +1,11 @@
+package com.example.expense_manager.exeption;
+
+/**
+ * Excepción cuando se intenta asignar un gasto a un usuario que vive en otro shard
+ */
+public class CrossShardMoveException extends RuntimeException {
+
+    public CrossShardMoveException(String message) {
+        super(message);
+    }
+}
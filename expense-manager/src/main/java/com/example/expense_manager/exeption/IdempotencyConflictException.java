@@ -0,0 +1,11 @@
+package com.example.expense_manager.exeption;
+
+/**
+ * Excepción cuando se reutiliza una clave de idempotencia con una petición distinta
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
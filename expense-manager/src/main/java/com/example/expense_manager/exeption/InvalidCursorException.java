@@ -0,0 +1,12 @@
+package com.example.expense_manager.exeption;
+
+/**
+ * Excepción cuando un cursor de sincronización está mal formado o ha caducado
+ * El cliente debe descartar su copia local y sincronizar desde cero.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.expense_manager.exeption;
+
+/**
+ * Excepción cuando el parámetro fields= o la ordenación nombran una propiedad que la respuesta no tiene
+ */
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.expense_manager.exeption;
+
+/**
+ * Excepción cuando no se admiten más conexiones de streaming en esta instancia
+ */
+public class StreamCapacityException extends RuntimeException {
+
+    public StreamCapacityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.expense_manager.partition;
+
+import com.example.expense_manager.dto.ExpensePartitionResponse;
+import com.example.expense_manager.dto.PartitionArchiveResponse;
+import com.example.expense_manager.event.ExpensesArchivedEvent;
+import com.example.expense_manager.exeption.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mantenimiento de la tabla expenses particionada por mes (solo PostgreSQL)
+ * Al arrancar aplica la migración si se pide y, después y cada día, crea las
+ * particiones de los próximos meses moviendo a ellas lo que hubiera caído en la
+ * partición por defecto. Archivar separa (DETACH) las particiones de meses antiguos
+ * y las mueve a otro esquema: dejan de leerse y de mantenerse (vacuum, índices)
+ * sin borrar los datos; pierden las claves ajenas para que los usuarios con gastos
+ * archivados puedan borrarse. Las consultas que filtran por date (findByUserIdAndDateBetween,
+ * findByDateBetween...) solo recorren las particiones del rango.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.partitioning.enabled", havingValue = "true")
+public class ExpensePartitionManager implements ApplicationRunner {
+
+    static final String DEFAULT_PARTITION = "expenses_default";
+    private static final String MIGRATION_SCRIPT = "db/postgresql/expenses-partitioning.sql";
+    private static final Pattern PARTITION_NAME = Pattern.compile("expenses_p(\\d{4})_(\\d{2})");
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final String FOREIGN_KEYS_QUERY =
+        "SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean migrateOnStartup;
+    private final int premakeMonths;
+    private final int archiveAfterMonths;
+    private final String archiveSchema;
+
+    public ExpensePartitionManager(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${app.partitioning.migrate-on-startup:false}") boolean migrateOnStartup,
+                                   @Value("${app.partitioning.premake-months:3}") int premakeMonths,
+                                   @Value("${app.partitioning.archive-after-months:0}") int archiveAfterMonths,
+                                   @Value("${app.partitioning.archive-schema:archive}") String archiveSchema) {
+        if (!IDENTIFIER.matcher(archiveSchema).matches()) {
+            throw new IllegalArgumentException("Nombre de esquema de archivo no válido: " + archiveSchema);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.migrateOnStartup = migrateOnStartup;
+        this.premakeMonths = premakeMonths;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.archiveSchema = archiveSchema;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!isPartitioned()) {
+            if (!migrateOnStartup) {
+                log.warn("app.partitioning.enabled=true pero expenses no está particionada; "
+                    + "ejecutar {} o activar app.partitioning.migrate-on-startup", MIGRATION_SCRIPT);
+                return;
+            }
+            migrate();
+        }
+        maintain();
+    }
+
+    /**
+     * Convierte expenses en una tabla particionada (ver el script para los detalles)
+     */
+    public void migrate() {
+        String script;
+        try {
+            script = new ClassPathResource(MIGRATION_SCRIPT).getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long start = System.nanoTime();
+        // El script es un único bloque DO: se ejecuta entero en una transacción
+        transaction.executeWithoutResult(status -> jdbcTemplate.execute(script));
+        log.info("Tabla expenses migrada a particiones mensuales en {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Mantenimiento diario: particiones futuras y, si está configurado, archivado por antigüedad
+     */
+    @Scheduled(cron = "${app.partitioning.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= premakeMonths; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        if (archiveAfterMonths > 0) {
+            archive(current.minusMonths(archiveAfterMonths));
+        }
+    }
+
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('expenses'))",
+            Boolean.class));
+    }
+
+    /**
+     * Crea la partición del mes si no existe
+     * Se crea como tabla suelta, recibe las filas de ese mes que estuvieran en la partición
+     * por defecto y se adjunta; así no falla aunque ya se hubieran insertado gastos del mes.
+     */
+    public boolean createPartition(YearMonth month) {
+        String name = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        Boolean created = transaction.execute(status -> {
+            if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name)) {
+                return false;
+            }
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE expenses INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE date >= ? AND date < ? RETURNING *) INSERT INTO " + name + " SELECT * FROM moved", from, to);
+            jdbcTemplate.execute("ALTER TABLE expenses ATTACH PARTITION " + name
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            if (moved > 0) {
+                log.info("{} gastos movidos de {} a {}", moved, DEFAULT_PARTITION, name);
+            }
+            return true;
+        });
+        if (Boolean.TRUE.equals(created)) {
+            log.info("Creada la partición {}", name);
+        }
+        return Boolean.TRUE.equals(created);
+    }
+
+    /**
+     * Particiones actuales con su rango y una estimación de filas (estadísticas del planificador)
+     */
+    public List<ExpensePartitionResponse> listPartitions() {
+        return jdbcTemplate.query(
+            "SELECT c.relname, greatest(c.reltuples, 0)::bigint AS estimated_rows FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass('expenses') "
+                + "ORDER BY c.relname",
+            (rs, rowNum) -> {
+                String name = rs.getString("relname");
+                YearMonth month = monthOf(name);
+                return new ExpensePartitionResponse(name,
+                    month != null ? month.atDay(1) : null,
+                    month != null ? month.plusMonths(1).atDay(1) : null,
+                    rs.getLong("estimated_rows"));
+            });
+    }
+
+    /**
+     * Separa las particiones de los meses anteriores a {@code before} y las mueve al esquema de archivo
+     * La partición por defecto no se archiva aunque contenga fechas antiguas.
+     */
+    public PartitionArchiveResponse archive(YearMonth before) {
+        validateArchiveCutoff(before, YearMonth.now());
+        List<String> archived = new ArrayList<>();
+        Set<YearMonth> months = new HashSet<>();
+        for (ExpensePartitionResponse partition : listPartitions()) {
+            YearMonth month = monthOf(partition.getName());
+            if (month == null || !month.isBefore(before)) {
+                continue;
+            }
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE expenses DETACH PARTITION " + partition.getName());
+                // La partición separada conserva su copia de fk_expenses_partitioned_user, que
+                // impediría borrar a los usuarios con gastos archivados (UserDeletionService)
+                for (String constraint : jdbcTemplate.queryForList(
+                        FOREIGN_KEYS_QUERY, String.class, partition.getName())) {
+                    jdbcTemplate.execute("ALTER TABLE " + partition.getName()
+                        + " DROP CONSTRAINT \"" + constraint + "\"");
+                }
+                jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+                jdbcTemplate.execute("ALTER TABLE " + partition.getName() + " SET SCHEMA " + archiveSchema);
+            });
+            archived.add(archiveSchema + "." + partition.getName());
+            months.add(month);
+            log.info("Partición {} archivada en el esquema {}", partition.getName(), archiveSchema);
+        }
+        if (!months.isEmpty()) {
+            eventPublisher.publishEvent(new ExpensesArchivedEvent(months));
+        }
+        return new PartitionArchiveResponse(archiveSchema, archived);
+    }
+
+    static void validateArchiveCutoff(YearMonth before, YearMonth current) {
+        if (before.isAfter(current)) {
+            throw new BadRequestException("Solo se pueden archivar meses anteriores al actual");
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("expenses_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    /**
+     * Mes de una partición a partir de su nombre, o null si no es mensual (partición por defecto)
+     */
+    static YearMonth monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+}
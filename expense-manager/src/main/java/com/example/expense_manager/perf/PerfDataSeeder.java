@@ -0,0 +1,139 @@
+package com.example.expense_manager.perf;
+
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.enums.UserRole;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generador de datos sintéticos para el perfil de rendimiento
+ * Inserta usuarios y gastos con JDBC por lotes al arrancar, con una semilla fija
+ * para que dos ejecuciones partan exactamente de los mismos datos.
+ * Todos los usuarios comparten la contraseña configurada; el administrador es
+ * admin@perf.local y los usuarios perf-user-N@perf.local (N desde 1).
+ */
+@Slf4j
+@Component
+@Profile("perf")
+@Order(Ordered.HIGHEST_PRECEDENCE) // Antes del calentamiento, que así recorre datos reales
+public class PerfDataSeeder implements ApplicationRunner {
+
+    public static final String ADMIN_EMAIL = "admin@perf.local";
+    private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final int users;
+    private final int expensesPerUser;
+    private final int days;
+    private final int batchSize;
+    private final long randomSeed;
+    private final String password;
+    private final String currency;
+
+    public PerfDataSeeder(JdbcTemplate jdbcTemplate,
+                          PasswordEncoder passwordEncoder,
+                          @Value("${app.perf.seed.users:200}") int users,
+                          @Value("${app.perf.seed.expenses-per-user:250}") int expensesPerUser,
+                          @Value("${app.perf.seed.days:365}") int days,
+                          @Value("${app.perf.seed.batch-size:1000}") int batchSize,
+                          @Value("${app.perf.seed.random-seed:42}") long randomSeed,
+                          @Value("${app.perf.seed.password:password}") String password,
+                          @Value("${app.fx.reference-currency:EUR}") String currency) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.users = users;
+        this.expensesPerUser = expensesPerUser;
+        this.days = days;
+        this.batchSize = batchSize;
+        this.randomSeed = randomSeed;
+        this.password = password;
+        this.currency = currency;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, ADMIN_EMAIL);
+        if (existing != null && existing > 0) {
+            log.info("Datos de rendimiento ya presentes, no se generan de nuevo");
+            return;
+        }
+
+        long start = System.nanoTime();
+        // BCrypt es deliberadamente lento: se codifica una sola vez para todos
+        String hash = passwordEncoder.encode(password);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> userRows = new ArrayList<>(users + 1);
+        userRows.add(new Object[]{ADMIN_EMAIL, "Perf Admin", hash, UserRole.ROLE_ADMIN.name(), currency, now});
+        for (int i = 1; i <= users; i++) {
+            userRows.add(new Object[]{"perf-user-" + i + "@perf.local", "Perf User " + i, hash,
+                UserRole.ROLE_USER.name(), currency, now});
+        }
+        insertInBatches("INSERT INTO users (email, name, password, role, base_currency, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)", userRows);
+
+        List<Long> userIds = jdbcTemplate.queryForList(
+            "SELECT id FROM users WHERE email LIKE 'perf-user-%' ORDER BY id", Long.class);
+
+        Random random = new Random(randomSeed);
+        LocalDate today = LocalDate.now();
+        List<Object[]> expenseRows = new ArrayList<>(batchSize);
+        long inserted = 0;
+        for (Long userId : userIds) {
+            for (int i = 0; i < expensesPerUser; i++) {
+                // Montos log-normales: muchos gastos pequeños y una cola de gastos grandes
+                BigDecimal amount = BigDecimal.valueOf(Math.exp(3.0 + random.nextGaussian()))
+                    .add(BigDecimal.ONE)
+                    .setScale(2, RoundingMode.HALF_UP);
+                ExpenseCategory category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+                LocalDate date = today.minusDays(random.nextInt(days));
+                expenseRows.add(new Object[]{amount, currency, category.name(), Date.valueOf(date),
+                    "Gasto sintético " + i, false, now, userId});
+                if (expenseRows.size() == batchSize) {
+                    inserted += insertExpenses(expenseRows);
+                    expenseRows.clear();
+                }
+            }
+        }
+        inserted += insertExpenses(expenseRows);
+
+        log.info("Generados {} usuarios y {} gastos sintéticos en {} ms",
+            userIds.size(), inserted, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int insertExpenses(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO expenses " +
+            "(amount, currency, category, date, description, anomalous, created_at, user_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return rows.size();
+    }
+
+    private void insertInBatches(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+}
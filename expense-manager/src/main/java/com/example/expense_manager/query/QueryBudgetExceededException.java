@@ -0,0 +1,12 @@
+package com.example.expense_manager.query;
+
+/**
+ * Una petición ha ejecutado más sentencias SQL que el presupuesto configurado
+ * Solo se lanza con app.query-budget.fail-on-exceed=true (pensado para tests)
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
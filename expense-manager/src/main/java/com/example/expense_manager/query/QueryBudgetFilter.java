@@ -0,0 +1,90 @@
+package com.example.expense_manager.query;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Cuenta las sentencias SQL de cada petición y las publica por endpoint
+ * Se ejecuta antes que la cadena de seguridad para incluir también la carga del
+ * usuario del token. Si una petición supera el presupuesto se registra un aviso
+ * (típicamente un N+1 por carga perezosa) y, en modo estricto, se lanza
+ * QueryBudgetExceededException para que el test que la provoca falle.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final long budget;
+    private final boolean failOnExceed;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry,
+                             @Value("${app.query-budget.max-per-request:10}") long budget,
+                             @Value("${app.query-budget.fail-on-exceed:false}") boolean failOnExceed) {
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            record(request);
+        }
+
+        long queries = QueryCounter.count();
+        if (failOnExceed && queries > budget) {
+            throw new QueryBudgetExceededException(request.getMethod() + " " + uriTemplate(request)
+                + " ejecutó " + queries + " sentencias SQL (presupuesto: " + budget + ")");
+        }
+    }
+
+    /**
+     * Publica el número de sentencias de la petición y avisa si supera el presupuesto
+     */
+    private void record(HttpServletRequest request) {
+        long queries = QueryCounter.count();
+        String uri = uriTemplate(request);
+        DistributionSummary.builder("http.server.requests.queries")
+            .description("Sentencias SQL ejecutadas por petición")
+            .baseUnit("queries")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .publishPercentileHistogram()
+            .maximumExpectedValue(100.0)
+            .register(meterRegistry)
+            .record(queries);
+
+        if (queries > budget) {
+            log.warn("{} {} ejecutó {} sentencias SQL (presupuesto: {})",
+                request.getMethod(), uri, queries, budget);
+        }
+    }
+
+    /**
+     * Plantilla del endpoint (p. ej. /api/expenses/{id}) para no crear una serie por ID
+     */
+    private static String uriTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.expense_manager.query;
+
+/**
+ * Contador de sentencias SQL ejecutadas por el hilo actual
+ * Lo incrementa QueryCountInspector; QueryBudgetFilter lo reinicia al empezar
+ * cada petición y los tests lo usan para comprobar cuántas consultas genera una operación.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Pone a cero el contador del hilo actual
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * Sentencias ejecutadas por el hilo actual desde el último reset
+     */
+    public static long count() {
+        return COUNT.get()[0];
+    }
+
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.expense_manager.reactive;
+
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.repository.projection.ExpenseDailyTotalView;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Consultas de solo lectura de gastos con R2DBC
+ * SQL portable (PostgreSQL y H2) sobre las mismas tablas que mapea JPA; las filas se
+ * convierten directamente a DTO, sin entidades ni contexto de persistencia.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveExpenseRepository {
+
+    private static final String SELECT_EXPENSES =
+        "SELECT e.id, e.amount, e.currency, e.category, e.date, e.description, e.created_at, " +
+        "e.user_id, u.name AS user_name, e.anomalous, e.anomaly_score " +
+        "FROM expenses e JOIN users u ON u.id = e.user_id ";
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    /**
+     * Gastos de un usuario, del más reciente al más antiguo
+     */
+    public Flux<ExpenseResponse> findByUserId(Long userId, long offset, int limit) {
+        return reactiveDatabaseClient.sql(SELECT_EXPENSES +
+                "WHERE e.user_id = :userId ORDER BY e.date DESC, e.id DESC LIMIT :limit OFFSET :offset")
+            .bind("userId", userId)
+            .bind("limit", limit)
+            .bind("offset", offset)
+            .map(ReactiveExpenseRepository::toResponse)
+            .all();
+    }
+
+    public Mono<Long> countByUserId(Long userId) {
+        return reactiveDatabaseClient.sql("SELECT COUNT(*) AS total FROM expenses WHERE user_id = :userId")
+            .bind("userId", userId)
+            .map(row -> row.get("total", Long.class))
+            .one();
+    }
+
+    /**
+     * Gastos de un usuario entre dos fechas (ambas incluidas)
+     */
+    public Flux<ExpenseResponse> findByUserIdAndDateBetween(Long userId, LocalDate startDate, LocalDate endDate) {
+        return reactiveDatabaseClient.sql(SELECT_EXPENSES +
+                "WHERE e.user_id = :userId AND e.date BETWEEN :startDate AND :endDate")
+            .bind("userId", userId)
+            .bind("startDate", startDate)
+            .bind("endDate", endDate)
+            .map(ReactiveExpenseRepository::toResponse)
+            .all();
+    }
+
+    /**
+     * Suma los gastos de un usuario por día, categoría y moneda dentro de un rango de fechas
+     */
+    public Flux<DailyTotal> sumDailyTotalsByUserIdAndDateBetween(Long userId, LocalDate startDate, LocalDate endDate) {
+        return reactiveDatabaseClient.sql(
+                "SELECT date, category, currency, SUM(amount) AS total, COUNT(*) AS expense_count " +
+                "FROM expenses WHERE user_id = :userId AND date BETWEEN :startDate AND :endDate " +
+                "GROUP BY date, category, currency")
+            .bind("userId", userId)
+            .bind("startDate", startDate)
+            .bind("endDate", endDate)
+            .map(row -> new DailyTotal(row.get("date", LocalDate.class),
+                ExpenseCategory.valueOf(row.get("category", String.class)),
+                row.get("currency", String.class),
+                row.get("total", BigDecimal.class),
+                row.get("expense_count", Long.class)))
+            .all();
+    }
+
+    private static ExpenseResponse toResponse(Readable row) {
+        Boolean anomalous = row.get("anomalous", Boolean.class);
+        return new ExpenseResponse(
+            row.get("id", Long.class),
+            row.get("amount", BigDecimal.class),
+            row.get("currency", String.class),
+            ExpenseCategory.valueOf(row.get("category", String.class)),
+            row.get("date", LocalDate.class),
+            row.get("description", String.class),
+            row.get("created_at", LocalDateTime.class),
+            row.get("user_id", Long.class),
+            row.get("user_name", String.class),
+            Boolean.TRUE.equals(anomalous),
+            row.get("anomaly_score", Double.class));
+    }
+
+    /**
+     * Fila de totales diarios; implementa la misma proyección que la consulta JPA
+     */
+    public record DailyTotal(LocalDate date, ExpenseCategory category, String currency,
+                             BigDecimal total, Long count) implements ExpenseDailyTotalView {
+        @Override
+        public LocalDate getDate() {
+            return date;
+        }
+
+        @Override
+        public ExpenseCategory getCategory() {
+            return category;
+        }
+
+        @Override
+        public String getCurrency() {
+            return currency;
+        }
+
+        @Override
+        public BigDecimal getTotal() {
+            return total;
+        }
+
+        @Override
+        public Long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.expense_manager.reactive;
+
+import com.example.expense_manager.archive.ArchivedExpense;
+import com.example.expense_manager.archive.ExpenseColdStorage;
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.dto.ExpenseSummaryResponse;
+import com.example.expense_manager.entity.User;
+import com.example.expense_manager.service.ExpenseSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Lecturas no bloqueantes de los gastos del usuario autenticado
+ * Devuelve lo mismo que las lecturas de ExpenseService para /my, /my/date-range y
+ * /my/summary, pero sin ocupar un hilo mientras la base de datos responde. El usuario
+ * llega ya cargado por el filtro JWT, así que no se vuelve a comprobar que existe.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveExpenseService {
+
+    private final ReactiveExpenseRepository expenseRepository;
+    private final ExpenseColdStorage coldStorage;
+    private final ExpenseSummaryService summaryService;
+
+    /**
+     * Gastos del usuario, del más reciente al más antiguo (con paginación)
+     * Como Spring Data, se ahorra el COUNT cuando la página basta para conocer el total.
+     */
+    public Mono<Page<ExpenseResponse>> getExpensesByUserId(User user, Pageable pageable) {
+        return expenseRepository.findByUserId(user.getId(), pageable.getOffset(), pageable.getPageSize())
+            .collectList()
+            .flatMap(content -> {
+                if (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+                    return Mono.just(new PageImpl<>(content, pageable, pageable.getOffset() + content.size()));
+                }
+                return expenseRepository.countByUserId(user.getId())
+                    .map(total -> new PageImpl<>(content, pageable, total));
+            });
+    }
+
+    /**
+     * Gastos del usuario por rango de fechas, incluidos los del almacenamiento en frío
+     */
+    public Mono<List<ExpenseResponse>> getExpensesByUserAndDateRange(User user, LocalDate startDate,
+                                                                     LocalDate endDate) {
+        return expenseRepository.findByUserIdAndDateBetween(user.getId(), startDate, endDate)
+            .collectList()
+            // El catálogo está en memoria y los archivos ya mapeados: no hay espera de E/S
+            .map(expenses -> withArchived(user, expenses, coldStorage.find(user.getId(), startDate, endDate)));
+    }
+
+    /**
+     * Resumen anual del usuario por categoría y por mes en su moneda base
+     */
+    public Mono<ExpenseSummaryResponse> getYearSummary(User user, int year) {
+        return expenseRepository.sumDailyTotalsByUserIdAndDateBetween(
+                user.getId(), LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))
+            .collectList()
+            .map(rows -> summaryService.summarize(year, user.getBaseCurrency(), rows));
+    }
+
+    /**
+     * Antepone los gastos archivados, igual que ExpenseService; todos son del propio usuario
+     */
+    private List<ExpenseResponse> withArchived(User user, List<ExpenseResponse> expenses,
+                                               List<ArchivedExpense> archived) {
+        if (archived.isEmpty()) {
+            return expenses;
+        }
+        Set<Long> liveIds = expenses.stream().map(ExpenseResponse::getId).collect(Collectors.toSet());
+        List<ExpenseResponse> result = new ArrayList<>(archived.size() + expenses.size());
+        for (ArchivedExpense expense : archived) {
+            if (!liveIds.contains(expense.id())) {
+                result.add(expense.toResponse(user.getName()));
+            }
+        }
+        result.addAll(expenses);
+        return result;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.expense_manager.repository;
+
+import com.example.expense_manager.entity.CategoryBaseline;
+import com.example.expense_manager.enums.ExpenseCategory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Repositorio para las estadísticas de referencia por usuario y categoría
+ */
+@Repository
+public interface CategoryBaselineRepository extends JpaRepository<CategoryBaseline, Long> {
+
+    /**
+     * Busca las estadísticas de referencia de un usuario en una categoría
+     */
+    Optional<CategoryBaseline> findByUserIdAndCategory(Long userId, ExpenseCategory category);
+
+    /**
+     * Elimina las estadísticas de referencia de un usuario
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CategoryBaseline b WHERE b.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,25 +1,76 @@
 package com.example.expense_manager.repository;
 
 import com.example.expense_manager.entity.Expense;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.repository.projection.ExpenseAmountView;
+import com.example.expense_manager.repository.projection.ExpenseDailyTotalView;
+import com.example.expense_manager.repository.projection.ExpenseDateRangeView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para operaciones con la entidad Expense
  */
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseRepositoryCustom {
+    
+    /**
+     * Obtiene todos los gastos (con paginación)
+     * Carga el usuario en la misma consulta: el listado muestra gastos de muchos usuarios
+     */
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Expense> findAll(Pageable pageable);
     
     /**
      * Obtiene todos los gastos de un usuario (con paginación)
      */
     Page<Expense> findByUserId(Long userId, Pageable pageable);
     
+    /**
+     * Cuenta los gastos de un usuario
+     */
+    long countByUserId(Long userId);
+    
+    /**
+     * IDs de gastos de un usuario, para borrarlos por lotes sin cargar las entidades
+     */
+    @Query("SELECT e.id FROM Expense e WHERE e.user.id = :userId ORDER BY e.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    /**
+     * Gastos del usuario cambiados después de la posición (changeSeq, id), en orden de cambio
+     * El rango sobre change_seq usa idx_expenses_user_change; la condición sobre el ID solo filtra los empates
+     */
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId AND e.changeSeq >= :changeSeq " +
+           "AND (e.changeSeq > :changeSeq OR e.id > :id) " +
+           "ORDER BY e.changeSeq, e.id")
+    List<Expense> findChangesAfter(
+            @Param("userId") Long userId,
+            @Param("changeSeq") long changeSeq,
+            @Param("id") long id,
+            Pageable pageable);
+    
+    /**
+     * Obtiene los gastos marcados como inusuales de un usuario (con paginación)
+     */
+    Page<Expense> findByUserIdAndAnomalousTrue(Long userId, Pageable pageable);
+    
     /**
      * Obtiene gastos de un usuario entre dos fechas
      */
@@ -27,6 +78,116 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     
     /**
      * Obtiene gastos por rango de fechas (para todos los usuarios)
+     * Carga el usuario en la misma consulta para no lanzar una por cada usuario distinto
      */
+    @EntityGraph(attributePaths = "user")
     List<Expense> findByDateBetween(LocalDate startDate, LocalDate endDate);
+    
+    /**
+     * Recorre fecha, categoría y monto de los gastos de un rango de fechas
+     * Debe consumirse dentro de una transacción y cerrarse al terminar
+     */
+    @Query("SELECT e.date AS date, e.category AS category, e.amount AS amount, e.currency AS currency " +
+           "FROM Expense e WHERE e.date BETWEEN :startDate AND :endDate")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ExpenseAmountView> streamAmountsByDateBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Suma los gastos de un usuario por día, categoría y moneda dentro de un rango de fechas
+     */
+    @Query("SELECT e.date AS date, e.category AS category, e.currency AS currency, " +
+           "SUM(e.amount) AS total, COUNT(e) AS count " +
+           "FROM Expense e WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY e.date, e.category, e.currency")
+    List<ExpenseDailyTotalView> sumDailyTotalsByUserIdAndDateBetween(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Emails de los usuarios con gastos desde la fecha indicada (usuarios activos recientemente)
+     */
+    @Query("SELECT DISTINCT e.user.email FROM Expense e WHERE e.date >= :since")
+    List<String> findActiveUserEmailsSince(@Param("since") LocalDate since, Pageable pageable);
+    
+    /**
+     * Usuarios con gastos anteriores a la fecha indicada (candidatos a archivar)
+     */
+    @Query("SELECT DISTINCT e.user.id FROM Expense e WHERE e.date < :before")
+    List<Long> findUserIdsWithExpensesBefore(@Param("before") LocalDate before);
+    
+    /**
+     * Gastos de un usuario anteriores a la fecha indicada
+     */
+    List<Expense> findByUserIdAndDateBefore(Long userId, LocalDate before);
+    
+    /**
+     * Fechas mínima y máxima de los gastos indicados que pertenecen al usuario
+     */
+    @Query("SELECT MIN(e.date) AS minDate, MAX(e.date) AS maxDate " +
+           "FROM Expense e WHERE e.user.id = :userId AND e.id IN :ids")
+    ExpenseDateRangeView findDateRangeByUserIdAndIdIn(
+            @Param("userId") Long userId,
+            @Param("ids") Collection<Long> ids);
+    
+    /**
+     * Elimina en una sola sentencia los gastos indicados que pertenecen al usuario
+     */
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.user.id = :userId AND e.id IN :ids")
+    int deleteByUserIdAndIdIn(
+            @Param("userId") Long userId,
+            @Param("ids") Collection<Long> ids);
+    
+    /**
+     * Elimina en una sola sentencia todos los gastos del usuario
+     */
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Elimina en una sola sentencia los gastos del usuario de un rango de fechas
+     * (y de una categoría, si se indica)
+     */
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate " +
+           "AND (:category IS NULL OR e.category = :category)")
+    int deleteByUserIdAndFilter(
+            @Param("userId") Long userId,
+            @Param("category") ExpenseCategory category,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Cambia en una sola sentencia la categoría de los gastos indicados que pertenecen al usuario
+     */
+    @Modifying
+    @Query("UPDATE Expense e SET e.category = :newCategory, e.changeSeq = :changeSeq, e.updatedAt = :updatedAt " +
+           "WHERE e.user.id = :userId AND e.id IN :ids")
+    int updateCategoryByUserIdAndIdIn(
+            @Param("userId") Long userId,
+            @Param("ids") Collection<Long> ids,
+            @Param("newCategory") ExpenseCategory newCategory,
+            @Param("changeSeq") long changeSeq,
+            @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Cambia en una sola sentencia la categoría de los gastos del usuario de un rango de fechas
+     * (y de una categoría, si se indica)
+     */
+    @Modifying
+    @Query("UPDATE Expense e SET e.category = :newCategory, e.changeSeq = :changeSeq, e.updatedAt = :updatedAt " +
+           "WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate " +
+           "AND (:category IS NULL OR e.category = :category)")
+    int updateCategoryByUserIdAndFilter(
+            @Param("userId") Long userId,
+            @Param("category") ExpenseCategory category,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("newCategory") ExpenseCategory newCategory,
+            @Param("changeSeq") long changeSeq,
+            @Param("updatedAt") LocalDateTime updatedAt);
 }
\ No newline at end of file
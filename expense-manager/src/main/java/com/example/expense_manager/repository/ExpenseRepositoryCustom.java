@@ -0,0 +1,30 @@
+package com.example.expense_manager.repository;
+
+import com.example.expense_manager.dto.ExpenseField;
+import com.example.expense_manager.dto.ExpenseResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Operaciones de ExpenseRepository implementadas a mano
+ * Las consultas find*Fields leen solo las columnas de los campos pedidos (más el ID y las
+ * propiedades de ordenación) y solo unen la tabla de usuarios si se pide userName.
+ * Los campos no pedidos quedan sin rellenar en las respuestas.
+ */
+public interface ExpenseRepositoryCustom {
+
+    Page<ExpenseResponse> findAllFields(Set<ExpenseField> fields, Pageable pageable);
+
+    Page<ExpenseResponse> findFieldsByUserId(Long userId, Set<ExpenseField> fields, Pageable pageable);
+
+    Page<ExpenseResponse> findFieldsByUserIdAndAnomalousTrue(Long userId, Set<ExpenseField> fields, Pageable pageable);
+
+    List<ExpenseResponse> findFieldsByUserIdAndDateBetween(
+        Long userId, LocalDate startDate, LocalDate endDate, Set<ExpenseField> fields);
+
+    List<ExpenseResponse> findFieldsByDateBetween(LocalDate startDate, LocalDate endDate, Set<ExpenseField> fields);
+}
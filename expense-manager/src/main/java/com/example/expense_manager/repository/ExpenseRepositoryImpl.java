@@ -0,0 +1,155 @@
+package com.example.expense_manager.repository;
+
+import com.example.expense_manager.dto.ExpenseField;
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.enums.ExpenseCategory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación de las operaciones personalizadas de ExpenseRepository
+ */
+public class ExpenseRepositoryImpl implements ExpenseRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ExpenseResponse> findAllFields(Set<ExpenseField> fields, Pageable pageable) {
+        return page(fields, null, Map.of(), pageable);
+    }
+
+    @Override
+    public Page<ExpenseResponse> findFieldsByUserId(Long userId, Set<ExpenseField> fields, Pageable pageable) {
+        return page(fields, "e.user.id = :userId", Map.of("userId", userId), pageable);
+    }
+
+    @Override
+    public Page<ExpenseResponse> findFieldsByUserIdAndAnomalousTrue(
+            Long userId, Set<ExpenseField> fields, Pageable pageable) {
+        return page(fields, "e.user.id = :userId AND e.anomalous = true", Map.of("userId", userId), pageable);
+    }
+
+    @Override
+    public List<ExpenseResponse> findFieldsByUserIdAndDateBetween(
+            Long userId, LocalDate startDate, LocalDate endDate, Set<ExpenseField> fields) {
+        return list(fields, "e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate",
+            Map.of("userId", userId, "startDate", startDate, "endDate", endDate), Sort.unsorted(), null);
+    }
+
+    @Override
+    public List<ExpenseResponse> findFieldsByDateBetween(
+            LocalDate startDate, LocalDate endDate, Set<ExpenseField> fields) {
+        return list(fields, "e.date BETWEEN :startDate AND :endDate",
+            Map.of("startDate", startDate, "endDate", endDate), Sort.unsorted(), null);
+    }
+
+    private Page<ExpenseResponse> page(Set<ExpenseField> fields, String condition, Map<String, Object> params,
+                                       Pageable pageable) {
+        List<ExpenseResponse> content = list(fields, condition, params, pageable.getSort(), pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(condition, params));
+    }
+
+    private List<ExpenseResponse> list(Set<ExpenseField> fields, String condition, Map<String, Object> params,
+                                       Sort sort, Pageable pageable) {
+        // El ID identifica cada fila (mezcla con el archivo frío) y las propiedades de orden sirven para mezclar shards
+        EnumSet<ExpenseField> selected = EnumSet.of(ExpenseField.ID);
+        selected.addAll(fields);
+        for (Sort.Order order : sort) {
+            selected.add(ExpenseField.of(order.getProperty()));
+        }
+
+        StringBuilder jpql = new StringBuilder(selected.stream()
+            .map(ExpenseRepositoryImpl::path)
+            .collect(Collectors.joining(", ", "SELECT ", " FROM Expense e")));
+        if (selected.contains(ExpenseField.USER_NAME)) {
+            jpql.append(" JOIN e.user u");
+        }
+        appendWhere(jpql, condition);
+        if (sort.isSorted()) {
+            jpql.append(sort.stream()
+                .map(order -> path(ExpenseField.of(order.getProperty())) + (order.isAscending() ? " ASC" : " DESC"))
+                .collect(Collectors.joining(", ", " ORDER BY ", "")));
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        params.forEach(query::setParameter);
+        if (pageable != null && pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList().stream()
+            .map(tuple -> toResponse(tuple, selected))
+            .collect(Collectors.toList());
+    }
+
+    private long count(String condition, Map<String, Object> params) {
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(e) FROM Expense e");
+        appendWhere(jpql, condition);
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    private static void appendWhere(StringBuilder jpql, String condition) {
+        if (condition != null) {
+            jpql.append(" WHERE ").append(condition);
+        }
+    }
+
+    /**
+     * Expresión JPQL de cada campo; el ID del usuario es la clave ajena y no necesita unir users
+     */
+    private static String path(ExpenseField field) {
+        return switch (field) {
+            case ID -> "e.id";
+            case AMOUNT -> "e.amount";
+            case CURRENCY -> "e.currency";
+            case CATEGORY -> "e.category";
+            case DATE -> "e.date";
+            case DESCRIPTION -> "e.description";
+            case CREATED_AT -> "e.createdAt";
+            case USER_ID -> "e.user.id";
+            case USER_NAME -> "u.name";
+            case ANOMALOUS -> "e.anomalous";
+            case ANOMALY_SCORE -> "e.anomalyScore";
+        };
+    }
+
+    private static ExpenseResponse toResponse(Tuple tuple, Set<ExpenseField> selected) {
+        ExpenseResponse dto = new ExpenseResponse();
+        int i = 0;
+        for (ExpenseField field : selected) {
+            Object value = tuple.get(i++);
+            switch (field) {
+                case ID -> dto.setId((Long) value);
+                case AMOUNT -> dto.setAmount((BigDecimal) value);
+                case CURRENCY -> dto.setCurrency((String) value);
+                case CATEGORY -> dto.setCategory((ExpenseCategory) value);
+                case DATE -> dto.setDate((LocalDate) value);
+                case DESCRIPTION -> dto.setDescription((String) value);
+                case CREATED_AT -> dto.setCreatedAt((LocalDateTime) value);
+                case USER_ID -> dto.setUserId((Long) value);
+                case USER_NAME -> dto.setUserName((String) value);
+                case ANOMALOUS -> dto.setAnomalous((Boolean) value);
+                case ANOMALY_SCORE -> dto.setAnomalyScore((Double) value);
+            }
+        }
+        return dto;
+    }
+}
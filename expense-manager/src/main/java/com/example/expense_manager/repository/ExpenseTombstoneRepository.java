@@ -0,0 +1,46 @@
+package com.example.expense_manager.repository;
+
+import com.example.expense_manager.entity.ExpenseTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de las marcas de gastos eliminados
+ */
+@Repository
+public interface ExpenseTombstoneRepository extends JpaRepository<ExpenseTombstone, Long> {
+
+    /**
+     * Marcas del usuario posteriores a la posición (changeSeq, expenseId), en orden de cambio
+     * El rango sobre change_seq usa el índice; la condición sobre el ID solo filtra los empates
+     */
+    @Query("SELECT t FROM ExpenseTombstone t WHERE t.userId = :userId AND t.changeSeq >= :changeSeq " +
+           "AND (t.changeSeq > :changeSeq OR t.expenseId > :expenseId) " +
+           "ORDER BY t.changeSeq, t.expenseId")
+    List<ExpenseTombstone> findChangesAfter(
+            @Param("userId") Long userId,
+            @Param("changeSeq") long changeSeq,
+            @Param("expenseId") long expenseId,
+            Pageable pageable);
+
+    /**
+     * Elimina en una sola sentencia las marcas del usuario
+     */
+    @Modifying
+    @Query("DELETE FROM ExpenseTombstone t WHERE t.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * Elimina las marcas anteriores a la fecha indicada en una sola sentencia
+     */
+    @Modifying
+    @Query("DELETE FROM ExpenseTombstone t WHERE t.deletedAt < :before")
+    int deleteDeletedBefore(@Param("before") LocalDateTime before);
+}
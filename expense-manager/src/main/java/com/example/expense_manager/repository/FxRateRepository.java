@@ -0,0 +1,34 @@
+package com.example.expense_manager.repository;
+
+import com.example.expense_manager.entity.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para los tipos de cambio diarios
+ */
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, Long> {
+
+    /**
+     * Obtiene todos los tipos de cambio ordenados por moneda y fecha
+     */
+    List<FxRate> findAllByOrderByCurrencyAscRateDateAsc();
+
+    /**
+     * Elimina los tipos de cambio de las monedas indicadas dentro de un rango de fechas
+     */
+    @Modifying
+    @Query("DELETE FROM FxRate f WHERE f.currency IN :currencies AND f.rateDate BETWEEN :startDate AND :endDate")
+    int deleteByCurrenciesAndDateRange(
+            @Param("currencies") Collection<String> currencies,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+}
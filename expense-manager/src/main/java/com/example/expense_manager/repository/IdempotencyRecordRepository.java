@@ -0,0 +1,34 @@
+package com.example.expense_manager.repository;
+
+import com.example.expense_manager.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repositorio de las respuestas guardadas por clave de idempotencia
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    /**
+     * Elimina las claves caducadas en una sola sentencia
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Elimina todas las claves de un usuario en una sola sentencia (al borrar el usuario)
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+}
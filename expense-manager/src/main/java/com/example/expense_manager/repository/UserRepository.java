@@ -2,6 +2,9 @@ package com.example.expense_manager.repository;
 
 import com.example.expense_manager.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,7 +13,7 @@ import java.util.Optional;
  * Repositorio para operaciones con la entidad User
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     
     /**
      * Busca un usuario por su email
@@ -21,4 +24,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Verifica si existe un usuario con ese email
      */
     boolean existsByEmail(String email);
+    
+    /**
+     * Elimina el usuario con una sentencia, sin cargarlo ni recorrer la cascada de gastos
+     * (los gastos deben haberse borrado antes)
+     */
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteUserById(@Param("id") Long id);
 }
\ No newline at end of file
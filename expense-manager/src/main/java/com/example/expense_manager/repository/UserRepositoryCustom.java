@@ -0,0 +1,27 @@
+package com.example.expense_manager.repository;
+
+import com.example.expense_manager.dto.UserField;
+import com.example.expense_manager.dto.UserResponse;
+import com.example.expense_manager.entity.User;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Operaciones de UserRepository implementadas a mano
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Busca un usuario por email usando el natural id de Hibernate,
+     * que se resuelve desde la caché de segundo nivel cuando está disponible
+     */
+    Optional<User> findCachedByEmail(String email);
+
+    /**
+     * Lista los usuarios por ID leyendo solo las columnas de los campos pedidos (y el ID);
+     * los campos no pedidos quedan sin rellenar
+     */
+    List<UserResponse> findAllFields(Set<UserField> fields);
+}
@@ -0,0 +1,75 @@
+package com.example.expense_manager.repository;
+
+import com.example.expense_manager.dto.UserField;
+import com.example.expense_manager.dto.UserResponse;
+import com.example.expense_manager.entity.User;
+import com.example.expense_manager.enums.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.hibernate.Session;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación de las operaciones personalizadas de UserRepository
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findCachedByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+            .bySimpleNaturalId(User.class)
+            .loadOptional(email);
+    }
+
+    @Override
+    public List<UserResponse> findAllFields(Set<UserField> fields) {
+        EnumSet<UserField> selected = EnumSet.of(UserField.ID);
+        selected.addAll(fields);
+        String jpql = selected.stream()
+            .map(UserRepositoryImpl::path)
+            .collect(Collectors.joining(", ", "SELECT ", " FROM User u ORDER BY u.id"));
+        return entityManager.createQuery(jpql, Tuple.class)
+            .getResultList()
+            .stream()
+            .map(tuple -> toResponse(tuple, selected))
+            .collect(Collectors.toList());
+    }
+
+    private static String path(UserField field) {
+        return switch (field) {
+            case ID -> "u.id";
+            case EMAIL -> "u.email";
+            case NAME -> "u.name";
+            case ROLE -> "u.role";
+            case BASE_CURRENCY -> "u.baseCurrency";
+            case CREATED_AT -> "u.createdAt";
+        };
+    }
+
+    private static UserResponse toResponse(Tuple tuple, Set<UserField> selected) {
+        UserResponse dto = new UserResponse();
+        int i = 0;
+        for (UserField field : selected) {
+            Object value = tuple.get(i++);
+            switch (field) {
+                case ID -> dto.setId((Long) value);
+                case EMAIL -> dto.setEmail((String) value);
+                case NAME -> dto.setName((String) value);
+                case ROLE -> dto.setRole(((UserRole) value).name());
+                case BASE_CURRENCY -> dto.setBaseCurrency((String) value);
+                case CREATED_AT -> dto.setCreatedAt((LocalDateTime) value);
+            }
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.expense_manager.repository.projection;
+
+import com.example.expense_manager.enums.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Proyección mínima de un gasto para recorridos estadísticos
+ * (evita hidratar entidades completas y la relación con User)
+ */
+public interface ExpenseAmountView {
+    LocalDate getDate();
+    ExpenseCategory getCategory();
+    BigDecimal getAmount();
+    String getCurrency();
+}
@@ -0,0 +1,17 @@
+package com.example.expense_manager.repository.projection;
+
+import com.example.expense_manager.enums.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Total de gastos agrupado por día, categoría y moneda
+ */
+public interface ExpenseDailyTotalView {
+    LocalDate getDate();
+    ExpenseCategory getCategory();
+    String getCurrency();
+    BigDecimal getTotal();
+    Long getCount();
+}
@@ -0,0 +1,11 @@
+package com.example.expense_manager.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Fechas mínima y máxima de un conjunto de gastos
+ */
+public interface ExpenseDateRangeView {
+    LocalDate getMinDate();
+    LocalDate getMaxDate();
+}
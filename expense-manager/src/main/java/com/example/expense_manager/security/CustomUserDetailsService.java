@@ -2,6 +2,7 @@ package com.example.expense_manager.security;
 
 import com.example.expense_manager.entity.User;
 import com.example.expense_manager.repository.UserRepository;
+import com.example.expense_manager.shard.ShardKey;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -21,8 +22,9 @@ public class CustomUserDetailsService implements UserDetailsService {
     
     @Override
     @Transactional(readOnly = true)
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+    public UserDetails loadUserByUsername(@ShardKey String email) throws UsernameNotFoundException {
+        // Búsqueda por natural id: se resuelve desde la caché de segundo nivel
+        User user = userRepository.findCachedByEmail(email)
                 .orElseThrow(() -> 
                     new UsernameNotFoundException("Usuario no encontrado con email: " + email)
                 );
@@ -5,7 +5,10 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import com.example.expense_manager.timing.RequestTimings;
+import com.example.expense_manager.timing.TimingPhase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,34 +19,56 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Filtro que intercepta cada petición HTTP y valida el token JWT
  */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
     
+    // Tiempo de validar el token y cargar el usuario, según el resultado
+    private final Timer anonymousTimer;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+    
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
+                                   UserDetailsService userDetailsService,
+                                   MeterRegistry meterRegistry) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.anonymousTimer = filterTimer(meterRegistry, "anonymous");
+        this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+        this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+    }
+    
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
         
+        long start = System.nanoTime();
+        Timer outcome = anonymousTimer;
         try {
             // 1. Obtener el token JWT del header
             String jwt = getJwtFromRequest(request);
             
             // 2. Validar y procesar el token
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
+            long jwtStart = RequestTimings.start();
+            boolean valid = StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt);
+            if (valid) {
                 // 3. Obtener el email del token
                 String email = tokenProvider.getEmailFromToken(jwt);
+                RequestTimings.stop(TimingPhase.JWT, jwtStart);
                 
                 // 4. Cargar los detalles del usuario
+                long userStart = RequestTimings.start();
                 UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                RequestTimings.stop(TimingPhase.USER, userStart);
                 
                 // 5. Crear la autenticación
                 UsernamePasswordAuthenticationToken authentication = 
@@ -59,15 +84,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 
                 // 6. Establecer la autenticación en el contexto de seguridad
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                outcome = authenticatedTimer;
+            } else if (StringUtils.hasText(jwt)) {
+                RequestTimings.stop(TimingPhase.JWT, jwtStart);
+                outcome = rejectedTimer;
             }
         } catch (Exception ex) {
+            outcome = rejectedTimer;
             logger.error("No se pudo establecer la autenticación del usuario", ex);
         }
+        outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         
         // 7. Continuar con la cadena de filtros
         filterChain.doFilter(request, response);
     }
     
+    private static Timer filterTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("security.jwt.filter")
+            .description("Validación del token JWT y carga del usuario")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+    
     /**
      * Extrae el token JWT del header Authorization
      * Header: "Authorization: Bearer <token>"
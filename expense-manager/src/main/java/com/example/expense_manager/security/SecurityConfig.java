@@ -1,5 +1,6 @@
 package com.example.expense_manager.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,12 +38,17 @@ public class SecurityConfig {
 
             // Configuración de autorización
             .authorizeHttpRequests(auth -> auth
+                    // Segunda pasada de las respuestas asíncronas (Mono de /api/reactive); la petición ya se autorizó
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     .requestMatchers(
                             "/api/auth/**",
                             "/swagger-ui/**",
                             "/v3/api-docs/**",
                             "/swagger-ui.html"
                     ).permitAll()
+                    // Health sin token; el resto de Actuator (incluido /actuator/prometheus) solo ADMIN
+                    .requestMatchers("/actuator/health/**").permitAll()
+                    .requestMatchers("/actuator/**").hasRole("ADMIN")
                     .anyRequest().authenticated()
             )
 
@@ -7,6 +7,9 @@ import com.example.expense_manager.entity.User;
 import com.example.expense_manager.enums.UserRole;
 import com.example.expense_manager.repository.UserRepository;
 import com.example.expense_manager.security.JwtTokenProvider;
+import com.example.expense_manager.shard.ShardKey;
+import com.example.expense_manager.shard.ShardRouter;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,20 +24,23 @@ import org.springframework.transaction.annotation.Transactional;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "auth.service", histogram = true)
 public class AuthService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final ShardRouter shardRouter;
+    private final FxRateService fxRateService;
     
     /**
      * Registra un nuevo usuario en el sistema
      */
     @Transactional
-    public AuthResponse register(RegisterRequest request) {
+    public AuthResponse register(@ShardKey("email") RegisterRequest request) {
         // Verificar si el email ya existe
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userRepository.existsByEmail(request.getEmail()) || shardRouter.isEmailTaken(request.getEmail())) {
             throw new IllegalArgumentException("El email ya está registrado");
         }
         
@@ -44,9 +50,11 @@ public class AuthService {
         user.setName(request.getName());
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setRole(UserRole.ROLE_USER);
+        user.setBaseCurrency(fxRateService.getReferenceCurrency());
         
         // Guardar en la base de datos
         User savedUser = userRepository.save(user);
+        shardRouter.registerUser(savedUser.getEmail(), savedUser.getId());
         
         // Generar token JWT
         String token = tokenProvider.generateTokenFromEmail(savedUser.getEmail());
@@ -63,8 +71,10 @@ public class AuthService {
     
     /**
      * Autentica un usuario y genera un token JWT
+     * La búsqueda por natural id necesita una sesión abierta aunque no haya open-in-view (p. ej. con sharding)
      */
-    public AuthResponse login(LoginRequest request) {
+    @Transactional(readOnly = true)
+    public AuthResponse login(@ShardKey("email") LoginRequest request) {
         // Autenticar usuario
         Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(
@@ -80,7 +90,7 @@ public class AuthService {
         String token = tokenProvider.generateToken(authentication);
         
         // Obtener datos del usuario
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = userRepository.findCachedByEmail(request.getEmail())
             .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
         
         // Retornar respuesta con token y datos del usuario
@@ -0,0 +1,49 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.dto.CacheStatisticsResponse;
+import com.example.expense_manager.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Servicio que expone las estadísticas de la caché de segundo nivel de Hibernate
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsService {
+
+    private static final List<String> REGIONS = List.of(User.CACHE_REGION, User.NATURAL_ID_CACHE_REGION);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Obtiene aciertos, fallos y tamaño de cada región cacheada
+     * Vacío si hibernate.generate_statistics está desactivado (los contadores no se mantienen)
+     */
+    public List<CacheStatisticsResponse> getStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheStatisticsResponse> result = new ArrayList<>();
+        if (!statistics.isStatisticsEnabled()) {
+            return result;
+        }
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStats = statistics.getDomainDataRegionStatistics(region);
+            if (regionStats == null) {
+                continue;
+            }
+            long hits = regionStats.getHitCount();
+            long misses = regionStats.getMissCount();
+            double hitRatio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+            result.add(new CacheStatisticsResponse(region, hits, misses, regionStats.getPutCount(),
+                regionStats.getElementCountInMemory(), hitRatio));
+        }
+        return result;
+    }
+}
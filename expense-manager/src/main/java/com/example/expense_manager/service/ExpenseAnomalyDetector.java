@@ -0,0 +1,247 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.entity.CategoryBaseline;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.event.InvalidationBatch;
+import com.example.expense_manager.event.InvalidationListener;
+import com.example.expense_manager.repository.CategoryBaselineRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detector de gastos inusuales
+ * Mantiene en memoria la media y varianza exponencial (EWMA) del logaritmo del
+ * monto por usuario y categoría. Cada gasto nuevo se puntúa en O(1) sin leer la
+ * base de datos; el estado se carga al arrancar y se sincroniza periódicamente.
+ * Un par (usuario, categoría) que aún no está en memoria empieza vacío, sin consultar la base:
+ * los historiales que escriban otras instancias se recogen en la sincronización, fuera de las
+ * peticiones. El historial solo se actualiza al confirmarse la transacción del gasto: un alta
+ * revertida no lo modifica.
+ */
+@Slf4j
+@Service
+public class ExpenseAnomalyDetector implements InvalidationListener {
+
+    // Desviación mínima (en escala logarítmica) para no disparar alertas con historiales muy estables
+    private static final double MIN_STD_DEV = 0.05;
+
+    private final CategoryBaselineRepository baselineRepository;
+    private final double alpha;
+    private final double threshold;
+    private final long minSamples;
+
+    private final Map<Long, RunningStats> states = new ConcurrentHashMap<>();
+
+    public ExpenseAnomalyDetector(
+            CategoryBaselineRepository baselineRepository,
+            @Value("${app.anomaly.alpha:0.1}") double alpha,
+            @Value("${app.anomaly.threshold:3.0}") double threshold,
+            @Value("${app.anomaly.min-samples:5}") long minSamples) {
+        this.baselineRepository = baselineRepository;
+        this.alpha = alpha;
+        this.threshold = threshold;
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * Resultado de puntuar un gasto
+     */
+    public record AnomalyScore(double score, boolean anomalous) {
+        public static final AnomalyScore NONE = new AnomalyScore(0.0, false);
+    }
+
+    /**
+     * Puntúa un gasto contra el historial del usuario en la categoría
+     * El gasto se añade al historial cuando se confirma la transacción en curso (o ya, si no hay ninguna).
+     */
+    public AnomalyScore score(Long userId, ExpenseCategory category, BigDecimal amount) {
+        double value = Math.log1p(amount.doubleValue());
+        RunningStats stats = stats(userId, category);
+        AnomalyScore result = stats.score(value);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stats.update(value);
+                }
+            });
+        } else {
+            stats.update(value);
+        }
+        return result;
+    }
+
+    /**
+     * Olvida el historial de un usuario (p. ej. al eliminarlo)
+     */
+    public void forgetUser(Long userId) {
+        for (ExpenseCategory category : ExpenseCategory.values()) {
+            states.remove(key(userId, category));
+        }
+        baselineRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Descarta el historial de los usuarios eliminados
+     */
+    @Override
+    public void onInvalidation(InvalidationBatch batch) {
+        batch.deletedUserIds().forEach(this::forgetUser);
+    }
+
+    /**
+     * Carga el estado persistido al arrancar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+        log.info("Cargadas {} estadísticas de referencia para detección de anomalías", states.size());
+    }
+
+    /**
+     * Persiste los historiales modificados y recoge los que han escrito otras instancias
+     */
+    @Scheduled(fixedDelayString = "${app.anomaly.persist-interval-ms:60000}")
+    public void synchronize() {
+        persist();
+        refresh();
+    }
+
+    /**
+     * Persiste los historiales modificados desde la última vez
+     * Fila a fila: un conflicto (p. ej. otra instancia insertó el mismo par) solo deja pendiente esa fila,
+     * que en el siguiente intento se actualiza sobre la fila existente.
+     */
+    @PreDestroy
+    public void persist() {
+        int failed = 0;
+        for (RunningStats stats : states.values()) {
+            CategoryBaseline snapshot = stats.snapshotIfDirty();
+            if (snapshot == null) {
+                continue;
+            }
+            try {
+                if (snapshot.getId() == null) {
+                    baselineRepository.findByUserIdAndCategory(snapshot.getUserId(), snapshot.getCategory())
+                        .ifPresent(existing -> snapshot.setId(existing.getId()));
+                }
+                stats.baselineId = baselineRepository.save(snapshot).getId();
+            } catch (RuntimeException ex) {
+                stats.markDirty();
+                failed++;
+                log.debug("No se pudo persistir la estadística de {} / {}", snapshot.getUserId(), snapshot.getCategory(), ex);
+            }
+        }
+        if (failed > 0) {
+            log.warn("No se pudieron persistir {} estadísticas de anomalías; se reintentará", failed);
+        }
+    }
+
+    /**
+     * Incorpora los historiales persistidos que faltan en memoria
+     * Un par que empezó vacío y aún no ha registrado ningún gasto adopta el de la base.
+     */
+    private void refresh() {
+        for (CategoryBaseline baseline : baselineRepository.findAll()) {
+            RunningStats loaded = new RunningStats(
+                baseline.getId(), baseline.getUserId(), baseline.getCategory(),
+                baseline.getSampleCount(), baseline.getMean(), baseline.getVariance());
+            RunningStats current = states.putIfAbsent(key(baseline.getUserId(), baseline.getCategory()), loaded);
+            if (current != null) {
+                current.adoptIfEmpty(baseline);
+            }
+        }
+    }
+
+    /**
+     * Historial en memoria del par; si no está, se empieza uno vacío (sin leer la base)
+     */
+    private RunningStats stats(Long userId, ExpenseCategory category) {
+        return states.computeIfAbsent(key(userId, category),
+            key -> new RunningStats(null, userId, category, 0, 0.0, 0.0));
+    }
+
+    private static long key(Long userId, ExpenseCategory category) {
+        return userId * ExpenseCategory.values().length + category.ordinal();
+    }
+
+    /**
+     * Media y varianza exponenciales de un usuario en una categoría
+     */
+    private final class RunningStats {
+        private volatile Long baselineId;
+        private final Long userId;
+        private final ExpenseCategory category;
+        private long count;
+        private double mean;
+        private double variance;
+        private boolean dirty;
+
+        private RunningStats(Long baselineId, Long userId, ExpenseCategory category,
+                             long count, double mean, double variance) {
+            this.baselineId = baselineId;
+            this.userId = userId;
+            this.category = category;
+            this.count = count;
+            this.mean = mean;
+            this.variance = variance;
+        }
+
+        synchronized AnomalyScore score(double value) {
+            if (count < minSamples) {
+                return AnomalyScore.NONE;
+            }
+            double stdDev = Math.max(Math.sqrt(variance), MIN_STD_DEV);
+            double score = Math.abs(value - mean) / stdDev;
+            return new AnomalyScore(score, score >= threshold);
+        }
+
+        synchronized void update(double value) {
+            if (count == 0) {
+                mean = value;
+                variance = 0.0;
+            } else {
+                double diff = value - mean;
+                double increment = alpha * diff;
+                mean += increment;
+                variance = (1 - alpha) * (variance + diff * increment);
+            }
+            count++;
+            dirty = true;
+        }
+
+        synchronized CategoryBaseline snapshotIfDirty() {
+            if (!dirty) {
+                return null;
+            }
+            dirty = false;
+            return new CategoryBaseline(baselineId, userId, category, count, mean, variance, LocalDateTime.now());
+        }
+
+        synchronized void markDirty() {
+            dirty = true;
+        }
+
+        synchronized void adoptIfEmpty(CategoryBaseline baseline) {
+            if (baselineId != null || count > 0) {
+                return;
+            }
+            baselineId = baseline.getId();
+            count = baseline.getSampleCount();
+            mean = baseline.getMean();
+            variance = baseline.getVariance();
+        }
+    }
+}
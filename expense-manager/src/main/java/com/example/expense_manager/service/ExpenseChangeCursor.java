@@ -0,0 +1,48 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.exeption.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición en la secuencia de cambios de los gastos de un usuario
+ * Los cambios se ordenan por changeSeq; a igual changeSeq van antes los gastos cambiados que
+ * las bajas, y después por ID de gasto. issuedAt (epoch ms) indica desde cuándo el cliente
+ * tiene todo lo anterior a la posición: sirve para saber si las bajas que le faltan ya se purgaron.
+ * Se entrega al cliente como texto opaco.
+ */
+public record ExpenseChangeCursor(long changeSeq, boolean deletion, long expenseId, long issuedAt) {
+
+    /**
+     * Cursor de una sincronización completa: antes de cualquier cambio
+     */
+    public static ExpenseChangeCursor start(long issuedAt) {
+        return new ExpenseChangeCursor(0, false, 0, issuedAt);
+    }
+
+    /**
+     * La misma emisión en otra posición
+     */
+    public ExpenseChangeCursor at(long changeSeq, boolean deletion, long expenseId) {
+        return new ExpenseChangeCursor(changeSeq, deletion, expenseId, issuedAt);
+    }
+
+    public String encode() {
+        String raw = changeSeq + "." + (deletion ? 1 : 0) + "." + expenseId + "." + issuedAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static ExpenseChangeCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split("\\.");
+            if (parts.length != 4 || !(parts[1].equals("0") || parts[1].equals("1"))) {
+                throw new InvalidCursorException("Cursor de sincronización no válido");
+            }
+            return new ExpenseChangeCursor(Long.parseLong(parts[0]), parts[1].equals("1"),
+                Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor de sincronización no válido");
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.entity.ExpenseTombstone;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.exeption.InvalidCursorException;
+import com.example.expense_manager.exeption.ResourceNotFoundException;
+import com.example.expense_manager.repository.ExpenseTombstoneRepository;
+import com.example.expense_manager.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Registro de cambios de los gastos para la sincronización incremental
+ * Cada usuario tiene su propia secuencia (users.expense_change_seq). Una escritura reserva
+ * valores con un UPDATE sobre la fila del usuario y la deja bloqueada hasta el commit, así que
+ * las escrituras de un mismo usuario se confirman en el orden de la secuencia: un cliente que
+ * ya leyó hasta un valor no puede perderse un cambio confirmado más tarde con un valor menor.
+ * La secuencia y las marcas en bloque se escriben con JDBC y no con JPQL ni consultas nativas de
+ * Hibernate, que invalidarían la caché de segundo nivel de User.
+ * Las bajas se guardan como marcas (expense_tombstones) que se purgan pasada la retención;
+ * los cursores emitidos antes de ese plazo dejan de ser válidos.
+ */
+@Slf4j
+@Component
+public class ExpenseChangeLog {
+
+    // Margen para borrados confirmados poco después de emitirse un cursor, o leídos de una réplica con retraso
+    private static final Duration CURSOR_SLACK = Duration.ofHours(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ExpenseTombstoneRepository tombstoneRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final Duration tombstoneRetention;
+
+    public ExpenseChangeLog(JdbcTemplate jdbcTemplate,
+                            NamedParameterJdbcTemplate namedJdbcTemplate,
+                            ExpenseTombstoneRepository tombstoneRepository,
+                            ShardRouter shardRouter,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.sync.tombstone-retention-days:30}") long tombstoneRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.tombstoneRepository = tombstoneRepository;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
+        if (tombstoneRetention.compareTo(CURSOR_SLACK.multipliedBy(2)) < 0) {
+            throw new IllegalArgumentException("app.sync.tombstone-retention-days debe ser al menos 1");
+        }
+    }
+
+    /**
+     * Reserva count valores consecutivos de la secuencia del usuario y devuelve el primero
+     * Debe llamarse dentro de la transacción de la escritura: el bloqueo dura hasta el commit.
+     */
+    public long reserve(Long userId, int count) {
+        int updated = jdbcTemplate.update(
+            "UPDATE users SET expense_change_seq = expense_change_seq + ? WHERE id = ?", count, userId);
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + userId);
+        }
+        Long last = jdbcTemplate.queryForObject(
+            "SELECT expense_change_seq FROM users WHERE id = ?", Long.class, userId);
+        return last - count + 1;
+    }
+
+    /**
+     * Reserva un valor para cada usuario, bloqueando las filas en orden de ID para no provocar interbloqueos
+     */
+    public Map<Long, Long> reserveEach(Collection<Long> userIds) {
+        Map<Long, Long> reserved = new LinkedHashMap<>();
+        for (Long userId : new TreeSet<>(userIds)) {
+            reserved.put(userId, reserve(userId, 1));
+        }
+        return reserved;
+    }
+
+    /**
+     * Marca un gasto que deja de pertenecer al usuario
+     */
+    public void recordDeletion(Long userId, Long expenseId, long changeSeq) {
+        tombstoneRepository.save(new ExpenseTombstone(null, expenseId, userId, changeSeq, LocalDateTime.now()));
+    }
+
+    /**
+     * Marca en una sola sentencia los gastos indicados del usuario; debe llamarse antes de borrarlos
+     * (INSERT ... SELECT con JDBC: el que genera Hibernate no lo acepta H2)
+     */
+    public int recordDeletions(Long userId, Collection<Long> ids, long changeSeq) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("userId", userId)
+            .addValue("ids", ids)
+            .addValue("changeSeq", changeSeq)
+            .addValue("deletedAt", LocalDateTime.now());
+        return namedJdbcTemplate.update(
+            "INSERT INTO expense_tombstones (expense_id, user_id, change_seq, deleted_at) " +
+            "SELECT id, user_id, :changeSeq, :deletedAt FROM expenses WHERE user_id = :userId AND id IN (:ids)",
+            params);
+    }
+
+    /**
+     * Marca en una sola sentencia los gastos del usuario que cumplen el filtro; debe llamarse antes de borrarlos
+     */
+    public int recordDeletions(Long userId, ExpenseCategory category, LocalDate startDate, LocalDate endDate,
+                               long changeSeq) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("userId", userId)
+            .addValue("startDate", startDate)
+            .addValue("endDate", endDate)
+            .addValue("changeSeq", changeSeq)
+            .addValue("deletedAt", LocalDateTime.now());
+        String sql = "INSERT INTO expense_tombstones (expense_id, user_id, change_seq, deleted_at) " +
+            "SELECT id, user_id, :changeSeq, :deletedAt FROM expenses " +
+            "WHERE user_id = :userId AND date BETWEEN :startDate AND :endDate";
+        if (category != null) {
+            sql += " AND category = :category";
+            params.addValue("category", category.name());
+        }
+        return namedJdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * Interpreta el cursor recibido del cliente; sin cursor se sincroniza desde el principio
+     *
+     * @throws InvalidCursorException si está mal formado o es más antiguo que la retención de las marcas
+     */
+    public ExpenseChangeCursor resolve(String since, long now) {
+        if (since == null || since.isBlank()) {
+            return ExpenseChangeCursor.start(now);
+        }
+        ExpenseChangeCursor cursor = ExpenseChangeCursor.decode(since);
+        if (cursor.issuedAt() < now - tombstoneRetention.minus(CURSOR_SLACK).toMillis()) {
+            throw new InvalidCursorException("El cursor de sincronización ha caducado; sincroniza de nuevo desde el principio");
+        }
+        return cursor;
+    }
+
+    /**
+     * Elimina las marcas más antiguas que la retención (en todos los shards)
+     */
+    @Scheduled(fixedDelayString = "${app.sync.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime before = LocalDateTime.now().minus(tombstoneRetention);
+        shardRouter.forEachShard(() -> {
+            Integer deleted = transaction.execute(status -> tombstoneRepository.deleteDeletedBefore(before));
+            if (deleted != null && deleted > 0) {
+                log.info("Eliminadas {} marcas de gastos borrados", deleted);
+            }
+        });
+    }
+}
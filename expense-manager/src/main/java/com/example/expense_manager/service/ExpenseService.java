@@ -1,20 +1,46 @@
 package com.example.expense_manager.service;
 
+import com.example.expense_manager.archive.ArchivedExpense;
+import com.example.expense_manager.archive.ExpenseColdStorage;
+import com.example.expense_manager.dto.BulkOperationResponse;
+import com.example.expense_manager.dto.ExpenseChangesResponse;
+import com.example.expense_manager.dto.ExpenseField;
+import com.example.expense_manager.dto.ExpenseBulkRequest;
 import com.example.expense_manager.dto.ExpenseRequest;
 import com.example.expense_manager.dto.ExpenseResponse;
 import com.example.expense_manager.entity.Expense;
+import com.example.expense_manager.entity.ExpenseTombstone;
 import com.example.expense_manager.entity.User;
+import com.example.expense_manager.event.ExpenseCreatedEvent;
+import com.example.expense_manager.event.ExpenseDeletedEvent;
+import com.example.expense_manager.event.ExpenseUpdatedEvent;
+import com.example.expense_manager.event.ExpensesBulkChangedEvent;
+import com.example.expense_manager.exeption.BadRequestException;
+import com.example.expense_manager.exeption.CrossShardMoveException;
 import com.example.expense_manager.exeption.ResourceNotFoundException;
 import com.example.expense_manager.repository.ExpenseRepository;
+import com.example.expense_manager.repository.ExpenseTombstoneRepository;
 import com.example.expense_manager.repository.UserRepository;
+import com.example.expense_manager.repository.projection.ExpenseDateRangeView;
+import com.example.expense_manager.shard.ShardKey;
+import com.example.expense_manager.shard.ShardRouter;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -22,44 +48,92 @@ import java.util.stream.Collectors;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "expense.service", histogram = true)
 public class ExpenseService {
     
+    static final int MAX_CHANGES_PAGE_SIZE = 1000;
+    
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
+    private final ExpenseAnomalyDetector anomalyDetector;
+    private final FxRateService fxRateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExpenseColdStorage coldStorage;
+    private final ShardRouter shardRouter;
+    private final ExpenseChangeLog changeLog;
+    private final ExpenseTombstoneRepository tombstoneRepository;
     
     /**
      * Crea un nuevo gasto
      */
     @Transactional
-    public ExpenseResponse createExpense(ExpenseRequest request) {
-        User user = userRepository.findById(request.getUserId())
-            .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + request.getUserId()));
+    public ExpenseResponse createExpense(@ShardKey("userId") ExpenseRequest request) {
+        User user = findUser(request.getUserId());
         
-        Expense expense = new Expense();
-        expense.setAmount(request.getAmount());
-        expense.setCategory(request.getCategory());
-        expense.setDate(request.getDate());
-        expense.setDescription(request.getDescription());
-        expense.setUser(user);
+        Expense expense = buildExpense(request, user);
+        expense.setChangeSeq(changeLog.reserve(user.getId(), 1));
 
         Expense savedExpense = expenseRepository.save(expense);
+        eventPublisher.publishEvent(
+            new ExpenseCreatedEvent(savedExpense.getId(), user.getId(), savedExpense.getDate()));
         return convertToDto(savedExpense);
     }
     
+    /**
+     * Crea varios gastos de un usuario en una sola transacción
+     * Si alguno no es válido no se crea ninguno
+     */
+    @Transactional
+    public List<ExpenseResponse> createExpenses(@ShardKey Long userId, List<ExpenseRequest> requests) {
+        User user = findUser(userId);
+        
+        List<Expense> expenses = new ArrayList<>(requests.size());
+        for (ExpenseRequest request : requests) {
+            expenses.add(buildExpense(request, user));
+        }
+        
+        long changeSeq = changeLog.reserve(user.getId(), expenses.size());
+        for (Expense expense : expenses) {
+            expense.setChangeSeq(changeSeq++);
+        }
+        
+        List<Expense> savedExpenses = expenseRepository.saveAll(expenses);
+        for (Expense savedExpense : savedExpenses) {
+            eventPublisher.publishEvent(
+                new ExpenseCreatedEvent(savedExpense.getId(), user.getId(), savedExpense.getDate()));
+        }
+        return savedExpenses.stream()
+            .map(this::convertToDto)
+            .collect(Collectors.toList());
+    }
+    
     /**
      * Obtiene todos los gastos (con paginación)
+     * Con sharding se consulta cada shard y se mezclan las páginas
      */
     @Transactional(readOnly = true)
     public Page<ExpenseResponse> getAllExpenses(Pageable pageable) {
-        return expenseRepository.findAll(pageable)
-            .map(this::convertToDto);
+        return shardRouter.mergePages(pageable, shardPageable -> expenseRepository.findAll(shardPageable)
+            .map(this::convertToDto));
+    }
+    
+    /**
+     * Obtiene todos los gastos leyendo solo las columnas de los campos pedidos (null = todos)
+     */
+    @Transactional(readOnly = true)
+    public Page<ExpenseResponse> getAllExpenses(Pageable pageable, Set<ExpenseField> fields) {
+        if (fields == null) {
+            return getAllExpenses(pageable);
+        }
+        return shardRouter.mergePages(pageable,
+            shardPageable -> expenseRepository.findAllFields(fields, shardPageable));
     }
     
     /**
      * Obtiene un gasto por ID
      */
     @Transactional(readOnly = true)
-    public ExpenseResponse getExpenseById(Long id) {
+    public ExpenseResponse getExpenseById(@ShardKey Long id) {
         Expense expense = expenseRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Gasto no encontrado con ID: " + id));
         return convertToDto(expense);
@@ -69,7 +143,7 @@ public class ExpenseService {
      * Obtiene todos los gastos de un usuario específico (con paginación)
      */
     @Transactional(readOnly = true)
-    public Page<ExpenseResponse> getExpensesByUserId(Long userId, Pageable pageable) {
+    public Page<ExpenseResponse> getExpensesByUserId(@ShardKey Long userId, Pageable pageable) {
         // Verificar que el usuario existe
         if (!userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("Usuario no encontrado con ID: " + userId);
@@ -79,55 +153,209 @@ public class ExpenseService {
             .map(this::convertToDto);
     }
     
+    /**
+     * Obtiene los gastos de un usuario leyendo solo las columnas de los campos pedidos (null = todos)
+     * Sin userName no se carga el usuario de cada gasto
+     */
+    @Transactional(readOnly = true)
+    public Page<ExpenseResponse> getExpensesByUserId(@ShardKey Long userId, Pageable pageable,
+                                                     Set<ExpenseField> fields) {
+        if (fields == null) {
+            return getExpensesByUserId(userId, pageable);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + userId);
+        }
+        return expenseRepository.findFieldsByUserId(userId, fields, pageable);
+    }
+    
+    /**
+     * Obtiene los gastos marcados como inusuales de un usuario (con paginación)
+     */
+    @Transactional(readOnly = true)
+    public Page<ExpenseResponse> getAnomalousExpensesByUserId(@ShardKey Long userId, Pageable pageable) {
+        return expenseRepository.findByUserIdAndAnomalousTrue(userId, pageable)
+            .map(this::convertToDto);
+    }
+    
+    /**
+     * Obtiene los gastos inusuales de un usuario leyendo solo las columnas de los campos pedidos (null = todos)
+     */
+    @Transactional(readOnly = true)
+    public Page<ExpenseResponse> getAnomalousExpensesByUserId(@ShardKey Long userId, Pageable pageable,
+                                                              Set<ExpenseField> fields) {
+        if (fields == null) {
+            return getAnomalousExpensesByUserId(userId, pageable);
+        }
+        return expenseRepository.findFieldsByUserIdAndAnomalousTrue(userId, fields, pageable);
+    }
+    
     /**
      * Obtiene gastos por rango de fechas
+     * Incluye los gastos del almacenamiento en frío que caigan en el rango
      */
     @Transactional(readOnly = true)
     public List<ExpenseResponse> getExpensesByDateRange(LocalDate startDate, LocalDate endDate) {
-        return expenseRepository.findByDateBetween(startDate, endDate)
+        List<ExpenseResponse> expenses = shardRouter.onEveryShard(
+                () -> expenseRepository.findByDateBetween(startDate, endDate)
+                    .stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList()))
             .stream()
-            .map(this::convertToDto)
+            .flatMap(List::stream)
             .collect(Collectors.toList());
+        return withArchived(expenses, coldStorage.find(startDate, endDate));
+    }
+    
+    /**
+     * Obtiene gastos por rango de fechas leyendo solo las columnas de los campos pedidos (null = todos)
+     * Los gastos del almacenamiento en frío se devuelven completos; la serialización descarta el resto
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseResponse> getExpensesByDateRange(LocalDate startDate, LocalDate endDate,
+                                                        Set<ExpenseField> fields) {
+        if (fields == null) {
+            return getExpensesByDateRange(startDate, endDate);
+        }
+        List<ExpenseResponse> expenses = shardRouter.onEveryShard(
+                () -> expenseRepository.findFieldsByDateBetween(startDate, endDate, fields))
+            .stream()
+            .flatMap(List::stream)
+            .collect(Collectors.toList());
+        return withArchived(expenses, coldStorage.find(startDate, endDate));
     }
     
     /**
      * Obtiene gastos de un usuario por rango de fechas
+     * Incluye los gastos del almacenamiento en frío que caigan en el rango
      */
     @Transactional(readOnly = true)
     public List<ExpenseResponse> getExpensesByUserAndDateRange(
-            Long userId, LocalDate startDate, LocalDate endDate) {
+            @ShardKey Long userId, LocalDate startDate, LocalDate endDate) {
         
         if (!userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("Usuario no encontrado con ID: " + userId);
         }
         
-        return expenseRepository.findByUserIdAndDateBetween(userId, startDate, endDate)
+        List<ExpenseResponse> expenses = expenseRepository.findByUserIdAndDateBetween(userId, startDate, endDate)
             .stream()
             .map(this::convertToDto)
             .collect(Collectors.toList());
+        return withArchived(expenses, coldStorage.find(userId, startDate, endDate));
+    }
+    
+    /**
+     * Obtiene gastos de un usuario por rango de fechas leyendo solo las columnas de los campos pedidos (null = todos)
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseResponse> getExpensesByUserAndDateRange(
+            @ShardKey Long userId, LocalDate startDate, LocalDate endDate, Set<ExpenseField> fields) {
+        
+        if (fields == null) {
+            return getExpensesByUserAndDateRange(userId, startDate, endDate);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + userId);
+        }
+        
+        List<ExpenseResponse> expenses =
+            expenseRepository.findFieldsByUserIdAndDateBetween(userId, startDate, endDate, fields);
+        return withArchived(expenses, coldStorage.find(userId, startDate, endDate));
+    }
+    
+    /**
+     * Obtiene los cambios de los gastos de un usuario posteriores al cursor (sincronización incremental)
+     * Sin cursor devuelve todos sus gastos. Recorre por claves (changeSeq, ID) los gastos y las
+     * marcas de baja y los mezcla en orden; no incluye el almacenamiento en frío.
+     */
+    @Transactional(readOnly = true)
+    public ExpenseChangesResponse getChanges(@ShardKey Long userId, String since, int limit) {
+        long now = System.currentTimeMillis();
+        ExpenseChangeCursor cursor = changeLog.resolve(since, now);
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + userId);
+        }
+        
+        int pageSize = Math.min(Math.max(limit, 1), MAX_CHANGES_PAGE_SIZE);
+        Pageable fetch = PageRequest.of(0, pageSize + 1);
+        List<Expense> expenses = expenseRepository.findChangesAfter(userId, cursor.changeSeq(),
+            cursor.deletion() ? Long.MAX_VALUE : cursor.expenseId(), fetch);
+        // En la primera página de una sincronización completa las bajas anteriores no interesan
+        List<ExpenseTombstone> tombstones = since == null || since.isBlank()
+            ? List.of()
+            : tombstoneRepository.findChangesAfter(userId, cursor.changeSeq(),
+                cursor.deletion() ? cursor.expenseId() : Long.MIN_VALUE, fetch);
+        
+        List<ExpenseResponse> changed = new ArrayList<>();
+        Set<Long> deletedIds = new LinkedHashSet<>();
+        ExpenseChangeCursor last = cursor;
+        int e = 0;
+        int t = 0;
+        while (e + t < pageSize && (e < expenses.size() || t < tombstones.size())) {
+            if (t == tombstones.size()
+                    || (e < expenses.size() && expenses.get(e).getChangeSeq() <= tombstones.get(t).getChangeSeq())) {
+                Expense expense = expenses.get(e++);
+                // Un gasto que vuelve al usuario tras salir de él en la misma página: vale el último estado
+                deletedIds.remove(expense.getId());
+                changed.add(convertToDto(expense));
+                last = last.at(expense.getChangeSeq(), false, expense.getId());
+            } else {
+                ExpenseTombstone tombstone = tombstones.get(t++);
+                deletedIds.add(tombstone.getExpenseId());
+                last = last.at(tombstone.getChangeSeq(), true, tombstone.getExpenseId());
+            }
+        }
+        
+        boolean hasMore = e < expenses.size() || t < tombstones.size();
+        // Al llegar al final el cliente tiene todo lo confirmado hasta ahora
+        ExpenseChangeCursor next = hasMore
+            ? last
+            : new ExpenseChangeCursor(last.changeSeq(), last.deletion(), last.expenseId(), now);
+        return new ExpenseChangesResponse(changed, new ArrayList<>(deletedIds), next.encode(), hasMore);
     }
     
     /**
      * Actualiza un gasto existente
      */
     @Transactional
-    public ExpenseResponse updateExpense(Long id, ExpenseRequest request) {
+    public ExpenseResponse updateExpense(@ShardKey Long id, ExpenseRequest request) {
         Expense expense = expenseRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Gasto no encontrado con ID: " + id));
         
-        // Si se cambia el usuario, verificar que existe
+        Long previousUserId = expense.getUser().getId();
+        
+        // Si se cambia el usuario, verificar que existe (y que vive en el mismo shard)
         if (!expense.getUser().getId().equals(request.getUserId())) {
+            if (!shardRouter.sameShard(previousUserId, request.getUserId())) {
+                throw new CrossShardMoveException("No se puede asignar el gasto a un usuario de otro shard");
+            }
             User newUser = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + request.getUserId()));
             expense.setUser(newUser);
         }
         
+        LocalDate previousDate = expense.getDate();
         expense.setAmount(request.getAmount());
+        if (request.getCurrency() != null) {
+            expense.setCurrency(resolveCurrency(request.getCurrency(), expense.getUser()));
+        }
         expense.setCategory(request.getCategory());
         expense.setDate(request.getDate());
         expense.setDescription(request.getDescription());
         
+        // Si cambia de usuario, para el anterior es una baja
+        Long userId = expense.getUser().getId();
+        if (previousUserId.equals(userId)) {
+            expense.setChangeSeq(changeLog.reserve(userId, 1));
+        } else {
+            Map<Long, Long> changeSeqs = changeLog.reserveEach(List.of(previousUserId, userId));
+            changeLog.recordDeletion(previousUserId, expense.getId(), changeSeqs.get(previousUserId));
+            expense.setChangeSeq(changeSeqs.get(userId));
+        }
+        
         Expense updatedExpense = expenseRepository.save(expense);
+        eventPublisher.publishEvent(new ExpenseUpdatedEvent(updatedExpense.getId(),
+            previousUserId, previousDate, updatedExpense.getUser().getId(), updatedExpense.getDate()));
         return convertToDto(updatedExpense);
     }
     
@@ -135,23 +363,186 @@ public class ExpenseService {
      * Elimina un gasto
      */
     @Transactional
-    public void deleteExpense(Long id) {
-        if (!expenseRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Gasto no encontrado con ID: " + id);
+    public void deleteExpense(@ShardKey Long id) {
+        Expense expense = expenseRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Gasto no encontrado con ID: " + id));
+        Long userId = expense.getUser().getId();
+        changeLog.recordDeletion(userId, expense.getId(), changeLog.reserve(userId, 1));
+        expenseRepository.delete(expense);
+        eventPublisher.publishEvent(
+            new ExpenseDeletedEvent(expense.getId(), expense.getUser().getId(), expense.getDate()));
+    }
+    
+    /**
+     * Elimina varios gastos del usuario en una sola sentencia
+     * Solo se eliminan gastos del propio usuario; los IDs ajenos se ignoran
+     */
+    @Transactional
+    public BulkOperationResponse bulkDeleteExpenses(@ShardKey Long userId, ExpenseBulkRequest request) {
+        validateBulkSelection(request);
+        
+        int affected;
+        LocalDate from;
+        LocalDate to;
+        if (request.getIds() != null) {
+            // Las fechas se leen antes de borrar para saber qué datos derivados invalidar
+            ExpenseDateRangeView range = expenseRepository.findDateRangeByUserIdAndIdIn(userId, request.getIds());
+            if (range == null || range.getMinDate() == null) {
+                return new BulkOperationResponse(0);
+            }
+            from = range.getMinDate();
+            to = range.getMaxDate();
+            // Las marcas se insertan antes con la misma selección; la fila del usuario ya está bloqueada
+            changeLog.recordDeletions(userId, request.getIds(), changeLog.reserve(userId, 1));
+            affected = expenseRepository.deleteByUserIdAndIdIn(userId, request.getIds());
+        } else {
+            from = request.getStartDate();
+            to = request.getEndDate();
+            changeLog.recordDeletions(userId, request.getCategory(), from, to, changeLog.reserve(userId, 1));
+            affected = expenseRepository.deleteByUserIdAndFilter(userId, request.getCategory(), from, to);
+        }
+        
+        publishBulkChange(userId, from, to, affected);
+        return new BulkOperationResponse(affected);
+    }
+    
+    /**
+     * Cambia la categoría de varios gastos del usuario en una sola sentencia
+     * Solo se modifican gastos del propio usuario; los IDs ajenos se ignoran
+     */
+    @Transactional
+    public BulkOperationResponse bulkUpdateExpenses(@ShardKey Long userId, ExpenseBulkRequest request) {
+        validateBulkSelection(request);
+        if (request.getNewCategory() == null) {
+            throw new BadRequestException("La nueva categoría es obligatoria");
         }
-        expenseRepository.deleteById(id);
+        
+        int affected;
+        LocalDate from;
+        LocalDate to;
+        if (request.getIds() != null) {
+            ExpenseDateRangeView range = expenseRepository.findDateRangeByUserIdAndIdIn(userId, request.getIds());
+            if (range == null || range.getMinDate() == null) {
+                return new BulkOperationResponse(0);
+            }
+            from = range.getMinDate();
+            to = range.getMaxDate();
+            affected = expenseRepository.updateCategoryByUserIdAndIdIn(userId, request.getIds(),
+                request.getNewCategory(), changeLog.reserve(userId, 1), LocalDateTime.now());
+        } else {
+            from = request.getStartDate();
+            to = request.getEndDate();
+            affected = expenseRepository.updateCategoryByUserIdAndFilter(userId, request.getCategory(), from, to,
+                request.getNewCategory(), changeLog.reserve(userId, 1), LocalDateTime.now());
+        }
+        
+        publishBulkChange(userId, from, to, affected);
+        return new BulkOperationResponse(affected);
     }
     
     /**
      * Verifica si el usuario autenticado es el propietario del gasto
      * Usado en @PreAuthorize
      */
-    public boolean isOwner(Long expenseId, String email) {
+    public boolean isOwner(@ShardKey Long expenseId, String email) {
         Expense expense = expenseRepository.findById(expenseId)
             .orElse(null);
         return expense != null && expense.getUser().getEmail().equals(email);
     }
     
+    /**
+     * Comprueba que la operación masiva seleccione gastos por IDs o por filtro, no por ambos
+     */
+    private void validateBulkSelection(ExpenseBulkRequest request) {
+        boolean byIds = request.getIds() != null;
+        boolean byFilter = request.getStartDate() != null || request.getEndDate() != null
+            || request.getCategory() != null;
+        if (byIds == byFilter) {
+            throw new BadRequestException("Indica una lista de IDs o un filtro por fechas, no ambos");
+        }
+        if (byIds && request.getIds().isEmpty()) {
+            throw new BadRequestException("La lista de IDs no puede estar vacía");
+        }
+        if (byFilter && (request.getStartDate() == null || request.getEndDate() == null)) {
+            throw new BadRequestException("El filtro requiere fecha de inicio y de fin");
+        }
+        if (byFilter && request.getStartDate().isAfter(request.getEndDate())) {
+            throw new BadRequestException("La fecha de inicio no puede ser posterior a la de fin");
+        }
+    }
+    
+    /**
+     * Publica el cambio masivo para invalidar los datos derivados tras el commit
+     */
+    private void publishBulkChange(Long userId, LocalDate from, LocalDate to, int affected) {
+        if (affected > 0) {
+            eventPublisher.publishEvent(new ExpensesBulkChangedEvent(userId, from, to, affected));
+        }
+    }
+    
+    private User findUser(Long userId) {
+        return userRepository.findById(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + userId));
+    }
+    
+    /**
+     * Construye un gasto nuevo del usuario, con su moneda y su puntuación de anomalía
+     * Se puntúa contra el historial del usuario en su moneda base (en memoria, sin consultas extra);
+     * el detector solo incorpora el importe al historial si la transacción se confirma.
+     */
+    private Expense buildExpense(ExpenseRequest request, User user) {
+        Expense expense = new Expense();
+        expense.setAmount(request.getAmount());
+        expense.setCurrency(resolveCurrency(request.getCurrency(), user));
+        expense.setCategory(request.getCategory());
+        expense.setDate(request.getDate());
+        expense.setDescription(request.getDescription());
+        expense.setUser(user);
+        
+        BigDecimal baseAmount = fxRateService.convert(
+            request.getAmount(), expense.getCurrency(), user.getBaseCurrency(), request.getDate());
+        ExpenseAnomalyDetector.AnomalyScore anomaly =
+            anomalyDetector.score(user.getId(), request.getCategory(), baseAmount);
+        expense.setAnomalous(anomaly.anomalous());
+        expense.setAnomalyScore(anomaly.score());
+        return expense;
+    }
+    
+    /**
+     * Determina la moneda de un gasto: la indicada o, si no hay, la moneda base del usuario
+     */
+    private String resolveCurrency(String requested, User user) {
+        String currency = requested != null ? requested : user.getBaseCurrency();
+        if (!fxRateService.supports(currency)) {
+            throw new BadRequestException("No hay tipos de cambio cargados para la moneda: " + currency);
+        }
+        return currency;
+    }
+    
+    /**
+     * Antepone los gastos archivados a los de la base de datos
+     * Un gasto presente en los dos sitios (archivado pero aún sin borrar) se toma de la base de datos.
+     */
+    private List<ExpenseResponse> withArchived(List<ExpenseResponse> expenses, List<ArchivedExpense> archived) {
+        if (archived.isEmpty()) {
+            return expenses;
+        }
+        Set<Long> liveIds = expenses.stream().map(ExpenseResponse::getId).collect(Collectors.toSet());
+        Map<Long, String> userNames = userRepository.findAllById(
+                archived.stream().map(ArchivedExpense::userId).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(User::getId, User::getName));
+
+        List<ExpenseResponse> result = new ArrayList<>(archived.size() + expenses.size());
+        for (ArchivedExpense expense : archived) {
+            if (!liveIds.contains(expense.id())) {
+                result.add(expense.toResponse(userNames.get(expense.userId())));
+            }
+        }
+        result.addAll(expenses);
+        return result;
+    }
+    
     /**
      * Convierte Expense a ExpenseResponse
      */
@@ -159,12 +550,15 @@ public class ExpenseService {
         ExpenseResponse dto = new ExpenseResponse();
         dto.setId(expense.getId());
         dto.setAmount(expense.getAmount());
+        dto.setCurrency(expense.getCurrency());
         dto.setCategory(expense.getCategory());
         dto.setDate(expense.getDate());
         dto.setDescription(expense.getDescription());
         dto.setCreatedAt(expense.getCreatedAt());
         dto.setUserId(expense.getUser().getId());
         dto.setUserName(expense.getUser().getName());
+        dto.setAnomalous(expense.isAnomalous());
+        dto.setAnomalyScore(expense.getAnomalyScore());
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,212 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.dto.DistributionStats;
+import com.example.expense_manager.dto.ExpenseStatisticsResponse;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.event.InvalidationBatch;
+import com.example.expense_manager.event.InvalidationListener;
+import com.example.expense_manager.exeption.BadRequestException;
+import com.example.expense_manager.repository.ExpenseRepository;
+import com.example.expense_manager.repository.projection.ExpenseAmountView;
+import com.example.expense_manager.shard.ShardRouter;
+import com.example.expense_manager.stats.QuantileSketch;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de estadísticas de distribución de gastos (mediana, p90, p99)
+ * Calcula un sketch de cuantiles por mes y categoría en una sola pasada
+ * sobre la base de datos, los cachea por mes y los combina para rangos.
+ * Los montos se expresan en la moneda de referencia de los tipos de cambio.
+ */
+@Service
+public class ExpenseStatisticsService implements InvalidationListener {
+
+    /**
+     * Rango máximo de meses permitido en una consulta
+     */
+    static final int MAX_MONTHS = 120;
+
+    private final ExpenseRepository expenseRepository;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ShardRouter shardRouter;
+
+    private final Map<YearMonth, MonthlySketches> cache = new ConcurrentHashMap<>();
+    // Se incrementa en cada invalidación para no cachear cálculos que compitieron con una escritura
+    private final AtomicLong invalidations = new AtomicLong();
+    // Versión de los tipos de cambio con la que se calcularon los sketches cacheados
+    private volatile long fxVersion;
+
+    public ExpenseStatisticsService(ExpenseRepository expenseRepository,
+                                    FxRateService fxRateService,
+                                    PlatformTransactionManager transactionManager,
+                                    ShardRouter shardRouter) {
+        this.expenseRepository = expenseRepository;
+        this.fxRateService = fxRateService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Obtiene la distribución de montos por categoría y por mes para un rango de meses
+     *
+     * @throws BadRequestException si el rango está invertido o supera MAX_MONTHS
+     */
+    public ExpenseStatisticsResponse getStatistics(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("El mes inicial no puede ser posterior al mes final");
+        }
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(month);
+            if (months.size() > MAX_MONTHS) {
+                throw new BadRequestException("El rango no puede superar los " + MAX_MONTHS + " meses");
+            }
+        }
+
+        Map<YearMonth, MonthlySketches> sketches = loadMonths(months);
+
+        QuantileSketch overall = new QuantileSketch();
+        Map<ExpenseCategory, QuantileSketch> byCategory = new EnumMap<>(ExpenseCategory.class);
+        Map<YearMonth, DistributionStats> byMonth = new LinkedHashMap<>();
+
+        for (YearMonth month : months) {
+            MonthlySketches monthly = sketches.get(month);
+            QuantileSketch monthTotal = new QuantileSketch();
+            for (Map.Entry<ExpenseCategory, QuantileSketch> entry : monthly.byCategory.entrySet()) {
+                monthTotal.merge(entry.getValue());
+                byCategory.computeIfAbsent(entry.getKey(), c -> new QuantileSketch()).merge(entry.getValue());
+            }
+            overall.merge(monthTotal);
+            byMonth.put(month, toStats(monthTotal));
+        }
+
+        Map<ExpenseCategory, DistributionStats> categoryStats = new EnumMap<>(ExpenseCategory.class);
+        byCategory.forEach((category, sketch) -> categoryStats.put(category, toStats(sketch)));
+
+        return new ExpenseStatisticsResponse(from, to, fxRateService.getReferenceCurrency(),
+            toStats(overall), categoryStats, byMonth);
+    }
+
+    /**
+     * Descarta los sketches cacheados del mes indicado
+     */
+    public void invalidate(YearMonth month) {
+        invalidations.incrementAndGet();
+        cache.remove(month);
+    }
+
+    /**
+     * Descarta todos los sketches cacheados
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.clear();
+    }
+
+    /**
+     * Descarta los meses modificados según el lote recibido del bus de invalidación
+     */
+    @Override
+    public void onInvalidation(InvalidationBatch batch) {
+        if (batch.allMonths()) {
+            invalidateAll();
+        } else {
+            batch.months().forEach(this::invalidate);
+        }
+    }
+
+    /**
+     * Devuelve los sketches de los meses pedidos, calculando los que no están en caché
+     * con un único recorrido sobre el rango que los cubre
+     */
+    private Map<YearMonth, MonthlySketches> loadMonths(List<YearMonth> months) {
+        if (fxVersion != fxRateService.version()) {
+            invalidateAll();
+            fxVersion = fxRateService.version();
+        }
+        Map<YearMonth, MonthlySketches> result = new HashMap<>();
+        Map<YearMonth, MonthlySketches> missing = new HashMap<>();
+        for (YearMonth month : months) {
+            MonthlySketches cached = cache.get(month);
+            if (cached != null) {
+                result.put(month, cached);
+            } else {
+                missing.put(month, new MonthlySketches());
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        YearMonth first = missing.keySet().stream().min(YearMonth::compareTo).orElseThrow();
+        YearMonth last = missing.keySet().stream().max(YearMonth::compareTo).orElseThrow();
+        long version = invalidations.get();
+        String reference = fxRateService.getReferenceCurrency();
+
+        // Con sharding se recorre cada shard por turno y se acumula en los mismos sketches
+        shardRouter.forEachShard(() -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ExpenseAmountView> rows = expenseRepository.streamAmountsByDateBetween(
+                    first.atDay(1), last.atEndOfMonth())) {
+                rows.forEach(row -> {
+                    MonthlySketches monthly = missing.get(YearMonth.from(row.getDate()));
+                    if (monthly != null) {
+                        monthly.add(row.getCategory(), fxRateService.convert(
+                            row.getAmount().doubleValue(), row.getCurrency(), reference, row.getDate()));
+                    }
+                });
+            }
+        }));
+
+        if (invalidations.get() == version) {
+            cache.putAll(missing);
+        }
+        result.putAll(missing);
+        return result;
+    }
+
+    private DistributionStats toStats(QuantileSketch sketch) {
+        if (sketch.isEmpty()) {
+            return new DistributionStats(0, null, null, null, null, null);
+        }
+        return new DistributionStats(
+            sketch.getCount(),
+            toAmount(sketch.getMin()),
+            toAmount(sketch.getMax()),
+            toAmount(sketch.getQuantile(0.5)),
+            toAmount(sketch.getQuantile(0.9)),
+            toAmount(sketch.getQuantile(0.99))
+        );
+    }
+
+    private BigDecimal toAmount(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Sketches de un mes, uno por categoría
+     */
+    private static class MonthlySketches {
+        private final Map<ExpenseCategory, QuantileSketch> byCategory = new EnumMap<>(ExpenseCategory.class);
+
+        void add(ExpenseCategory category, double amount) {
+            byCategory.computeIfAbsent(category, c -> new QuantileSketch()).update(amount);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.dto.ExpenseSummaryResponse;
+import com.example.expense_manager.entity.User;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.exeption.ResourceNotFoundException;
+import com.example.expense_manager.repository.ExpenseRepository;
+import com.example.expense_manager.repository.UserRepository;
+import com.example.expense_manager.repository.projection.ExpenseDailyTotalView;
+import com.example.expense_manager.shard.ShardKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Servicio de resúmenes de gastos en la moneda base del usuario
+ * La base de datos agrupa por día, categoría y moneda; cada grupo se convierte
+ * con la tabla de tipos en memoria y se acumula en arreglos primitivos.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpenseSummaryService {
+
+    private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final FxRateService fxRateService;
+
+    /**
+     * Obtiene el resumen anual de gastos de un usuario por categoría y por mes
+     */
+    @Transactional(readOnly = true)
+    public ExpenseSummaryResponse getYearSummary(@ShardKey Long userId, int year) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + userId));
+        return summarize(year, user.getBaseCurrency(), expenseRepository.sumDailyTotalsByUserIdAndDateBetween(
+            userId, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31)));
+    }
+
+    /**
+     * Construye el resumen anual a partir de los totales por día, categoría y moneda
+     * Compartido por la lectura bloqueante y la reactiva (ver ReactiveExpenseService)
+     */
+    public ExpenseSummaryResponse summarize(int year, String baseCurrency,
+                                            Iterable<? extends ExpenseDailyTotalView> rows) {
+        double[][] totals = new double[12][CATEGORIES.length];
+        long count = 0;
+        for (ExpenseDailyTotalView row : rows) {
+            LocalDate date = row.getDate();
+            totals[date.getMonthValue() - 1][row.getCategory().ordinal()] +=
+                fxRateService.convert(row.getTotal().doubleValue(), row.getCurrency(), baseCurrency, date);
+            count += row.getCount();
+        }
+
+        double total = 0;
+        double[] categoryTotals = new double[CATEGORIES.length];
+        Map<YearMonth, BigDecimal> byMonth = new LinkedHashMap<>();
+        for (int month = 0; month < 12; month++) {
+            double monthTotal = 0;
+            for (int category = 0; category < CATEGORIES.length; category++) {
+                monthTotal += totals[month][category];
+                categoryTotals[category] += totals[month][category];
+            }
+            byMonth.put(YearMonth.of(year, month + 1), toAmount(monthTotal));
+            total += monthTotal;
+        }
+
+        Map<ExpenseCategory, BigDecimal> byCategory = new EnumMap<>(ExpenseCategory.class);
+        for (int category = 0; category < CATEGORIES.length; category++) {
+            byCategory.put(CATEGORIES[category], toAmount(categoryTotals[category]));
+        }
+
+        return new ExpenseSummaryResponse(year, baseCurrency, count, toAmount(total), byCategory, byMonth);
+    }
+
+    private BigDecimal toAmount(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
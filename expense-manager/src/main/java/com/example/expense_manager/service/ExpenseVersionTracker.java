@@ -0,0 +1,86 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.event.DomainEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de versión de los gastos de cada usuario
+ * Cada escritura incrementa la versión del usuario afectado; los listados usan
+ * la versión para calcular un ETag débil y responder 304 sin consultar la base.
+ */
+@Component
+public class ExpenseVersionTracker {
+
+    // Identifica este arranque: tras reiniciar, los ETag anteriores dejan de coincidir
+    private final String instanceId = Long.toHexString(System.currentTimeMillis());
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    // Cambios que afectan a todos los usuarios (archivado de meses): invalidan todos los ETag
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * Versión actual de los datos del usuario
+     */
+    public long current(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * Incrementa la versión del usuario cuando se confirme la transacción en curso
+     * (o inmediatamente si no hay transacción), para no publicar una versión nueva
+     * mientras los datos viejos todavía son los visibles
+     */
+    public void bump(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(userId);
+                }
+            });
+        } else {
+            increment(userId);
+        }
+    }
+
+    /**
+     * Incrementa la versión de los usuarios afectados por un evento ya confirmado
+     * Se atiende de forma síncrona (no por el bus de invalidación) para que un cliente
+     * que acaba de escribir nunca reciba un 304 con los datos anteriores
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        if (event.affectsAllUsers()) {
+            epoch.incrementAndGet();
+        }
+        for (Long userId : event.affectedUserIds()) {
+            if (userId != null) {
+                increment(userId);
+            }
+        }
+    }
+
+    /**
+     * ETag débil para una vista de los datos del usuario
+     * La variante distingue vistas distintas (endpoint, página, filtros)
+     */
+    public String etag(Long userId, Object... variant) {
+        return "W/\"" + instanceId + "." + epoch.get() + "-" + userId + "-" + current(userId) + "-"
+            + Integer.toHexString(Arrays.hashCode(variant)) + "\"";
+    }
+
+    private void increment(Long userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.dto.FxRateImportResponse;
+import com.example.expense_manager.entity.FxRate;
+import com.example.expense_manager.exeption.BadRequestException;
+import com.example.expense_manager.repository.FxRateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Servicio de tipos de cambio
+ * Mantiene en memoria una tabla indexada por día para cada moneda, de modo que
+ * convertir un monto es un acceso a un arreglo (sin consultas ni objetos nuevos).
+ * La tabla se reconstruye al arrancar y después de cada importación.
+ */
+@Slf4j
+@Service
+public class FxRateService {
+
+    private final FxRateRepository fxRateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String referenceCurrency;
+    private final String ratesFile;
+
+    private volatile RateTable table;
+
+    public FxRateService(
+            FxRateRepository fxRateRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.fx.reference-currency:EUR}") String referenceCurrency,
+            @Value("${app.fx.rates-file:}") String ratesFile) {
+        this.fxRateRepository = fxRateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.referenceCurrency = referenceCurrency.toUpperCase(Locale.ROOT);
+        this.ratesFile = ratesFile;
+        this.table = new RateTable(0, Map.of());
+    }
+
+    /**
+     * Carga la tabla al arrancar, importando antes el archivo configurado si existe
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() throws IOException {
+        if (StringUtils.hasText(ratesFile) && Files.exists(Path.of(ratesFile))) {
+            try (InputStream in = Files.newInputStream(Path.of(ratesFile))) {
+                FxRateImportResponse result = importRates(in);
+                log.info("Importados {} tipos de cambio desde {}", result.getImported(), ratesFile);
+            }
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * Importa un archivo CSV con líneas "fecha,moneda,tipo" (fecha ISO, tipo por unidad de la moneda de referencia)
+     * Los tipos existentes de esas monedas dentro del rango del archivo se reemplazan
+     */
+    public FxRateImportResponse importRates(InputStream csv) throws IOException {
+        List<FxRate> rates = parse(csv);
+        if (rates.isEmpty()) {
+            throw new BadRequestException("El archivo no contiene tipos de cambio");
+        }
+
+        TreeSet<String> currencies = new TreeSet<>();
+        LocalDate from = rates.get(0).getRateDate();
+        LocalDate to = from;
+        for (FxRate rate : rates) {
+            currencies.add(rate.getCurrency());
+            from = rate.getRateDate().isBefore(from) ? rate.getRateDate() : from;
+            to = rate.getRateDate().isAfter(to) ? rate.getRateDate() : to;
+        }
+
+        LocalDate start = from;
+        LocalDate end = to;
+        transactionTemplate.executeWithoutResult(status -> {
+            fxRateRepository.deleteByCurrenciesAndDateRange(currencies, start, end);
+            fxRateRepository.saveAll(rates);
+        });
+        reload();
+
+        return new FxRateImportResponse(rates.size(), currencies, from, to);
+    }
+
+    /**
+     * Reconstruye la tabla en memoria a partir de la base de datos
+     */
+    public void reload() {
+        Map<String, List<FxRate>> byCurrency = new HashMap<>();
+        for (FxRate rate : fxRateRepository.findAllByOrderByCurrencyAscRateDateAsc()) {
+            byCurrency.computeIfAbsent(rate.getCurrency(), c -> new ArrayList<>()).add(rate);
+        }
+
+        Map<String, CurrencyRates> rates = new HashMap<>();
+        byCurrency.forEach((currency, list) -> rates.put(currency, CurrencyRates.of(list)));
+        table = new RateTable(table.version + 1, rates);
+    }
+
+    public String getReferenceCurrency() {
+        return referenceCurrency;
+    }
+
+    /**
+     * Versión de la tabla (cambia con cada recarga), útil para invalidar datos derivados
+     */
+    public long version() {
+        return table.version;
+    }
+
+    /**
+     * Indica si hay tipos de cambio para la moneda
+     */
+    public boolean supports(String currency) {
+        return referenceCurrency.equals(currency) || table.rates.containsKey(currency);
+    }
+
+    /**
+     * Unidades de la moneda por unidad de la moneda de referencia en una fecha
+     * Fuera del rango cargado se usa el tipo más cercano disponible
+     */
+    public double rate(String currency, LocalDate date) {
+        if (referenceCurrency.equals(currency)) {
+            return 1.0;
+        }
+        CurrencyRates rates = table.rates.get(currency);
+        if (rates == null) {
+            throw new BadRequestException("No hay tipos de cambio para la moneda: " + currency);
+        }
+        return rates.at(date.toEpochDay());
+    }
+
+    /**
+     * Convierte un monto entre monedas usando el tipo de la fecha indicada
+     */
+    public double convert(double amount, String from, String to, LocalDate date) {
+        if (from.equals(to)) {
+            return amount;
+        }
+        return amount / rate(from, date) * rate(to, date);
+    }
+
+    /**
+     * Convierte un monto entre monedas redondeando a céntimos
+     */
+    public BigDecimal convert(BigDecimal amount, String from, String to, LocalDate date) {
+        if (from.equals(to)) {
+            return amount;
+        }
+        return BigDecimal.valueOf(convert(amount.doubleValue(), from, to, date))
+            .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private List<FxRate> parse(InputStream csv) throws IOException {
+        List<FxRate> rates = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.toLowerCase(Locale.ROOT).startsWith("date")) {
+                continue;
+            }
+            String[] parts = line.split(",");
+            if (parts.length != 3) {
+                throw new BadRequestException("Línea " + lineNumber + " inválida: se esperaba fecha,moneda,tipo");
+            }
+            try {
+                String currency = parts[1].trim().toUpperCase(Locale.ROOT);
+                BigDecimal rate = new BigDecimal(parts[2].trim());
+                if (currency.length() != 3 || rate.signum() <= 0) {
+                    throw new BadRequestException("Línea " + lineNumber + " inválida: moneda o tipo incorrectos");
+                }
+                rates.add(new FxRate(null, LocalDate.parse(parts[0].trim()), currency, rate));
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                throw new BadRequestException("Línea " + lineNumber + " inválida: " + ex.getMessage());
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * Instantánea inmutable de todos los tipos cargados
+     */
+    private record RateTable(long version, Map<String, CurrencyRates> rates) {
+    }
+
+    /**
+     * Tipos diarios de una moneda en un arreglo denso; los días sin dato
+     * heredan el último tipo conocido
+     */
+    private record CurrencyRates(long firstDay, double[] daily) {
+
+        static CurrencyRates of(List<FxRate> sorted) {
+            long firstDay = sorted.get(0).getRateDate().toEpochDay();
+            long lastDay = sorted.get(sorted.size() - 1).getRateDate().toEpochDay();
+            double[] daily = new double[(int) (lastDay - firstDay + 1)];
+
+            int next = 0;
+            double current = sorted.get(0).getRate().doubleValue();
+            for (int i = 0; i < daily.length; i++) {
+                while (next < sorted.size() && sorted.get(next).getRateDate().toEpochDay() == firstDay + i) {
+                    current = sorted.get(next).getRate().doubleValue();
+                    next++;
+                }
+                daily[i] = current;
+            }
+            return new CurrencyRates(firstDay, daily);
+        }
+
+        double at(long epochDay) {
+            long index = epochDay - firstDay;
+            if (index < 0) {
+                return daily[0];
+            }
+            if (index >= daily.length) {
+                return daily[daily.length - 1];
+            }
+            return daily[(int) index];
+        }
+    }
+}
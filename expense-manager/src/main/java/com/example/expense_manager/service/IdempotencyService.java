@@ -0,0 +1,234 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.entity.IdempotencyRecord;
+import com.example.expense_manager.exeption.BadRequestException;
+import com.example.expense_manager.exeption.IdempotencyConflictException;
+import com.example.expense_manager.repository.IdempotencyRecordRepository;
+import com.example.expense_manager.shard.ShardKey;
+import com.example.expense_manager.shard.ShardRouter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una sola vez las peticiones con cabecera Idempotency-Key
+ * La respuesta de la primera ejecución se guarda por usuario y clave, en una caché
+ * acotada en memoria y en la tabla idempotency_keys (en la misma transacción que la
+ * operación), y los reintentos la reciben sin volver a ejecutarla. Las peticiones
+ * simultáneas con la misma clave esperan a la que llegó primero en lugar de ejecutarse
+ * en paralelo; entre instancias decide la restricción única de la tabla. Una clave
+ * reutilizada con otra petición se rechaza. Las claves caducan pasado el TTL.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration ttl;
+
+    private final Cache<CacheKey, StoredResponse> cache;
+    private final Map<CacheKey, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              ObjectMapper objectMapper,
+                              ShardRouter shardRouter,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${app.idempotency.cache-size:10000}") long cacheSize) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    /**
+     * Resultado de una operación idempotente: la respuesta y si es la repetición de una anterior
+     */
+    public record Result<T>(T body, boolean replayed) {
+    }
+
+    /**
+     * Ejecuta la operación, o devuelve la respuesta guardada si la clave ya se usó
+     *
+     * @param operation nombre de la operación; forma parte de la huella de la petición
+     * @param request   cuerpo de la petición, para detectar claves reutilizadas con otra petición
+     * @param type      tipo de la respuesta, para reconstruir las respuestas guardadas
+     */
+    public <T> Result<T> execute(@ShardKey Long userId, String key, String operation, Object request,
+                                 TypeReference<T> type, Supplier<T> action) {
+        validateKey(key);
+        CacheKey cacheKey = new CacheKey(userId, key);
+        String requestHash = hash(operation, request);
+
+        while (true) {
+            StoredResponse cached = cache.getIfPresent(cacheKey);
+            if (cached != null) {
+                return replay(cached, requestHash, type);
+            }
+
+            CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(cacheKey, execution);
+            if (running != null) {
+                // Otra petición con la misma clave está en curso: se espera a su respuesta
+                try {
+                    return replay(running.join(), requestHash, type);
+                } catch (CompletionException e) {
+                    // Falló sin guardar nada: se vuelve a intentar como una petición nueva
+                    continue;
+                }
+            }
+
+            try {
+                return executeOnce(cacheKey, requestHash, type, action, execution);
+            } catch (RuntimeException e) {
+                execution.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(cacheKey, execution);
+            }
+        }
+    }
+
+    private <T> Result<T> executeOnce(CacheKey cacheKey, String requestHash, TypeReference<T> type,
+                                      Supplier<T> action, CompletableFuture<StoredResponse> execution) {
+        Outcome<T> outcome;
+        try {
+            outcome = transaction.execute(status -> {
+                Optional<IdempotencyRecord> existing =
+                    recordRepository.findByUserIdAndIdempotencyKey(cacheKey.userId(), cacheKey.key());
+                if (existing.isPresent() && existing.get().getExpiresAt().isAfter(LocalDateTime.now())) {
+                    return new Outcome<T>(toStored(existing.get()), null);
+                }
+                existing.ifPresent(record -> {
+                    recordRepository.delete(record);
+                    recordRepository.flush();
+                });
+
+                T body = action.get();
+                LocalDateTime now = LocalDateTime.now();
+                StoredResponse stored = new StoredResponse(requestHash, write(body));
+                recordRepository.saveAndFlush(new IdempotencyRecord(null, cacheKey.userId(), cacheKey.key(),
+                    requestHash, stored.body(), now, now.plus(ttl)));
+                return new Outcome<>(stored, body);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia guardó la misma clave a la vez; esta transacción se ha revertido entera
+            log.debug("Clave de idempotencia {} guardada por otra instancia", cacheKey.key());
+            StoredResponse stored = readOnlyTransaction.execute(status -> recordRepository
+                .findByUserIdAndIdempotencyKey(cacheKey.userId(), cacheKey.key())
+                .map(this::toStored)
+                .orElseThrow(() -> e));
+            outcome = new Outcome<>(stored, null);
+        }
+
+        cache.put(cacheKey, outcome.stored());
+        execution.complete(outcome.stored());
+        if (outcome.body() != null) {
+            return new Result<>(outcome.body(), false);
+        }
+        return replay(outcome.stored(), requestHash, type);
+    }
+
+    /**
+     * Elimina las claves caducadas de la tabla (en todos los shards)
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        shardRouter.forEachShard(() -> {
+            Integer deleted = transaction.execute(status -> recordRepository.deleteExpired(now));
+            if (deleted != null && deleted > 0) {
+                log.info("Eliminadas {} claves de idempotencia caducadas", deleted);
+            }
+        });
+    }
+
+    private <T> Result<T> replay(StoredResponse stored, String requestHash, TypeReference<T> type) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException("La clave de idempotencia ya se usó con una petición distinta");
+        }
+        try {
+            return new Result<>(objectMapper.readValue(stored.body(), type), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta guardada", e);
+        }
+    }
+
+    private StoredResponse toStored(IdempotencyRecord record) {
+        return new StoredResponse(record.getRequestHash(), record.getResponseBody());
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la respuesta", e);
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la petición", e);
+        }
+    }
+
+    static void validateKey(String key) {
+        if (key == null || key.isBlank()) {
+            throw new BadRequestException("La cabecera Idempotency-Key no puede estar vacía");
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(
+                "La cabecera Idempotency-Key no puede superar los " + MAX_KEY_LENGTH + " caracteres");
+        }
+    }
+
+    private record CacheKey(Long userId, String key) {
+    }
+
+    private record StoredResponse(String requestHash, String body) {
+    }
+
+    private record Outcome<T>(StoredResponse stored, T body) {
+    }
+}
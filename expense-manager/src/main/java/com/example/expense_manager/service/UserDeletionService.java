@@ -0,0 +1,233 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.dto.UserDeletionResponse;
+import com.example.expense_manager.enums.DeletionStatus;
+import com.example.expense_manager.event.UserDeletedEvent;
+import com.example.expense_manager.exeption.ResourceNotFoundException;
+import com.example.expense_manager.repository.ExpenseRepository;
+import com.example.expense_manager.repository.ExpenseTombstoneRepository;
+import com.example.expense_manager.repository.IdempotencyRecordRepository;
+import com.example.expense_manager.repository.UserRepository;
+import com.example.expense_manager.shard.ShardContext;
+import com.example.expense_manager.shard.ShardKey;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servicio de borrado de usuarios basado en sentencias sobre conjuntos
+ * No carga el usuario ni sus gastos en el contexto de persistencia: los gastos
+ * se eliminan con un DELETE masivo y después el usuario. Si el usuario tiene más
+ * gastos que el umbral, el borrado se hace en segundo plano por lotes acotados,
+ * cada uno en su propia transacción, para no retener una conexión ni bloquear
+ * la tabla durante todo el proceso; su progreso se consulta por jobId.
+ */
+@Slf4j
+@Service
+public class UserDeletionService {
+
+    private final UserRepository userRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseTombstoneRepository tombstoneRepository;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long syncThreshold;
+    private final int chunkSize;
+    private final Duration retention;
+    private final ExecutorService executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, Job> activeJobs = new ConcurrentHashMap<>();
+
+    public UserDeletionService(UserRepository userRepository,
+                               ExpenseRepository expenseRepository,
+                               ExpenseTombstoneRepository tombstoneRepository,
+                               IdempotencyRecordRepository idempotencyRecordRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.users.deletion.sync-threshold:5000}") long syncThreshold,
+                               @Value("${app.users.deletion.chunk-size:1000}") int chunkSize,
+                               @Value("${app.users.deletion.retention-minutes:60}") long retentionMinutes) {
+        this.userRepository = userRepository;
+        this.expenseRepository = expenseRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.syncThreshold = syncThreshold;
+        this.chunkSize = chunkSize;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        // Un solo hilo: los borrados grandes se serializan en lugar de competir por el pool
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-deletion");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Elimina un usuario y sus gastos
+     * Devuelve COMPLETED si se borró en la propia llamada, o PENDING con el jobId
+     * del borrado en segundo plano (o el del borrado que ya estuviera en curso).
+     */
+    public UserDeletionResponse deleteUser(@ShardKey Long userId) {
+        Job active = activeJobs.get(userId);
+        if (active != null) {
+            return active.toResponse();
+        }
+        Long total = readOnlyTransaction.execute(status -> {
+            if (!userRepository.existsById(userId)) {
+                throw new ResourceNotFoundException("Usuario no encontrado con ID: " + userId);
+            }
+            return expenseRepository.countByUserId(userId);
+        });
+
+        if (total <= syncThreshold) {
+            LocalDateTime startedAt = LocalDateTime.now();
+            int deleted = deleteRemaining(userId);
+            return new UserDeletionResponse(null, userId, DeletionStatus.COMPLETED, total, deleted,
+                startedAt, LocalDateTime.now(), null);
+        }
+        return submit(userId, total);
+    }
+
+    /**
+     * Estado de un borrado en segundo plano
+     */
+    public UserDeletionResponse getDeletionStatus(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Borrado no encontrado con ID: " + jobId);
+        }
+        return job.toResponse();
+    }
+
+    private synchronized UserDeletionResponse submit(Long userId, long total) {
+        Job existing = activeJobs.get(userId);
+        if (existing != null) {
+            return existing.toResponse();
+        }
+        evictFinished();
+        Job job = new Job(UUID.randomUUID().toString(), userId, total);
+        jobs.put(job.id, job);
+        activeJobs.put(userId, job);
+        // El hilo de borrado trabaja sobre el shard del usuario
+        executor.execute(ShardContext.wrap(() -> run(job)));
+        log.info("Borrado en segundo plano del usuario {} ({} gastos): {}", userId, total, job.id);
+        return job.toResponse();
+    }
+
+    /**
+     * Borra los gastos por lotes y termina con el usuario
+     */
+    void run(Job job) {
+        job.start();
+        try {
+            int deleted;
+            do {
+                deleted = transaction.execute(status -> {
+                    List<Long> ids = expenseRepository.findIdsByUserId(job.userId, PageRequest.of(0, chunkSize));
+                    return ids.isEmpty() ? 0 : expenseRepository.deleteByUserIdAndIdIn(job.userId, ids);
+                });
+                job.deleted(deleted);
+            } while (deleted == chunkSize);
+
+            // Los gastos creados mientras tanto se borran junto con el usuario
+            job.deleted(deleteRemaining(job.userId));
+            job.finish(DeletionStatus.COMPLETED, null);
+            log.info("Usuario {} eliminado ({} gastos)", job.userId, job.deletedExpenses);
+        } catch (RuntimeException e) {
+            job.finish(DeletionStatus.FAILED, e.getMessage());
+            log.error("Fallo al eliminar el usuario {} tras borrar {} gastos", job.userId, job.deletedExpenses, e);
+        } finally {
+            activeJobs.remove(job.userId, job);
+        }
+    }
+
+    /**
+     * Elimina los gastos que queden, sus marcas de borrado, sus claves de idempotencia
+     * y el usuario en una transacción
+     */
+    private int deleteRemaining(Long userId) {
+        return transaction.execute(status -> {
+            int deleted = expenseRepository.deleteAllByUserId(userId);
+            tombstoneRepository.deleteAllByUserId(userId);
+            // idempotency_keys guarda el ID del usuario sin clave ajena: nada las borraría después
+            idempotencyRecordRepository.deleteAllByUserId(userId);
+            userRepository.deleteUserById(userId);
+            eventPublisher.publishEvent(new UserDeletedEvent(userId));
+            return deleted;
+        });
+    }
+
+    /**
+     * Olvida los borrados terminados hace más que el tiempo de retención
+     */
+    private void evictFinished() {
+        LocalDateTime limit = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(limit));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Progreso de un borrado en segundo plano (escrito por el hilo de borrado, leído por las peticiones)
+     */
+    static final class Job {
+        private final String id;
+        private final Long userId;
+        private final long totalExpenses;
+        private volatile DeletionStatus status = DeletionStatus.PENDING;
+        private volatile long deletedExpenses;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        Job(String id, Long userId, long totalExpenses) {
+            this.id = id;
+            this.userId = userId;
+            this.totalExpenses = totalExpenses;
+        }
+
+        void start() {
+            startedAt = LocalDateTime.now();
+            status = DeletionStatus.RUNNING;
+        }
+
+        void deleted(int count) {
+            deletedExpenses += count;
+        }
+
+        void finish(DeletionStatus result, String message) {
+            error = message;
+            finishedAt = LocalDateTime.now();
+            status = result;
+        }
+
+        UserDeletionResponse toResponse() {
+            return new UserDeletionResponse(id, userId, status, totalExpenses, deletedExpenses,
+                startedAt, finishedAt, error);
+        }
+    }
+}
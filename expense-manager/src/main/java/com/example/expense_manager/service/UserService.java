@@ -1,15 +1,24 @@
 package com.example.expense_manager.service;
 
+import com.example.expense_manager.dto.UserDeletionResponse;
+import com.example.expense_manager.dto.UserField;
 import com.example.expense_manager.dto.UserRequest;
 import com.example.expense_manager.dto.UserResponse;
 import com.example.expense_manager.entity.User;
+import com.example.expense_manager.event.UserUpdatedEvent;
+import com.example.expense_manager.exeption.BadRequestException;
 import com.example.expense_manager.exeption.ResourceNotFoundException;
 import com.example.expense_manager.repository.UserRepository;
+import com.example.expense_manager.shard.ShardKey;
+import com.example.expense_manager.shard.ShardRouter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -20,33 +29,59 @@ import java.util.stream.Collectors;
 public class UserService {
     
     private final UserRepository userRepository;
+    private final FxRateService fxRateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserDeletionService userDeletionService;
+    private final ShardRouter shardRouter;
     
     /**
      * Crea un nuevo usuario
      */
     @Transactional
-    public UserResponse createUser(UserRequest request) {
+    public UserResponse createUser(@ShardKey("email") UserRequest request) {
         // Verificar si el email ya existe
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userRepository.existsByEmail(request.getEmail()) || shardRouter.isEmailTaken(request.getEmail())) {
             throw new IllegalArgumentException("Ya existe un usuario con ese email");
         }
         
         User user = new User();
         user.setEmail(request.getEmail());
         user.setName(request.getName());
+        user.setBaseCurrency(request.getBaseCurrency() != null
+            ? validateCurrency(request.getBaseCurrency()) : fxRateService.getReferenceCurrency());
         
         User savedUser = userRepository.save(user);
+        shardRouter.registerUser(savedUser.getEmail(), savedUser.getId());
         return convertToDto(savedUser);
     }
     
     /**
-     * Obtiene todos los usuarios
+     * Obtiene todos los usuarios (de todos los shards, ordenados por ID)
      */
     @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers() {
-        return userRepository.findAll()
+        return shardRouter.onEveryShard(() -> userRepository.findAll()
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList()))
             .stream()
-            .map(this::convertToDto)
+            .flatMap(List::stream)
+            .sorted(Comparator.comparing(UserResponse::getId))
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Obtiene todos los usuarios leyendo solo las columnas de los campos pedidos (null = todos)
+     */
+    @Transactional(readOnly = true)
+    public List<UserResponse> getAllUsers(Set<UserField> fields) {
+        if (fields == null) {
+            return getAllUsers();
+        }
+        return shardRouter.onEveryShard(() -> userRepository.findAllFields(fields))
+            .stream()
+            .flatMap(List::stream)
+            .sorted(Comparator.comparing(UserResponse::getId))
             .collect(Collectors.toList());
     }
     
@@ -54,7 +89,7 @@ public class UserService {
      * Obtiene un usuario por ID
      */
     @Transactional(readOnly = true)
-    public UserResponse getUserById(Long id) {
+    public UserResponse getUserById(@ShardKey Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + id));
         return convertToDto(user);
@@ -64,44 +99,66 @@ public class UserService {
      * Actualiza un usuario existente
      */
     @Transactional
-    public UserResponse updateUser(Long id, UserRequest request) {
+    public UserResponse updateUser(@ShardKey Long id, UserRequest request) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + id));
         
         // Si cambia el email, verificar que no esté en uso
-        if (!user.getEmail().equals(request.getEmail()) && 
-            userRepository.existsByEmail(request.getEmail())) {
+        boolean emailChanged = !user.getEmail().equals(request.getEmail());
+        if (emailChanged && (userRepository.existsByEmail(request.getEmail())
+                || shardRouter.isEmailTaken(request.getEmail()))) {
             throw new IllegalArgumentException("Ya existe un usuario con ese email");
         }
         
         user.setEmail(request.getEmail());
         user.setName(request.getName());
+        if (request.getBaseCurrency() != null) {
+            user.setBaseCurrency(validateCurrency(request.getBaseCurrency()));
+        }
         
         User updatedUser = userRepository.save(user);
+        if (emailChanged) {
+            shardRouter.registerUser(updatedUser.getEmail(), updatedUser.getId());
+        }
+        // La moneda base afecta a los resúmenes cacheados por el cliente
+        eventPublisher.publishEvent(new UserUpdatedEvent(updatedUser.getId()));
         return convertToDto(updatedUser);
     }
     
     /**
-     * Elimina un usuario
+     * Elimina un usuario y sus gastos sin cargarlos (ver UserDeletionService)
      */
-    @Transactional
-    public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + id);
-        }
-        userRepository.deleteById(id);
+    public UserDeletionResponse deleteUser(@ShardKey Long id) {
+        return userDeletionService.deleteUser(id);
+    }
+    
+    /**
+     * Obtiene el estado de un borrado de usuario en segundo plano
+     */
+    public UserDeletionResponse getDeletionStatus(String jobId) {
+        return userDeletionService.getDeletionStatus(jobId);
     }
     
     /**
      * Verifica si el usuario autenticado es el propietario del recurso
      * Usado en @PreAuthorize
      */
-    public boolean isOwner(Long userId, String email) {
+    public boolean isOwner(@ShardKey Long userId, String email) {
         User user = userRepository.findById(userId)
             .orElse(null);
         return user != null && user.getEmail().equals(email);
     }
     
+    /**
+     * Verifica que haya tipos de cambio para la moneda base solicitada
+     */
+    private String validateCurrency(String currency) {
+        if (!fxRateService.supports(currency)) {
+            throw new BadRequestException("No hay tipos de cambio cargados para la moneda: " + currency);
+        }
+        return currency;
+    }
+    
     /**
      * Convierte User a UserResponseDto
      */
@@ -111,6 +168,7 @@ public class UserService {
         dto.setEmail(user.getEmail());
         dto.setName(user.getName());
         dto.setRole(user.getRole().name());
+        dto.setBaseCurrency(user.getBaseCurrency());
         dto.setCreatedAt(user.getCreatedAt());
         return dto;
     }
@@ -0,0 +1,71 @@
+package com.example.expense_manager.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard de la operación en curso en este hilo
+ * Lo lee ShardRoutingDataSource al pedir la conexión; sin valor se usa el shard 0,
+ * que además guarda las tablas globales (tipos de cambio, estadísticas de anomalías)
+ * y el directorio de emails.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Shard asignado al hilo, o null si no hay ninguno
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Ejecuta la operación en el shard indicado y restaura el anterior al terminar
+     */
+    public static <T> T callOn(int shard, Supplier<T> operation) {
+        Integer previous = enter(shard);
+        try {
+            return operation.get();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    public static void runOn(int shard, Runnable operation) {
+        callOn(shard, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Envuelve una tarea para que se ejecute en otro hilo con el shard de este
+     */
+    public static Runnable wrap(Runnable task) {
+        Integer shard = CURRENT.get();
+        if (shard == null) {
+            return task;
+        }
+        return () -> runOn(shard, task);
+    }
+
+    /**
+     * Asigna el shard y devuelve el anterior, que debe pasarse a exit en un finally
+     */
+    static Integer enter(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void exit(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.expense_manager.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pools de conexiones de los shards, uno por base de datos
+ * Se cierran con el contexto (close se infiere como método de destrucción).
+ */
+@Slf4j
+public class ShardDataSources implements AutoCloseable {
+
+    /**
+     * Tablas con id autogenerado que se reparten entre shards
+     */
+    private static final List<String> SHARDED_TABLES = List.of("users", "expenses");
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+
+    public ShardDataSources(List<DataSourceProperties> shards, int poolSize) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("app.sharding.shards debe tener al menos un shard");
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            HikariDataSource dataSource = shards.get(i).initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSources.add(dataSource);
+        }
+    }
+
+    public int size() {
+        return dataSources.size();
+    }
+
+    public DataSource get(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public List<? extends DataSource> all() {
+        return dataSources;
+    }
+
+    /**
+     * Hace que cada shard genere ids distintos de los del resto
+     * En el shard k las columnas identity empiezan en k + 1 y avanzan de N en N, así
+     * que (id - 1) mod N devuelve el shard de cualquier usuario o gasto sin consultar nada.
+     * Se repite en cada arranque: reinicia la secuencia en el siguiente valor libre de
+     * la progresión, por encima del máximo id existente.
+     */
+    public void alignIdentities() {
+        int count = dataSources.size();
+        for (int shard = 0; shard < count; shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSources.get(shard));
+            for (String table : SHARDED_TABLES) {
+                Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                long next = nextId(max, shard, count);
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET INCREMENT BY " + count);
+            }
+        }
+        log.info("Identidades de {} alineadas en {} shards", SHARDED_TABLES, count);
+    }
+
+    /**
+     * Primer id mayor que max que pertenece al shard (id ≡ shard + 1 mod count)
+     */
+    static long nextId(long max, int shard, int count) {
+        long candidate = max + 1;
+        long offset = Math.floorMod(candidate - 1 - shard, (long) count);
+        return offset == 0 ? candidate : candidate + count - offset;
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.expense_manager.shard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Directorio global email -> shard, para resolver el login y el registro
+ * Vive en el shard 0 y se consulta por JDBC, fuera de las transacciones de JPA.
+ * Las búsquedas se guardan en memoria: un email solo cambia de entrada cuando el
+ * usuario cambia de email o se elimina, y esos cambios pasan por esta clase.
+ */
+public class ShardDirectory {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, Integer> cache;
+
+    public ShardDirectory(DataSource dataSource, long cacheSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.cache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS user_shard_directory ("
+            + "email VARCHAR(255) PRIMARY KEY, user_id BIGINT NOT NULL, shard INT NOT NULL)");
+    }
+
+    /**
+     * Shard del usuario con ese email, si está registrado
+     */
+    public Optional<Integer> find(String email) {
+        Integer cached = cache.getIfPresent(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        List<Integer> shards = jdbcTemplate.queryForList(
+            "SELECT shard FROM user_shard_directory WHERE email = ?", Integer.class, email);
+        if (shards.isEmpty()) {
+            return Optional.empty();
+        }
+        cache.put(email, shards.get(0));
+        return Optional.of(shards.get(0));
+    }
+
+    /**
+     * Registra (o mueve) un email; las entradas anteriores del mismo usuario se eliminan
+     */
+    public void register(String email, long userId, int shard) {
+        removeUser(userId);
+        if (jdbcTemplate.update("UPDATE user_shard_directory SET user_id = ?, shard = ? WHERE email = ?",
+                userId, shard, email) == 0) {
+            jdbcTemplate.update("INSERT INTO user_shard_directory (email, user_id, shard) VALUES (?, ?, ?)",
+                email, userId, shard);
+        }
+        cache.put(email, shard);
+    }
+
+    public void removeUser(long userId) {
+        List<String> emails = jdbcTemplate.queryForList(
+            "SELECT email FROM user_shard_directory WHERE user_id = ?", String.class, userId);
+        if (!emails.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM user_shard_directory WHERE user_id = ?", userId);
+            cache.invalidateAll(emails);
+        }
+    }
+}
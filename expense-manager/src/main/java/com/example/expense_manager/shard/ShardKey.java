@@ -0,0 +1,22 @@
+package com.example.expense_manager.shard;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca el parámetro que decide el shard de una operación de servicio
+ * Un número es un id de usuario o de gasto (el id codifica su shard) y un texto es un email
+ * (se resuelve con el directorio). Con {@link #value()} se toma esa propiedad del parámetro,
+ * p. ej. {@code @ShardKey("userId") ExpenseRequest request}.
+ * Solo tiene efecto con app.sharding.enabled=true (ver ShardKeyAspect).
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+
+    String value() default "";
+}
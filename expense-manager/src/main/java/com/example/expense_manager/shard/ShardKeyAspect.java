@@ -0,0 +1,77 @@
+package com.example.expense_manager.shard;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Fija el shard de las llamadas a métodos con un parámetro @ShardKey
+ * Va antes que el interceptor de transacciones, así que la transacción del método
+ * ya obtiene su conexión del shard correcto. Una transacción no puede cambiar de
+ * shard a mitad: si se intenta, falla en lugar de leer o escribir en otra base.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ShardKeyAspect {
+
+    private final ShardRouter router;
+
+    public ShardKeyAspect(ShardRouter router) {
+        this.router = router;
+    }
+
+    @Around("execution(* com.example.expense_manager..*(.., @com.example.expense_manager.shard.ShardKey (*), ..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Integer shard = resolve(joinPoint);
+        Integer current = ShardContext.current();
+        if (shard == null || shard.equals(current)) {
+            return joinPoint.proceed();
+        }
+        int effective = current != null ? current : 0;
+        if (effective != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Una transacción no puede abarcar varios shards ("
+                + effective + " y " + shard + ")");
+        }
+        Integer previous = ShardContext.enter(shard);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardContext.exit(previous);
+        }
+    }
+
+    private Integer resolve(ProceedingJoinPoint joinPoint) {
+        Annotation[][] annotations = ((MethodSignature) joinPoint.getSignature()).getMethod().getParameterAnnotations();
+        Object[] args = joinPoint.getArgs();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey key) {
+                    return shardOf(key.value().isEmpty() || args[i] == null
+                        ? args[i]
+                        : PropertyAccessorFactory.forBeanPropertyAccess(args[i]).getPropertyValue(key.value()));
+                }
+            }
+        }
+        return null;
+    }
+
+    private Integer shardOf(Object key) {
+        if (key == null) {
+            return null;
+        }
+        if (key instanceof Number id) {
+            return router.shardOfId(id.longValue());
+        }
+        if (key instanceof String email) {
+            return router.shardForEmail(email);
+        }
+        throw new IllegalArgumentException("Tipo de clave de shard no soportado: " + key.getClass().getName());
+    }
+}
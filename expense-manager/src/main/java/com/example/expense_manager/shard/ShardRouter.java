@@ -0,0 +1,243 @@
+package com.example.expense_manager.shard;
+
+import com.example.expense_manager.event.UserDeletedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Decide en qué shard vive cada usuario y reparte las consultas globales entre shards
+ * Los ids codifican el shard (ver ShardDataSources#alignIdentities); un usuario nuevo
+ * se coloca con un hash estable de su email, y el directorio recuerda el shard de cada
+ * email para el login. Sin app.sharding.enabled hay un solo shard y todos los métodos
+ * se ejecutan en el hilo y la transacción de quien llama, sin coste añadido.
+ */
+@Component
+public class ShardRouter {
+
+    private final int shardCount;
+    private final ObjectProvider<ShardDirectory> directory;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+
+    public ShardRouter(ShardingProperties properties,
+                       ObjectProvider<ShardDirectory> directory,
+                       PlatformTransactionManager transactionManager) {
+        this.shardCount = properties.shardCount();
+        this.directory = directory;
+        if (shardCount > 1) {
+            this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction.setReadOnly(true);
+            this.executor = Executors.newFixedThreadPool(shardCount, runnable -> {
+                Thread thread = new Thread(runnable, "shard-query");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.readOnlyTransaction = null;
+            this.executor = null;
+        }
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Shard de un usuario o de un gasto a partir de su id
+     */
+    public int shardOfId(long id) {
+        return (int) Math.floorMod(id - 1, (long) shardCount);
+    }
+
+    public boolean sameShard(Long firstId, Long secondId) {
+        return shardCount == 1 || shardOfId(firstId) == shardOfId(secondId);
+    }
+
+    /**
+     * Shard de un email: el del directorio si ya está registrado, o el que le toca por hash si es nuevo
+     */
+    public int shardForEmail(String email) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        return directory.getObject().find(email).orElseGet(() -> placement(email, shardCount));
+    }
+
+    /**
+     * Indica si el email ya pertenece a algún usuario de cualquier shard (solo con sharding)
+     */
+    public boolean isEmailTaken(String email) {
+        return shardCount > 1 && directory.getObject().find(email).isPresent();
+    }
+
+    /**
+     * Apunta el email del usuario en el directorio cuando se confirma la transacción
+     */
+    public void registerUser(String email, Long userId) {
+        if (shardCount == 1) {
+            return;
+        }
+        Runnable register = () -> directory.getObject().register(email, userId, shardOfId(userId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    register.run();
+                }
+            });
+        } else {
+            register.run();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (shardCount > 1) {
+            directory.getObject().removeUser(event.userId());
+        }
+    }
+
+    /**
+     * Ejecuta la consulta en todos los shards en paralelo, cada una en su transacción de solo lectura
+     * Devuelve los resultados en orden de shard.
+     */
+    public <T> List<T> onEveryShard(Supplier<T> query) {
+        if (shardCount == 1) {
+            return Collections.singletonList(query.get());
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> ShardContext.callOn(target,
+                () -> readOnlyTransaction.execute(status -> query.get())), executor));
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Ejecuta la tarea en cada shard, uno detrás de otro y en este hilo
+     */
+    public void forEachShard(Runnable task) {
+        if (shardCount == 1) {
+            task.run();
+            return;
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            ShardContext.runOn(shard, task);
+        }
+    }
+
+    /**
+     * Página global a partir de las páginas de cada shard (scatter-gather)
+     * Cada shard devuelve sus primeras offset + size filas con el mismo orden, se mezclan
+     * y se corta la página pedida; el total es la suma de los totales. El coste crece con
+     * el número de página, así que conviene ordenar y no paginar muy lejos.
+     */
+    public <T> Page<T> mergePages(Pageable pageable, Function<Pageable, Page<T>> query) {
+        if (shardCount == 1) {
+            return query.apply(pageable);
+        }
+        Pageable shardPageable = pageable.isPaged()
+            ? PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize()),
+                pageable.getSort())
+            : pageable;
+        List<Page<T>> pages = onEveryShard(() -> query.apply(shardPageable));
+
+        List<T> merged = new ArrayList<>();
+        long total = 0;
+        for (Page<T> page : pages) {
+            merged.addAll(page.getContent());
+            total += page.getTotalElements();
+        }
+        merged.sort(comparator(pageable.getSort()));
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(merged, pageable, total);
+        }
+        int from = (int) Math.min(merged.size(), pageable.getOffset());
+        int to = Math.min(merged.size(), from + pageable.getPageSize());
+        return new PageImpl<>(new ArrayList<>(merged.subList(from, to)), pageable, total);
+    }
+
+    /**
+     * Comparador equivalente al orden de la consulta, aplicado a las propiedades de los DTO
+     * Las propiedades que el DTO no tiene se ignoran; los nulos van al final.
+     */
+    static <T> Comparator<T> comparator(Sort sort) {
+        Comparator<T> result = (first, second) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<T> byProperty = (first, second) ->
+                compareValues(property(first, order.getProperty()), property(second, order.getProperty()),
+                    order.isAscending());
+            result = result.thenComparing(byProperty);
+        }
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object first, Object second, boolean ascending) {
+        if (first == null || second == null) {
+            return first == null ? (second == null ? 0 : 1) : -1;
+        }
+        int comparison = ((Comparable) first).compareTo(second);
+        return ascending ? comparison : -comparison;
+    }
+
+    private static Object property(Object bean, String name) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(bean);
+        return wrapper.isReadableProperty(name) ? wrapper.getPropertyValue(name) : null;
+    }
+
+    /**
+     * Shard de un email nuevo: CRC32 del email en minúsculas, estable entre ejecuciones y JVMs
+     */
+    static int placement(String email, int shardCount) {
+        CRC32 crc = new CRC32();
+        crc.update(email.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % shardCount);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.expense_manager.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Datasource que entrega conexiones del shard asignado al hilo (ShardContext)
+ * Debe envolverse en un LazyConnectionDataSourceProxy: la conexión se pide al ejecutar
+ * la primera sentencia, de modo que basta con fijar el shard antes de esa sentencia
+ * aunque la transacción ya se haya abierto.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ShardRoutingDataSource(ShardDataSources shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : 0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.expense_manager.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.DelayedDropAction;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aplica spring.jpa.hibernate.ddl-auto en todos los shards, no solo en el primero
+ * Hibernate solo gestiona el esquema de la conexión por defecto; con sharding su acción
+ * se desactiva (ShardingConfig) y aquí se repite la configurada en cada shard. Después
+ * se alinean las identidades para que los ids codifiquen el shard.
+ */
+@Slf4j
+public class ShardSchemaIntegrator implements Integrator {
+
+    private final ShardDataSources shards;
+    private final Object action;
+    private final List<ShardDropAction> dropActions = new ArrayList<>();
+    private ServiceRegistry serviceRegistry;
+
+    public ShardSchemaIntegrator(ShardDataSources shards, Object action) {
+        this.shards = shards;
+        this.action = action;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        serviceRegistry = bootstrapContext.getServiceRegistry();
+        Map<String, Object> settings = new HashMap<>(
+            serviceRegistry.requireService(ConfigurationService.class).getSettings());
+        settings.put(AvailableSettings.HBM2DDL_AUTO, action);
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int target = shard;
+            ShardContext.runOn(shard, () -> SchemaManagementToolCoordinator.process(metadata, serviceRegistry,
+                settings, drop -> dropActions.add(new ShardDropAction(target, drop))));
+        }
+        log.info("Esquema ({}) aplicado en {} shards", action, shards.size());
+        shards.alignIdentities();
+    }
+
+    /**
+     * Con create-drop, borra el esquema de cada shard al cerrar
+     */
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry registry) {
+        for (ShardDropAction drop : dropActions) {
+            ShardContext.runOn(drop.shard(), () -> drop.action().perform(serviceRegistry));
+        }
+    }
+
+    private record ShardDropAction(int shard, DelayedDropAction action) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.expense_manager.shard;
+
+import lombok.Data;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuración del modo con varias bases de datos (app.sharding.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    /**
+     * Con true usuarios y gastos se reparten entre los shards y spring.datasource.* no se usa
+     */
+    private boolean enabled;
+
+    /**
+     * Conexión de cada shard; la posición en la lista es su número y no puede cambiar
+     * una vez haya datos (los ids se generan en función de ella)
+     */
+    private List<DataSourceProperties> shards = new ArrayList<>();
+
+    /**
+     * Conexiones máximas del pool de cada shard
+     */
+    private int poolSize = 10;
+
+    /**
+     * Entradas del directorio email -> shard que se mantienen en memoria
+     */
+    private long directoryCacheSize = 100_000;
+
+    public int shardCount() {
+        return enabled ? shards.size() : 1;
+    }
+}
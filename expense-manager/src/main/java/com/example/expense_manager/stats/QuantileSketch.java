@@ -0,0 +1,243 @@
+package com.example.expense_manager.stats;
+
+import java.util.Arrays;
+
+/**
+ * Sketch de cuantiles mergeable (variante KLL)
+ * Mantiene una jerarquía de compactadores: cada elemento del nivel h pesa 2^h.
+ * La capacidad de los niveles decrece geométricamente hacia abajo, por lo que
+ * la memoria queda acotada (~3k valores) sin importar cuántos datos se procesen.
+ * No es thread-safe: se construye en un solo hilo y luego se trata como inmutable.
+ */
+public class QuantileSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final int MIN_LEVEL_CAPACITY = 8;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private int numLevels = 1;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    // Alterna qué mitad de cada par se promueve al compactar
+    private boolean coin;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    public QuantileSketch(int k) {
+        if (k < MIN_LEVEL_CAPACITY) {
+            throw new IllegalArgumentException("k debe ser al menos " + MIN_LEVEL_CAPACITY);
+        }
+        this.k = k;
+        this.levels[0] = new double[MIN_LEVEL_CAPACITY];
+    }
+
+    /**
+     * Agrega un valor al sketch
+     */
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+        append(0, value);
+        compressIfNeeded();
+    }
+
+    /**
+     * Combina otro sketch dentro de este (el otro no se modifica)
+     */
+    public void merge(QuantileSketch other) {
+        if (other == null || other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        count += other.count;
+        for (int level = 0; level < other.numLevels; level++) {
+            for (int i = 0; i < other.sizes[level]; i++) {
+                append(level, other.levels[level][i]);
+            }
+        }
+        compressIfNeeded();
+    }
+
+    /**
+     * Devuelve el valor aproximado del cuantil q (0.0 a 1.0)
+     */
+    public double getQuantile(double q) {
+        if (q < 0.0 || q > 1.0) {
+            throw new IllegalArgumentException("El cuantil debe estar entre 0 y 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0.0) {
+            return min;
+        }
+        if (q == 1.0) {
+            return max;
+        }
+
+        int retained = retained();
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int n = 0;
+        for (int level = 0; level < numLevels; level++) {
+            for (int i = 0; i < sizes[level]; i++) {
+                values[n] = levels[level][i];
+                weights[n] = 1L << level;
+                n++;
+            }
+        }
+        sortByValue(values, weights);
+
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight += weight;
+        }
+        double target = q * totalWeight;
+        long cumulative = 0;
+        for (int i = 0; i < n; i++) {
+            cumulative += weights[i];
+            if (cumulative >= target) {
+                return values[i];
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Número de valores retenidos en memoria
+     */
+    public int retained() {
+        int total = 0;
+        for (int level = 0; level < numLevels; level++) {
+            total += sizes[level];
+        }
+        return total;
+    }
+
+    private void append(int level, double value) {
+        ensureLevel(level);
+        double[] buffer = levels[level];
+        if (sizes[level] == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            levels[level] = buffer;
+        }
+        buffer[sizes[level]++] = value;
+    }
+
+    private void ensureLevel(int level) {
+        if (level < numLevels) {
+            return;
+        }
+        if (level >= levels.length) {
+            levels = Arrays.copyOf(levels, level + 1);
+            sizes = Arrays.copyOf(sizes, level + 1);
+        }
+        for (int i = numLevels; i <= level; i++) {
+            levels[i] = new double[MIN_LEVEL_CAPACITY];
+            sizes[i] = 0;
+        }
+        numLevels = level + 1;
+    }
+
+    private int capacity(int level) {
+        int depth = numLevels - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private int totalCapacity() {
+        int total = 0;
+        for (int level = 0; level < numLevels; level++) {
+            total += capacity(level);
+        }
+        return total;
+    }
+
+    private void compressIfNeeded() {
+        while (retained() > totalCapacity()) {
+            for (int level = 0; level < numLevels; level++) {
+                if (sizes[level] > capacity(level)) {
+                    compact(level);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Ordena el nivel y promueve uno de cada dos elementos al nivel superior
+     */
+    private void compact(int level) {
+        ensureLevel(level + 1);
+        double[] buffer = levels[level];
+        int size = sizes[level];
+        Arrays.sort(buffer, 0, size);
+
+        int pairs = size - (size % 2);
+        int offset = coin ? 1 : 0;
+        coin = !coin;
+        for (int i = offset; i < pairs; i += 2) {
+            append(level + 1, buffer[i]);
+        }
+
+        if (size % 2 == 1) {
+            buffer[0] = buffer[size - 1];
+            sizes[level] = 1;
+        } else {
+            sizes[level] = 0;
+        }
+    }
+
+    private static void sortByValue(double[] values, long[] weights) {
+        Integer[] order = new Integer[values.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        double[] sortedValues = new double[values.length];
+        long[] sortedWeights = new long[weights.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedValues[i] = values[order[i]];
+            sortedWeights[i] = weights[order[i]];
+        }
+        System.arraycopy(sortedValues, 0, values, 0, values.length);
+        System.arraycopy(sortedWeights, 0, weights, 0, weights.length);
+    }
+}
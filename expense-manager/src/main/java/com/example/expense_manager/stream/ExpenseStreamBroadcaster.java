@@ -0,0 +1,376 @@
+package com.example.expense_manager.stream;
+
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.dto.ExpenseStreamNotice;
+import com.example.expense_manager.event.DomainEvent;
+import com.example.expense_manager.event.ExpenseCreatedEvent;
+import com.example.expense_manager.event.ExpenseDeletedEvent;
+import com.example.expense_manager.event.ExpenseUpdatedEvent;
+import com.example.expense_manager.event.ExpensesArchivedEvent;
+import com.example.expense_manager.event.ExpensesBulkChangedEvent;
+import com.example.expense_manager.event.UserDeletedEvent;
+import com.example.expense_manager.exeption.ResourceNotFoundException;
+import com.example.expense_manager.exeption.StreamCapacityException;
+import com.example.expense_manager.service.ExpenseService;
+import com.example.expense_manager.service.ExpenseSummaryService;
+import com.example.expense_manager.shard.ShardContext;
+import com.example.expense_manager.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Reparte los cambios de gastos confirmados entre las conexiones SSE abiertas (/api/expenses/my/stream)
+ * Las conexiones son peticiones asíncronas del servlet: abiertas y en reposo no ocupan ningún hilo.
+ * Los eventos de dominio se acumulan durante una ventana corta y un único hilo prepara los
+ * mensajes (el gasto y los totales del año, estos una vez por usuario y ventana); unos pocos
+ * hilos de envío los escriben en el búfer acotado de cada conexión. Si se acumulan más
+ * eventos de los previstos, los usuarios afectados reciben un aviso de resync en su lugar.
+ * Solo ve las escrituras de esta instancia, igual que el bus de invalidación.
+ */
+@Slf4j
+@Component
+public class ExpenseStreamBroadcaster {
+
+    static final String EVENT_CREATED = "expense-created";
+    static final String EVENT_UPDATED = "expense-updated";
+    static final String EVENT_DELETED = "expense-deleted";
+    static final String EVENT_CHANGED = "expenses-changed";
+    static final String EVENT_TOTALS = "totals";
+    static final String EVENT_RESYNC = "resync";
+
+    private final ExpenseService expenseService;
+    private final ExpenseSummaryService summaryService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate primaryTransaction;
+
+    private final long timeoutMs;
+    private final long batchWindowMs;
+    private final int maxConnections;
+    private final int maxConnectionsPerUser;
+    private final int bufferSize;
+    private final int maxPendingEvents;
+
+    private final Map<Long, List<ExpenseStreamConnection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final Counter droppedConnections;
+
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService senders;
+
+    private final Object lock = new Object();
+    private List<DomainEvent> pendingEvents = new ArrayList<>();
+    private boolean overflowed;
+    private boolean flushScheduled;
+
+    public ExpenseStreamBroadcaster(ExpenseService expenseService,
+                                    ExpenseSummaryService summaryService,
+                                    ShardRouter shardRouter,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.stream.timeout-ms:1800000}") long timeoutMs,
+                                    @Value("${app.stream.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+                                    @Value("${app.stream.batch-window-ms:100}") long batchWindowMs,
+                                    @Value("${app.stream.max-connections:10000}") int maxConnections,
+                                    @Value("${app.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                    @Value("${app.stream.buffer-size:100}") int bufferSize,
+                                    @Value("${app.stream.max-pending-events:10000}") int maxPendingEvents,
+                                    @Value("${app.stream.sender-threads:4}") int senderThreads) {
+        this.expenseService = expenseService;
+        this.summaryService = summaryService;
+        this.shardRouter = shardRouter;
+        // Transacción de escritura: se lee del primario aunque haya réplica, justo tras el commit
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.timeoutMs = timeoutMs;
+        this.batchWindowMs = batchWindowMs;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.bufferSize = bufferSize;
+        this.maxPendingEvents = maxPendingEvents;
+
+        meterRegistry.gauge("expenses.stream.connections", connectionCount);
+        this.droppedConnections = Counter.builder("expenses.stream.dropped")
+            .description("Conexiones SSE cerradas por no leer a tiempo")
+            .register(meterRegistry);
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "expense-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs,
+            TimeUnit.MILLISECONDS);
+        this.dispatcher = scheduler;
+        AtomicInteger senderIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "expense-stream-send-" + senderIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Abre una conexión para el usuario y le envía sus totales actuales
+     * Con demasiadas conexiones del mismo usuario se cierra la más antigua.
+     */
+    public SseEmitter subscribe(Long userId) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            throw new StreamCapacityException("Demasiadas conexiones abiertas, inténtalo más tarde");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        ExpenseStreamConnection connection = new ExpenseStreamConnection(userId, emitter, bufferSize);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(error -> remove(connection));
+
+        List<ExpenseStreamConnection> userConnections =
+            connections.compute(userId, (id, existing) -> {
+                List<ExpenseStreamConnection> list = existing != null ? existing : new CopyOnWriteArrayList<>();
+                list.add(connection);
+                return list;
+            });
+        while (userConnections.size() > maxConnectionsPerUser) {
+            ExpenseStreamConnection oldest = userConnections.get(0);
+            remove(oldest);
+            oldest.close();
+        }
+
+        // Fuera del hilo de la petición: con open-in-view, la conexión JDBC usada en él quedaría
+        // retenida mientras el stream siga abierto
+        dispatcher.execute(() -> {
+            try {
+                deliverTotals(connection, totals(userId));
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron enviar los totales iniciales al usuario {}", userId, e);
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Encola un evento confirmado si algún usuario afectado tiene conexiones abiertas
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        if (connections.isEmpty()
+                || (!event.affectsAllUsers() && event.affectedUserIds().stream().noneMatch(this::isConnected))) {
+            return;
+        }
+        synchronized (lock) {
+            if (pendingEvents.size() < maxPendingEvents) {
+                pendingEvents.add(event);
+            } else {
+                overflowed = true;
+            }
+            if (!flushScheduled) {
+                flushScheduled = true;
+                dispatcher.schedule(this::flush, batchWindowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Convierte los eventos acumulados en mensajes y los entrega
+     */
+    void flush() {
+        List<DomainEvent> events;
+        boolean resync;
+        synchronized (lock) {
+            flushScheduled = false;
+            events = pendingEvents;
+            resync = overflowed;
+            pendingEvents = new ArrayList<>();
+            overflowed = false;
+        }
+        try {
+            dispatch(events, resync);
+        } catch (RuntimeException e) {
+            log.warn("Fallo al repartir {} eventos por el stream de gastos", events.size(), e);
+        }
+    }
+
+    private void dispatch(List<DomainEvent> events, boolean resync) {
+        Set<Long> totalsFor = new LinkedHashSet<>();
+        Set<Long> resyncFor = new LinkedHashSet<>();
+        for (DomainEvent event : events) {
+            if (event.affectsAllUsers()) {
+                totalsFor.addAll(connections.keySet());
+            } else {
+                event.affectedUserIds().stream().filter(this::isConnected).forEach(totalsFor::add);
+            }
+            if (resync) {
+                continue;
+            }
+            if (event instanceof ExpenseCreatedEvent created) {
+                sendExpense(created.userId(), created.expenseId(), EVENT_CREATED);
+            } else if (event instanceof ExpenseUpdatedEvent updated) {
+                if (!updated.previousUserId().equals(updated.userId())) {
+                    send(updated.previousUserId(), EVENT_DELETED, ExpenseStreamNotice.deleted(updated.expenseId()));
+                }
+                sendExpense(updated.userId(), updated.expenseId(), EVENT_UPDATED);
+            } else if (event instanceof ExpenseDeletedEvent deleted) {
+                send(deleted.userId(), EVENT_DELETED, ExpenseStreamNotice.deleted(deleted.expenseId()));
+            } else if (event instanceof ExpensesBulkChangedEvent bulk) {
+                send(bulk.userId(), EVENT_CHANGED, ExpenseStreamNotice.changed(bulk.startDate(), bulk.endDate()));
+            } else if (event instanceof ExpensesArchivedEvent archived && !archived.months().isEmpty()) {
+                ExpenseStreamNotice notice = ExpenseStreamNotice.changed(
+                    Collections.min(archived.months()).atDay(1), Collections.max(archived.months()).atEndOfMonth());
+                connections.keySet().forEach(userId -> send(userId, EVENT_CHANGED, notice));
+            } else if (event instanceof UserDeletedEvent deleted) {
+                totalsFor.remove(deleted.userId());
+                closeAll(deleted.userId());
+            }
+            // Usuario actualizado: solo cambian los totales (la moneda base)
+        }
+        if (resync) {
+            // Demasiados eventos: los clientes afectados recargan en lugar de recibir cada cambio
+            totalsFor.forEach(userId -> send(userId, EVENT_RESYNC, ExpenseStreamNotice.changed(null, null)));
+        }
+        for (Long userId : totalsFor) {
+            List<ExpenseStreamConnection> userConnections = connections.get(userId);
+            if (userConnections == null) {
+                continue;
+            }
+            Object totals;
+            try {
+                totals = totals(userId);
+            } catch (ResourceNotFoundException e) {
+                continue;
+            }
+            userConnections.forEach(connection -> deliverTotals(connection, totals));
+        }
+    }
+
+    private void sendExpense(Long userId, Long expenseId, String name) {
+        if (!isConnected(userId)) {
+            return;
+        }
+        ExpenseResponse expense;
+        try {
+            expense = onPrimary(userId, () -> expenseService.getExpenseById(expenseId));
+        } catch (ResourceNotFoundException e) {
+            // Ya eliminado: llegará (o ha llegado) su evento de borrado
+            return;
+        }
+        send(userId, name, expense);
+    }
+
+    private Object totals(Long userId) {
+        int year = LocalDate.now().getYear();
+        return onPrimary(userId, () -> summaryService.getYearSummary(userId, year));
+    }
+
+    private <T> T onPrimary(Long userId, Supplier<T> query) {
+        return ShardContext.callOn(shardRouter.shardOfId(userId),
+            () -> primaryTransaction.execute(status -> query.get()));
+    }
+
+    private void send(Long userId, String name, Object data) {
+        List<ExpenseStreamConnection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+        for (ExpenseStreamConnection connection : userConnections) {
+            handle(connection, connection.offer(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON)));
+        }
+    }
+
+    private void deliverTotals(ExpenseStreamConnection connection, Object totals) {
+        handle(connection, connection.offerTotals(
+            SseEmitter.event().name(EVENT_TOTALS).data(totals, MediaType.APPLICATION_JSON)));
+    }
+
+    /**
+     * Envía un comentario a las conexiones en reposo para que los proxies no las corten
+     */
+    void heartbeat() {
+        for (List<ExpenseStreamConnection> userConnections : connections.values()) {
+            for (ExpenseStreamConnection connection : userConnections) {
+                handle(connection, connection.offerHeartbeat(SseEmitter.event().comment("ping")));
+            }
+        }
+    }
+
+    private void handle(ExpenseStreamConnection connection, ExpenseStreamConnection.Outcome outcome) {
+        switch (outcome) {
+            case SCHEDULE -> senders.execute(connection::drain);
+            case OVERFLOW -> {
+                log.debug("Stream del usuario {} cerrado por no leer a tiempo", connection.userId());
+                droppedConnections.increment();
+                remove(connection);
+                connection.close();
+            }
+            case QUEUED -> {
+            }
+        }
+    }
+
+    private boolean isConnected(Long userId) {
+        return userId != null && connections.containsKey(userId);
+    }
+
+    private void closeAll(Long userId) {
+        List<ExpenseStreamConnection> userConnections = connections.get(userId);
+        if (userConnections != null) {
+            userConnections.forEach(connection -> {
+                remove(connection);
+                connection.close();
+            });
+        }
+    }
+
+    private void remove(ExpenseStreamConnection connection) {
+        connections.computeIfPresent(connection.userId(), (id, list) -> {
+            if (list.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * Conexiones abiertas de un usuario
+     */
+    int connectionCount(Long userId) {
+        List<ExpenseStreamConnection> userConnections = connections.get(userId);
+        return userConnections != null ? userConnections.size() : 0;
+    }
+
+    /**
+     * Cierra las conexiones abiertas y detiene los hilos del stream
+     */
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        connections.values().forEach(list -> list.forEach(ExpenseStreamConnection::close));
+        connections.clear();
+        senders.shutdownNow();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.expense_manager.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Conexión SSE abierta por un usuario, con su propio búfer de eventos pendientes
+ * Los eventos se encolan sin bloquear y un hilo de envío los escribe de uno en uno;
+ * como mucho hay un vaciado en curso por conexión. Los totales no se acumulan: un
+ * total nuevo sustituye al pendiente. Si el cliente no lee y el búfer se llena, la
+ * conexión se cierra (el cliente se reconecta y vuelve a cargar).
+ */
+@Slf4j
+class ExpenseStreamConnection {
+
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final int bufferSize;
+
+    private final Deque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+    private SseEmitter.SseEventBuilder pendingTotals;
+    private boolean draining;
+    private volatile boolean closed;
+
+    ExpenseStreamConnection(Long userId, SseEmitter emitter, int bufferSize) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.bufferSize = bufferSize;
+    }
+
+    Long userId() {
+        return userId;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Encola un evento
+     *
+     * @return Outcome.SCHEDULE si hay que lanzar el vaciado, OVERFLOW si el búfer está lleno
+     */
+    synchronized Outcome offer(SseEmitter.SseEventBuilder event) {
+        if (closed) {
+            return Outcome.QUEUED;
+        }
+        if (pending.size() >= bufferSize) {
+            return Outcome.OVERFLOW;
+        }
+        pending.add(event);
+        return schedule();
+    }
+
+    /**
+     * Sustituye los totales pendientes de enviar por los nuevos
+     */
+    synchronized Outcome offerTotals(SseEmitter.SseEventBuilder event) {
+        if (closed) {
+            return Outcome.QUEUED;
+        }
+        pendingTotals = event;
+        return schedule();
+    }
+
+    /**
+     * Encola un latido solo si no hay nada pendiente: con eventos en cola no hace falta
+     */
+    synchronized Outcome offerHeartbeat(SseEmitter.SseEventBuilder event) {
+        if (closed || draining || !pending.isEmpty() || pendingTotals != null) {
+            return Outcome.QUEUED;
+        }
+        pending.add(event);
+        return schedule();
+    }
+
+    /**
+     * Escribe los eventos pendientes; se ejecuta en un hilo de envío
+     */
+    void drain() {
+        while (true) {
+            SseEmitter.SseEventBuilder next;
+            synchronized (this) {
+                next = pending.poll();
+                if (next == null) {
+                    next = pendingTotals;
+                    pendingTotals = null;
+                }
+                if (next == null || closed) {
+                    draining = false;
+                    return;
+                }
+            }
+            try {
+                emitter.send(next);
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado: el contenedor avisa por onError/onCompletion
+                log.debug("No se pudo enviar al stream del usuario {}: {}", userId, e.getMessage());
+                close();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Cierra la conexión y descarta lo pendiente
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+            pendingTotals = null;
+        }
+        try {
+            emitter.complete();
+        } catch (IllegalStateException e) {
+            // Ya estaba cerrada por el contenedor
+        }
+    }
+
+    private Outcome schedule() {
+        if (draining) {
+            return Outcome.QUEUED;
+        }
+        draining = true;
+        return Outcome.SCHEDULE;
+    }
+
+    enum Outcome {
+        QUEUED, SCHEDULE, OVERFLOW
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.expense_manager.timing;
+
+import java.util.Locale;
+
+/**
+ * Tiempos por fase de la petición en curso
+ * Solo existe mientras ServerTimingFilter mide la petición; fuera de ella
+ * start() devuelve 0 y stop() no hace nada, así que medir cuesta una lectura
+ * del ThreadLocal cuando está desactivado.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final TimingPhase[] PHASES = TimingPhase.values();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] counts = new int[PHASES.length];
+
+    private RequestTimings() {
+    }
+
+    /**
+     * Empieza a medir la petición del hilo actual
+     */
+    static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * Deja de medir en el hilo actual
+     */
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Marca de inicio de una fase (0 si la petición no se está midiendo)
+     */
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Acumula el tiempo transcurrido desde start() en la fase indicada
+     */
+    public static void stop(TimingPhase phase, long start) {
+        if (start == 0L) {
+            return;
+        }
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.nanos[phase.ordinal()] += System.nanoTime() - start;
+            timings.counts[phase.ordinal()]++;
+        }
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    long nanos(TimingPhase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    int count(TimingPhase phase) {
+        return counts[phase.ordinal()];
+    }
+
+    /**
+     * Valor de la cabecera Server-Timing, p. ej. {@code jwt;dur=0.210, db;dur=3.400;desc="2 llamadas", total;dur=5.100}
+     */
+    String toHeader(long totalNanos) {
+        StringBuilder header = new StringBuilder(128);
+        for (TimingPhase phase : PHASES) {
+            int count = counts[phase.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            header.append(phase.getMetricName()).append(";dur=").append(millis(nanos[phase.ordinal()]));
+            if (count > 1) {
+                header.append(";desc=\"").append(count).append(" llamadas\"");
+            }
+            header.append(", ");
+        }
+        return header.append("total;dur=").append(millis(totalNanos)).toString();
+    }
+
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
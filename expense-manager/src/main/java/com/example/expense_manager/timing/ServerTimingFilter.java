@@ -0,0 +1,89 @@
+package com.example.expense_manager.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mide por fases las peticiones que lo piden (cabecera X-Server-Timing) o que
+ * salen en el muestreo, y devuelve el desglose en la cabecera Server-Timing
+ * La cabecera X-Server-Timing solo se atiende con app.server-timing.allow-opt-in=true:
+ * el filtro se ejecuta antes de la autenticación y no puede limitarla a administradores.
+ * Solo en esas peticiones se almacena la respuesta en memoria, para poder añadir
+ * la cabecera después de serializar el cuerpo; el resto pasa sin coste añadido.
+ * Las peticiones medidas que superan el umbral van al registro de peticiones lentas.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String OPT_IN_HEADER = "X-Server-Timing";
+
+    private final SlowRequestLog slowRequestLog;
+    private final boolean enabled;
+    private final boolean allowOptIn;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public ServerTimingFilter(SlowRequestLog slowRequestLog,
+                              @Value("${app.server-timing.enabled:true}") boolean enabled,
+                              @Value("${app.server-timing.allow-opt-in:false}") boolean allowOptIn,
+                              @Value("${app.server-timing.sample-rate:0.0}") double sampleRate,
+                              @Value("${app.server-timing.slow-threshold-ms:500}") long slowThresholdMs) {
+        this.slowRequestLog = slowRequestLog;
+        this.enabled = enabled;
+        this.allowOptIn = allowOptIn;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThresholdMs * 1_000_000L;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        // Los flujos de eventos no pueden almacenarse hasta el final
+        String accept = request.getHeader("Accept");
+        if (accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+            return true;
+        }
+        return !(allowOptIn && request.getHeader(OPT_IN_HEADER) != null)
+            && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            RequestTimings.end();
+            long total = timings.elapsedNanos();
+            wrapper.setHeader("Server-Timing", timings.toHeader(total));
+            wrapper.copyBodyToResponse();
+            if (total > slowThresholdNanos) {
+                slowRequestLog.record(request.getMethod() + " " + endpoint(request), timings, total);
+            }
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.expense_manager.timing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro agregado de peticiones lentas
+ * Acumula por endpoint las peticiones medidas que superan el umbral y escribe
+ * periódicamente una línea por endpoint con el desglose medio por fase, en lugar
+ * de una línea por petición.
+ */
+@Slf4j
+@Component
+public class SlowRequestLog {
+
+    private static final TimingPhase[] PHASES = TimingPhase.values();
+
+    private final Map<String, Aggregate> aggregates = new ConcurrentHashMap<>();
+
+    /**
+     * Añade una petición lenta al agregado de su endpoint
+     */
+    void record(String endpoint, RequestTimings timings, long totalNanos) {
+        aggregates.computeIfAbsent(endpoint, key -> new Aggregate()).add(timings, totalNanos);
+    }
+
+    /**
+     * Escribe y reinicia los agregados del intervalo
+     */
+    @Scheduled(fixedDelayString = "${app.server-timing.slow-log-interval-ms:60000}")
+    public void flush() {
+        for (String endpoint : aggregates.keySet()) {
+            Aggregate aggregate = aggregates.remove(endpoint);
+            if (aggregate != null) {
+                log.warn("Peticiones lentas en {}: {}", endpoint, aggregate.describe());
+            }
+        }
+    }
+
+    private static final class Aggregate {
+        private int count;
+        private long totalNanos;
+        private long maxNanos;
+        private final long[] phaseNanos = new long[PHASES.length];
+
+        synchronized void add(RequestTimings timings, long total) {
+            count++;
+            totalNanos += total;
+            maxNanos = Math.max(maxNanos, total);
+            for (TimingPhase phase : PHASES) {
+                phaseNanos[phase.ordinal()] += timings.nanos(phase);
+            }
+        }
+
+        synchronized String describe() {
+            StringBuilder text = new StringBuilder()
+                .append(count).append(" peticiones, media ").append(RequestTimings.millis(totalNanos / count))
+                .append(" ms, máximo ").append(RequestTimings.millis(maxNanos)).append(" ms");
+            for (TimingPhase phase : PHASES) {
+                long nanos = phaseNanos[phase.ordinal()];
+                if (nanos > 0) {
+                    text.append(", ").append(phase.getDescription().toLowerCase())
+                        .append(' ').append(RequestTimings.millis(nanos / count)).append(" ms");
+                }
+            }
+            return text.toString();
+        }
+    }
+}
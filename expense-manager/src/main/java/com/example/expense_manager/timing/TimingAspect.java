@@ -0,0 +1,35 @@
+package com.example.expense_manager.timing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mide las llamadas a repositorios y las comprobaciones de propiedad de @PreAuthorize
+ * Si la petición no se está midiendo solo cuesta una lectura del ThreadLocal.
+ */
+@Aspect
+@Component
+public class TimingAspect {
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = RequestTimings.start();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTimings.stop(TimingPhase.DB, start);
+        }
+    }
+
+    @Around("execution(boolean com.example.expense_manager.service.*.isOwner(..))")
+    public Object timeOwnershipCheck(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = RequestTimings.start();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTimings.stop(TimingPhase.AUTHZ, start);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.expense_manager.timing;
+
+/**
+ * Fases de una petición que se miden para la cabecera Server-Timing
+ * Las fases pueden solaparse: la comprobación de propiedad incluye su consulta.
+ */
+public enum TimingPhase {
+    JWT("jwt", "Validación del token"),
+    USER("user", "Carga del usuario"),
+    AUTHZ("authz", "Comprobación de propiedad"),
+    DB("db", "Repositorios"),
+    JSON("json", "Serialización JSON"),
+    BINARY("binary", "Serialización binaria (CBOR/Smile)");
+
+    private final String metricName;
+    private final String description;
+
+    TimingPhase(String metricName, String description) {
+        this.metricName = metricName;
+        this.description = description;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.expense_manager.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indicador de salud "warmUp", incluido en el grupo de readiness
+ * Está fuera de servicio mientras el calentamiento no ha terminado y, una vez
+ * terminado, informa de su duración y del resultado de cada paso. Un
+ * calentamiento parcial no bloquea el tráfico: solo queda reflejado en el detalle.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private final WarmUpRunner warmUpRunner;
+
+    @Override
+    public Health health() {
+        WarmUpReport report = warmUpRunner.getReport();
+        Health.Builder builder = report.finished() ? Health.up() : Health.outOfService();
+        builder.withDetail("status", report.status());
+        if (report.startedAt() != null) {
+            builder.withDetail("startedAt", report.startedAt().toString());
+        }
+        if (report.status() != WarmUpReport.Status.RUNNING && !report.steps().isEmpty()) {
+            builder.withDetail("durationMs", report.durationMs());
+            builder.withDetail("steps", report.steps());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.expense_manager.warmup;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Resultado del calentamiento: estado, duración total y detalle de cada paso
+ */
+public record WarmUpReport(Status status, Instant startedAt, long durationMs, List<StepResult> steps) {
+
+    public enum Status {
+        /** Aún no ha empezado */
+        PENDING,
+        /** En curso: la aplicación todavía no acepta tráfico */
+        RUNNING,
+        /** Todos los pasos terminaron sin errores */
+        COMPLETED,
+        /** Algún paso falló o se cortó por tiempo; la aplicación arranca igualmente */
+        PARTIAL,
+        /** Desactivado por configuración */
+        DISABLED
+    }
+
+    /**
+     * Un paso del calentamiento: iteraciones completadas de las previstas y error, si lo hubo
+     */
+    public record StepResult(String name, int iterations, int plannedIterations, long durationMs, String error) {
+
+        public boolean successful() {
+            return error == null && iterations == plannedIterations;
+        }
+    }
+
+    static WarmUpReport pending() {
+        return new WarmUpReport(Status.PENDING, null, 0, List.of());
+    }
+
+    static WarmUpReport disabled() {
+        return new WarmUpReport(Status.DISABLED, null, 0, List.of());
+    }
+
+    public boolean finished() {
+        return status != Status.PENDING && status != Status.RUNNING;
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.expense_manager.warmup;
+
+import com.example.expense_manager.dto.ExpenseRequest;
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.dto.PageResponse;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.repository.ExpenseRepository;
+import com.example.expense_manager.repository.UserRepository;
+import com.example.expense_manager.repository.projection.ExpenseAmountView;
+import com.example.expense_manager.security.JwtTokenProvider;
+import com.example.expense_manager.service.ExpenseStatisticsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Calentamiento de la aplicación antes de aceptar tráfico
+ * Los ApplicationRunner se ejecutan antes de que Spring publique la disponibilidad
+ * ACCEPTING_TRAFFIC, así que la sonda de readiness no se pone en verde hasta que
+ * termina: abre las conexiones del pool, ejecuta cada forma de consulta de
+ * ExpenseRepository y UserRepository (planes de Hibernate y JIT), firma y verifica
+ * JWT, serializa DTOs y, opcionalmente, precarga las cachés de los usuarios activos.
+ * Un paso que falla no impide el arranque; el resultado queda en el log, en la
+ * métrica app.warmup y en el indicador de salud warmUp.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final String WARMUP_EMAIL = "warmup@expense-manager.local";
+    // Usuario inexistente: las sentencias de modificación no tocan datos (y además se revierten)
+    private static final long NO_USER = -1L;
+
+    private final DataSource dataSource;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate rollbackTransaction;
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final ObjectMapper objectMapper;
+    private final ExpenseStatisticsService statisticsService;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final int connections;
+    private final int queryIterations;
+    private final int iterations;
+    private final long maxDurationMs;
+    private final boolean preloadCaches;
+    private final int preloadDays;
+    private final int preloadUsers;
+
+    private volatile WarmUpReport report;
+
+    public WarmUpRunner(DataSource dataSource,
+                        PlatformTransactionManager transactionManager,
+                        ExpenseRepository expenseRepository,
+                        UserRepository userRepository,
+                        JwtTokenProvider jwtTokenProvider,
+                        ObjectMapper objectMapper,
+                        ExpenseStatisticsService statisticsService,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.warmup.enabled:true}") boolean enabled,
+                        @Value("${app.warmup.connections:${spring.datasource.hikari.maximum-pool-size:10}}") int connections,
+                        @Value("${app.warmup.query-iterations:20}") int queryIterations,
+                        @Value("${app.warmup.iterations:1000}") int iterations,
+                        @Value("${app.warmup.max-duration-ms:30000}") long maxDurationMs,
+                        @Value("${app.warmup.preload-caches:false}") boolean preloadCaches,
+                        @Value("${app.warmup.preload-days:7}") int preloadDays,
+                        @Value("${app.warmup.preload-users:100}") int preloadUsers) {
+        this.dataSource = dataSource;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rollbackTransaction = new TransactionTemplate(transactionManager);
+        this.expenseRepository = expenseRepository;
+        this.userRepository = userRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.objectMapper = objectMapper;
+        this.statisticsService = statisticsService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.connections = connections;
+        this.queryIterations = queryIterations;
+        this.iterations = iterations;
+        this.maxDurationMs = maxDurationMs;
+        this.preloadCaches = preloadCaches;
+        this.preloadDays = preloadDays;
+        this.preloadUsers = preloadUsers;
+        this.report = enabled ? WarmUpReport.pending() : WarmUpReport.disabled();
+    }
+
+    /**
+     * Resultado del último calentamiento (PENDING/RUNNING mientras no termina)
+     */
+    public WarmUpReport getReport() {
+        return report;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            log.info("Calentamiento desactivado (app.warmup.enabled=false)");
+            return;
+        }
+        Instant startedAt = Instant.now();
+        report = new WarmUpReport(WarmUpReport.Status.RUNNING, startedAt, 0, List.of());
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+
+        List<WarmUpReport.StepResult> steps = new ArrayList<>();
+        steps.add(runStep("pool", 1, deadline, this::openConnections));
+        steps.add(runStep("queries", queryIterations, deadline, this::exerciseQueries));
+        steps.add(runStep("jwt", iterations, deadline, this::exerciseJwt));
+        List<ExpenseResponse> expenses = sampleResponses();
+        steps.add(runStep("json", iterations, deadline, () -> exerciseJson(expenses)));
+        if (preloadCaches) {
+            steps.add(runStep("caches", 1, deadline, this::preloadCaches));
+        }
+
+        long durationNanos = System.nanoTime() - start;
+        boolean successful = steps.stream().allMatch(WarmUpReport.StepResult::successful);
+        WarmUpReport.Status status = successful ? WarmUpReport.Status.COMPLETED : WarmUpReport.Status.PARTIAL;
+        report = new WarmUpReport(status, startedAt, TimeUnit.NANOSECONDS.toMillis(durationNanos), List.copyOf(steps));
+
+        Timer.builder("app.warmup")
+            .description("Duración del calentamiento previo a la readiness")
+            .tag("step", "total")
+            .tag("outcome", status.name().toLowerCase())
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+        log.info("Calentamiento {} en {} ms: {}", status, report.durationMs(), steps);
+    }
+
+    /**
+     * Ejecuta un paso hasta completar sus iteraciones o agotar el tiempo; los errores se registran, no se propagan
+     */
+    private WarmUpReport.StepResult runStep(String name, int planned, long deadline, WarmUpAction action) {
+        long start = System.nanoTime();
+        int done = 0;
+        String error = null;
+        try {
+            while (done < planned && System.nanoTime() < deadline) {
+                action.run();
+                done++;
+            }
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.warn("Fallo en el paso de calentamiento {}", name, e);
+        }
+        long elapsed = System.nanoTime() - start;
+        WarmUpReport.StepResult result = new WarmUpReport.StepResult(
+            name, done, planned, TimeUnit.NANOSECONDS.toMillis(elapsed), error);
+        Timer.builder("app.warmup")
+            .description("Duración del calentamiento previo a la readiness")
+            .tag("step", name)
+            .tag("outcome", result.successful() ? "completed" : "partial")
+            .register(meterRegistry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    /**
+     * Abre a la vez las conexiones del pool para que las primeras peticiones no paguen el handshake
+     */
+    private void openConnections() throws SQLException {
+        List<Connection> opened = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection connection = dataSource.getConnection();
+                opened.add(connection);
+                // Fuerza la conexión física también detrás de un proxy perezoso (réplica de lectura)
+                connection.isValid(1);
+            }
+        } finally {
+            for (Connection connection : opened) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Usuario real con el que recorrer las consultas de lectura, si ya hay datos
+     */
+    private Sample findSample() {
+        return userRepository.findAll(PageRequest.of(0, 1)).stream()
+            .findFirst()
+            .map(user -> new Sample(user.getId(), user.getEmail()))
+            .orElse(new Sample(NO_USER, WARMUP_EMAIL));
+    }
+
+    private void exerciseQueries() {
+        LocalDate today = LocalDate.now();
+        LocalDate monthAgo = today.minusMonths(1);
+        // Ventana vacía para las consultas que recorren gastos de todos los usuarios
+        LocalDate tomorrow = today.plusDays(1);
+        Pageable page = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "date"));
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Sample sample = findSample();
+            expenseRepository.findAll(page);
+            expenseRepository.findByUserId(sample.userId(), page);
+            expenseRepository.findByUserIdAndAnomalousTrue(sample.userId(), page);
+            expenseRepository.findByUserIdAndDateBetween(sample.userId(), monthAgo, today);
+            expenseRepository.findByDateBetween(tomorrow, tomorrow);
+            try (Stream<ExpenseAmountView> amounts = expenseRepository.streamAmountsByDateBetween(tomorrow, tomorrow)) {
+                amounts.forEach(amount -> { });
+            }
+            expenseRepository.sumDailyTotalsByUserIdAndDateBetween(sample.userId(), monthAgo, today);
+            expenseRepository.findActiveUserEmailsSince(tomorrow, PageRequest.of(0, 1));
+            expenseRepository.findDateRangeByUserIdAndIdIn(sample.userId(), List.of(NO_USER));
+            expenseRepository.findChangesAfter(sample.userId(), Long.MAX_VALUE, 0, PageRequest.of(0, 1));
+            expenseRepository.findById(NO_USER);
+            userRepository.findById(sample.userId());
+            userRepository.findByEmail(sample.email());
+            userRepository.findCachedByEmail(sample.email());
+            userRepository.existsByEmail(sample.email());
+        });
+
+        rollbackTransaction.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            List<Long> ids = List.of(NO_USER);
+            expenseRepository.deleteByUserIdAndIdIn(NO_USER, ids);
+            expenseRepository.deleteByUserIdAndFilter(NO_USER, null, tomorrow, tomorrow);
+            expenseRepository.updateCategoryByUserIdAndIdIn(NO_USER, ids, ExpenseCategory.OTROS, 0, LocalDateTime.now());
+            expenseRepository.updateCategoryByUserIdAndFilter(
+                NO_USER, null, tomorrow, tomorrow, ExpenseCategory.OTROS, 0, LocalDateTime.now());
+        });
+    }
+
+    private void exerciseJwt() {
+        String token = jwtTokenProvider.generateTokenFromEmail(WARMUP_EMAIL);
+        if (!jwtTokenProvider.validateToken(token) || !WARMUP_EMAIL.equals(jwtTokenProvider.getEmailFromToken(token))) {
+            throw new IllegalStateException("El token de calentamiento no se pudo verificar");
+        }
+    }
+
+    private void exerciseJson(List<ExpenseResponse> expenses) throws Exception {
+        PageResponse<ExpenseResponse> page = new PageResponse<>(expenses, 0, expenses.size(), expenses.size(), 1);
+        objectMapper.writeValueAsBytes(page);
+
+        ExpenseRequest request = new ExpenseRequest();
+        request.setAmount(new BigDecimal("12.50"));
+        request.setCategory(ExpenseCategory.COMIDA);
+        request.setDate(LocalDate.now());
+        request.setDescription("Calentamiento");
+        request.setUserId(NO_USER);
+        objectMapper.readValue(objectMapper.writeValueAsBytes(request), ExpenseRequest.class);
+    }
+
+    /**
+     * Carga en la caché de segundo nivel los usuarios con gastos recientes y las
+     * estadísticas de los dos últimos meses
+     */
+    private void preloadCaches() {
+        List<String> emails = readOnlyTransaction.execute(status -> {
+            List<String> active = expenseRepository.findActiveUserEmailsSince(
+                LocalDate.now().minusDays(preloadDays), PageRequest.of(0, preloadUsers));
+            active.forEach(userRepository::findCachedByEmail);
+            return active;
+        });
+        YearMonth current = YearMonth.now();
+        statisticsService.getStatistics(current.minusMonths(1), current);
+        log.debug("Cachés precargadas para {} usuarios activos", emails == null ? 0 : emails.size());
+    }
+
+    private static List<ExpenseResponse> sampleResponses() {
+        List<ExpenseResponse> expenses = new ArrayList<>();
+        ExpenseCategory[] categories = ExpenseCategory.values();
+        for (int i = 0; i < 20; i++) {
+            expenses.add(new ExpenseResponse((long) i, new BigDecimal("10.00").add(BigDecimal.valueOf(i)), "EUR",
+                categories[i % categories.length], LocalDate.now().minusDays(i), "Gasto " + i,
+                LocalDateTime.now(), NO_USER, "Calentamiento", i % 7 == 0, i % 7 == 0 ? 3.5 : null));
+        }
+        return expenses;
+    }
+
+    private record Sample(long userId, String email) {
+    }
+
+    @FunctionalInterface
+    private interface WarmUpAction {
+        void run() throws Exception;
+    }
+}
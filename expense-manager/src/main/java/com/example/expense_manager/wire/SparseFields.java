@@ -0,0 +1,116 @@
+package com.example.expense_manager.wire;
+
+import com.example.expense_manager.dto.ExpenseField;
+import com.example.expense_manager.dto.UserField;
+import com.example.expense_manager.exeption.InvalidFieldsException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Selección de propiedades de las respuestas (parámetro fields=, p. ej. fields=id,amount,date)
+ * El controlador la registra en la petición y SparseFieldsResponseAdvice la pasa a Jackson como
+ * FilterProvider: ExpenseResponseSerializer la consulta y UserResponse la aplica con @JsonFilter.
+ * Sin fields= no se registra nada y las respuestas salen completas.
+ */
+public final class SparseFields {
+
+    static final String ATTRIBUTE = SparseFields.class.getName();
+
+    private SparseFields() {
+    }
+
+    /**
+     * Interpreta fields= para respuestas de gastos y lo registra para la serialización
+     *
+     * @return los campos pedidos, o null si no se pidieron campos (todos)
+     * @throws InvalidFieldsException si se nombra una propiedad desconocida
+     */
+    public static Set<ExpenseField> expenses(WebRequest webRequest, String fields) {
+        Set<ExpenseField> selected = parse(fields, ExpenseField.class, ExpenseField::of);
+        if (selected != null) {
+            webRequest.setAttribute(ATTRIBUTE, filters(selected, null), RequestAttributes.SCOPE_REQUEST);
+        }
+        return selected;
+    }
+
+    /**
+     * Interpreta fields= para respuestas de usuarios y lo registra para la serialización
+     *
+     * @return los campos pedidos, o null si no se pidieron campos (todos)
+     * @throws InvalidFieldsException si se nombra una propiedad desconocida
+     */
+    public static Set<UserField> users(WebRequest webRequest, String fields) {
+        Set<UserField> selected = parse(fields, UserField.class, UserField::of);
+        if (selected != null) {
+            webRequest.setAttribute(ATTRIBUTE, filters(null, selected), RequestAttributes.SCOPE_REQUEST);
+        }
+        return selected;
+    }
+
+    /**
+     * Filtros de Jackson para una selección; null en cualquiera de los dos tipos significa todos sus campos
+     */
+    public static FilterProvider filters(Set<ExpenseField> expenseFields, Set<UserField> userFields) {
+        return new Selection(expenseFields, userFields);
+    }
+
+    /**
+     * Campos de gasto que deben escribirse en la serialización en curso, o null si son todos
+     */
+    public static Set<ExpenseField> expenseFields(SerializerProvider provider) {
+        return provider.getFilterProvider() instanceof Selection selection ? selection.expenseFields : null;
+    }
+
+    private static <E extends Enum<E>> Set<E> parse(String fields, Class<E> type, Function<String, E> byProperty) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<E> selected = EnumSet.noneOf(type);
+        for (String property : fields.split(",")) {
+            if (!property.isBlank()) {
+                selected.add(byProperty.apply(property.trim()));
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidFieldsException("El parámetro fields no nombra ningún campo");
+        }
+        return Collections.unmodifiableSet(selected);
+    }
+
+    /**
+     * Selección vista como FilterProvider; los filtros que no son suyos se resuelven como "sin filtro"
+     */
+    private static final class Selection extends FilterProvider {
+
+        private final Set<ExpenseField> expenseFields;
+        private final PropertyFilter userFilter;
+
+        private Selection(Set<ExpenseField> expenseFields, Set<UserField> userFields) {
+            this.expenseFields = expenseFields;
+            this.userFilter = userFields == null ? null : SimpleBeanPropertyFilter.filterOutAllExcept(
+                userFields.stream().map(UserField::getProperty).collect(Collectors.toSet()));
+        }
+
+        @Override
+        @Deprecated
+        public BeanPropertyFilter findFilter(Object filterId) {
+            throw new UnsupportedOperationException("Solo se admiten PropertyFilter");
+        }
+
+        @Override
+        public PropertyFilter findPropertyFilter(Object filterId, Object valueToFilter) {
+            return UserField.FILTER_ID.equals(filterId) ? userFilter : null;
+        }
+    }
+}
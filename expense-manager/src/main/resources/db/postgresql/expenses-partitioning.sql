@@ -0,0 +1,63 @@
+-- ===== MIGRACION: expenses PARTICIONADA POR RANGO DE FECHA (MENSUAL) =====
+-- PostgreSQL 12 o superior. Idempotente: no hace nada si expenses ya esta particionada.
+-- Se ejecuta en una sola transaccion con la tabla bloqueada (ACCESS EXCLUSIVE): programar
+-- en una ventana de mantenimiento. Manualmente o con app.partitioning.migrate-on-startup=true.
+--
+-- 1. La tabla actual se renombra a expenses_unpartitioned y se conserva para verificar
+--    la copia; borrarla a mano despues (DROP TABLE expenses_unpartitioned).
+-- 2. La nueva expenses copia columnas, valores por defecto y CHECK de la original.
+--    La clave primaria pasa a ser (id, date): PostgreSQL exige incluir la clave de
+--    particion; los id siguen siendo unicos porque salen de una sola secuencia.
+-- 3. Una particion por mes con datos, hasta tres meses por delante, y una particion
+--    DEFAULT para fechas fuera de rango (ExpensePartitionManager la vacia al crear meses).
+DO $$
+DECLARE
+    first_month date;
+    last_month  date;
+    month       date;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('expenses')) THEN
+        RAISE NOTICE 'expenses ya esta particionada';
+        RETURN;
+    END IF;
+
+    LOCK TABLE expenses IN ACCESS EXCLUSIVE MODE;
+    ALTER TABLE expenses RENAME TO expenses_unpartitioned;
+    ALTER INDEX IF EXISTS idx_expenses_user_date RENAME TO idx_expenses_unpartitioned_user_date;
+    ALTER INDEX IF EXISTS idx_expenses_user_change RENAME TO idx_expenses_unpartitioned_user_change;
+
+    CREATE TABLE expenses (LIKE expenses_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+        PARTITION BY RANGE (date);
+
+    -- La secuencia de identidad pertenece a la tabla antigua: la nueva usa una propia
+    CREATE SEQUENCE expenses_partitioned_id_seq OWNED BY expenses.id;
+    PERFORM setval('expenses_partitioned_id_seq',
+                   COALESCE((SELECT max(id) FROM expenses_unpartitioned), 0) + 1, false);
+    ALTER TABLE expenses ALTER COLUMN id SET DEFAULT nextval('expenses_partitioned_id_seq');
+
+    ALTER TABLE expenses ADD CONSTRAINT expenses_partitioned_pkey PRIMARY KEY (id, date);
+    ALTER TABLE expenses ADD CONSTRAINT fk_expenses_partitioned_user
+        FOREIGN KEY (user_id) REFERENCES users (id);
+    -- Indice particionado: cada particion recibe el suyo
+    CREATE INDEX idx_expenses_user_date ON expenses (user_id, date);
+    CREATE INDEX idx_expenses_user_change ON expenses (user_id, change_seq, id);
+
+    CREATE TABLE expenses_default PARTITION OF expenses DEFAULT;
+
+    SELECT date_trunc('month', COALESCE(min(date), current_date))::date,
+           greatest(date_trunc('month', COALESCE(max(date), current_date)),
+                    date_trunc('month', current_date) + interval '3 months')::date
+      INTO first_month, last_month
+      FROM expenses_unpartitioned;
+
+    month := first_month;
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF expenses FOR VALUES FROM (%L) TO (%L)',
+                       'expenses_p' || to_char(month, 'YYYY_MM'), month, (month + interval '1 month')::date);
+        month := (month + interval '1 month')::date;
+    END LOOP;
+
+    INSERT INTO expenses SELECT * FROM expenses_unpartitioned;
+    ANALYZE expenses;
+END
+$$;
@@ -1,13 +1,58 @@
 package com.example.expense_manager;
 
+import com.example.expense_manager.perf.PerfDataSeeder;
+import com.example.expense_manager.repository.ExpenseRepository;
+import com.example.expense_manager.repository.UserRepository;
+import com.example.expense_manager.warmup.WarmUpReport;
+import com.example.expense_manager.warmup.WarmUpRunner;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Arranca la aplicación completa con el perfil perf (H2 + datos sintéticos reducidos)
+ */
+@SpringBootTest(properties = {
+	"app.perf.seed.users=3",
+	"app.perf.seed.expenses-per-user=10",
+	"app.warmup.query-iterations=2",
+	"app.warmup.iterations=50"
+})
+@ActiveProfiles("perf")
 class ExpenseManagerApplicationTests {
 
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private WarmUpRunner warmUpRunner;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void shouldSeedSyntheticData() {
+		assertThat(userRepository.existsByEmail(PerfDataSeeder.ADMIN_EMAIL)).isTrue();
+		assertThat(userRepository.count()).isEqualTo(4);
+		assertThat(expenseRepository.count()).isEqualTo(30);
+	}
+
+	@Test
+	void shouldWarmUpBeforeReadiness() {
+		WarmUpReport report = warmUpRunner.getReport();
+
+		assertThat(report.status()).isEqualTo(WarmUpReport.Status.COMPLETED);
+		assertThat(report.steps()).extracting(WarmUpReport.StepResult::name)
+			.containsExactly("pool", "queries", "jwt", "json");
+		// Las sentencias de modificación del calentamiento se revierten
+		assertThat(expenseRepository.count()).isEqualTo(30);
+	}
+
 }
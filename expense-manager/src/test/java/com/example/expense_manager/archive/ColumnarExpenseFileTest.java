@@ -0,0 +1,113 @@
+package com.example.expense_manager.archive;
+
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.event.UserDeletedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitarios para el formato columnar y el almacenamiento en frío
+ */
+@DisplayName("Tests de ColumnarExpenseFile")
+class ColumnarExpenseFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Debe leer las mismas filas que se escribieron, en orden de fecha")
+    void shouldRoundTripRows() throws Exception {
+        ArchivedExpense withEverything = expense(2L, "2022-05-10", "12.5", "Cena con acentos: ñandú");
+        ArchivedExpense minimal = new ArchivedExpense(1L, 1L, new BigDecimal("7"), "USD",
+            ExpenseCategory.OTROS, LocalDate.of(2022, 1, 1), null, null, false, null);
+        Path file = directory.resolve("2022.col");
+
+        ColumnarExpenseFile.write(file, 1L, 2022, List.of(withEverything, minimal));
+        List<ArchivedExpense> rows = ColumnarExpenseFile.open(file).readAll();
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).isEqualTo(new ArchivedExpense(1L, 1L, new BigDecimal("7.0"), "USD",
+            ExpenseCategory.OTROS, LocalDate.of(2022, 1, 1), null, null, false, null));
+        assertThat(rows.get(1)).isEqualTo(withEverything);
+    }
+
+    @Test
+    @DisplayName("Debe devolver solo las filas del rango de fechas")
+    void shouldScanDateRange() throws Exception {
+        Path file = directory.resolve("2023.col");
+        ColumnarExpenseFile.write(file, 1L, 2023, List.of(
+            expense(1L, "2023-01-31", "1", null),
+            expense(2L, "2023-02-01", "2", null),
+            expense(3L, "2023-02-28", "3", null),
+            expense(4L, "2023-12-31", "4", null)));
+        ColumnarExpenseFile reader = ColumnarExpenseFile.open(file);
+
+        assertThat(reader.scan(LocalDate.of(2023, 2, 1), LocalDate.of(2023, 2, 28)))
+            .extracting(ArchivedExpense::id).containsExactly(2L, 3L);
+        assertThat(reader.scan(LocalDate.of(2020, 1, 1), LocalDate.of(2030, 1, 1))).hasSize(4);
+        assertThat(reader.scan(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar gastos de otro año")
+    void shouldRejectRowsFromAnotherYear() {
+        assertThatThrownBy(() -> ColumnarExpenseFile.write(directory.resolve("2023.col"), 1L, 2023,
+                List.of(expense(1L, "2022-12-31", "1", null))))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Debe añadir filas a un archivo existente y recuperar el catálogo al reiniciar")
+    void shouldAppendAndReloadCatalog() throws Exception {
+        ExpenseColdStorage storage = new ExpenseColdStorage(directory.toString());
+        storage.append(1L, 2022, List.of(expense(1L, "2022-03-01", "10", null)));
+        storage.append(1L, 2022, List.of(expense(2L, "2022-04-01", "20", null)));
+        storage.append(1L, 2021, List.of(expense(3L, "2021-06-01", "30", null)));
+
+        ExpenseColdStorage reloaded = new ExpenseColdStorage(directory.toString());
+        reloaded.loadCatalog();
+
+        assertThat(reloaded.find(1L, LocalDate.of(2021, 1, 1), LocalDate.of(2022, 12, 31)))
+            .extracting(ArchivedExpense::id).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(reloaded.find(LocalDate.of(2022, 4, 1), LocalDate.of(2022, 4, 30)))
+            .extracting(ArchivedExpense::id).containsExactly(2L);
+        assertThat(reloaded.find(2L, LocalDate.of(2021, 1, 1), LocalDate.of(2022, 12, 31))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe borrar los archivos de un usuario eliminado")
+    void shouldDeleteFilesOfDeletedUser() {
+        ExpenseColdStorage storage = new ExpenseColdStorage(directory.toString());
+        storage.append(1L, 2022, List.of(expense(1L, "2022-03-01", "10", null)));
+
+        storage.onUserDeleted(new UserDeletedEvent(1L));
+
+        assertThat(storage.isEmpty()).isTrue();
+        assertThat(Files.exists(directory.resolve("1"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe archivar solo años completos")
+    void shouldArchiveWholeYears() {
+        assertThat(ExpenseArchiver.cutoff(YearMonth.of(2025, 3), 24)).isEqualTo(LocalDate.of(2023, 1, 1));
+        assertThat(ExpenseArchiver.cutoff(YearMonth.of(2025, 3), 2)).isEqualTo(LocalDate.of(2025, 1, 1));
+    }
+
+    private static ArchivedExpense expense(Long id, String date, String amount, String description) {
+        return new ArchivedExpense(id, 1L, new BigDecimal(amount), "EUR", ExpenseCategory.COMIDA,
+            LocalDate.parse(date), description, LocalDateTime.of(2022, 5, 10, 13, 45, 30, 123_456_000),
+            true, 3.5);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.expense_manager.benchmark;
+
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.dto.PageResponse;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Benchmark de serialización de una página de gastos
+ * Compara la ruta por defecto (reflexión + Page) con la ajustada
+ * (serializador dedicado + Blackbird + PageResponse), y la ajustada en JSON
+ * con los formatos binarios negociables (CBOR y Smile), al codificar y al decodificar.
+ *
+ * Ejecutar (exec:java no deja a JMH lanzar el proceso hijo con el classpath completo):
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ExpenseSerializationBenchmark -prof gc
+ * El perfilador GC informa de gc.alloc.rate.norm (bytes asignados por operación);
+ * el tamaño de la respuesta (bytes/op) se imprime al preparar el estado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper defaultMapper;
+    private ObjectMapper tunedMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private JavaType pageType;
+    private Page<ExpenseResponse> page;
+    private PageResponse<ExpenseResponse> pageResponse;
+    private byte[] jsonBytes;
+    private byte[] cborBytes;
+    private byte[] smileBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        defaultMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(MapperFeature.USE_ANNOTATIONS)
+                .build();
+        tunedMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .addModule(new BlackbirdModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        cborMapper = CBORMapper.builder()
+                .addModule(new JavaTimeModule())
+                .addModule(new BlackbirdModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        smileMapper = SmileMapper.builder()
+                .addModule(new JavaTimeModule())
+                .addModule(new BlackbirdModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        pageType = tunedMapper.getTypeFactory().constructParametricType(PageResponse.class, ExpenseResponse.class);
+
+        List<ExpenseResponse> content = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            content.add(new ExpenseResponse((long) i, new BigDecimal("12.50").add(BigDecimal.valueOf(i)), "EUR",
+                    ExpenseCategory.values()[i % ExpenseCategory.values().length],
+                    LocalDate.of(2024, 1, 1).plusDays(i), "Gasto número " + i,
+                    LocalDateTime.of(2024, 1, 1, 10, 30).plusHours(i), 1L, "Usuario de prueba", false, 0.4));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "date")), 1000);
+        pageResponse = PageResponse.of(page);
+
+        byte[] defaultBytes = defaultMapper.writeValueAsBytes(page);
+        jsonBytes = tunedMapper.writeValueAsBytes(pageResponse);
+        cborBytes = cborMapper.writeValueAsBytes(pageResponse);
+        smileBytes = smileMapper.writeValueAsBytes(pageResponse);
+        System.out.printf("%n[pageSize=%d] bytes/op por defecto=%d (gzip %d), ajustado=%d (gzip %d), "
+                        + "cbor=%d (gzip %d), smile=%d (gzip %d)%n",
+                pageSize, defaultBytes.length, gzipSize(defaultBytes), jsonBytes.length, gzipSize(jsonBytes),
+                cborBytes.length, gzipSize(cborBytes), smileBytes.length, gzipSize(smileBytes));
+    }
+
+    @Benchmark
+    public byte[] defaultPage() throws IOException {
+        return defaultMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] tunedPage() throws IOException {
+        return tunedMapper.writeValueAsBytes(pageResponse);
+    }
+
+    @Benchmark
+    public byte[] cborPage() throws IOException {
+        return cborMapper.writeValueAsBytes(pageResponse);
+    }
+
+    @Benchmark
+    public byte[] smilePage() throws IOException {
+        return smileMapper.writeValueAsBytes(pageResponse);
+    }
+
+    @Benchmark
+    public Object jsonPageDecode() throws IOException {
+        return tunedMapper.readValue(jsonBytes, pageType);
+    }
+
+    @Benchmark
+    public Object cborPageDecode() throws IOException {
+        return cborMapper.readValue(cborBytes, pageType);
+    }
+
+    @Benchmark
+    public Object smilePageDecode() throws IOException {
+        return smileMapper.readValue(smileBytes, pageType);
+    }
+
+    private static int gzipSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ExpenseSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.expense_manager.config;
+
+import com.example.expense_manager.dto.ExpenseRequest;
+import com.example.expense_manager.dto.serializer.ExpenseResponseSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios para las pistas de la imagen nativa
+ */
+@DisplayName("Tests de NativeHintsConfig")
+class NativeHintsConfigTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeHintsConfig.ExpenseManagerRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Debe registrar los DTOs generados con Lombok, incluidos los subpaquetes")
+    void shouldRegisterDtos() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(ExpenseRequest.class)
+            .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS))
+            .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(ExpenseResponseSerializer.class)).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Debe registrar las implementaciones de JJWT que se cargan por nombre")
+    void shouldRegisterJjwtImplementations() {
+        assertThat(RuntimeHintsPredicates.reflection()
+            .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtParserBuilder"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource()
+            .forResource("META-INF/services/io.jsonwebtoken.io.Serializer")).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Debe incluir la configuración de la caché de segundo nivel")
+    void shouldRegisterCacheConfiguration() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("application.conf")).accepts(hints);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.expense_manager.datasource;
+
+import com.example.expense_manager.config.ReadReplicaConfig;
+import com.example.expense_manager.entity.User;
+import com.example.expense_manager.event.ExpenseCreatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Arranca ReadReplicaConfig contra dos bases H2 (primario y réplica) y comprueba
+ * a cuál llega cada transacción. Cada base tiene una tabla node con su propio nombre.
+ */
+@SpringBootTest(classes = {ReadReplicaConfig.class, ReadReplicaRoutingIntegrationTest.Config.class}, properties = {
+    "app.datasource.replica.enabled=true",
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "app.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+    "app.datasource.replica.username=sa",
+    "app.datasource.replica.password=",
+    "app.datasource.replica.driver-class-name=org.h2.Driver",
+    "app.datasource.replica.lag-query=SELECT lag_seconds FROM replica_lag",
+    "app.datasource.replica.max-lag-ms=1000",
+    "app.datasource.replica.read-your-writes-ms=60000"
+})
+@DisplayName("Tests de integración del enrutado primario/réplica")
+class ReadReplicaRoutingIntegrationTest {
+
+    @TestConfiguration
+    @EnableConfigurationProperties
+    static class Config {
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaHealthMonitor healthMonitor;
+
+    @Autowired
+    private ReadYourWritesTracker writesTracker;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcTemplate replicaJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        new JdbcTemplate(primaryDataSource).execute(
+            "CREATE TABLE IF NOT EXISTS node AS SELECT 'primary' AS name");
+        replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        replicaJdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node AS SELECT 'replica' AS name");
+        replicaJdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds DOUBLE)");
+        replicaJdbcTemplate.update("DELETE FROM replica_lag");
+        replicaJdbcTemplate.update("INSERT INTO replica_lag VALUES (0)");
+        healthMonitor.check();
+
+        authenticate(42L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe ejecutar las transacciones de solo lectura en la réplica")
+    void shouldRunReadOnlyTransactionsOnReplica() {
+        assertThat(healthMonitor.isUsable()).isTrue();
+        assertThat(node(true)).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Debe ejecutar las transacciones de escritura en el primario")
+    void shouldRunWritesOnPrimary() {
+        assertThat(node(false)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Debe leer del primario después de que el usuario escriba")
+    void shouldReadOwnWritesFromPrimary() {
+        authenticate(7L);
+        assertThat(node(true)).isEqualTo("replica");
+
+        writesTracker.onDomainEvent(new ExpenseCreatedEvent(1L, 7L, LocalDate.of(2024, 1, 15)));
+
+        assertThat(node(true)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Debe volver al primario si la réplica se retrasa o no responde")
+    void shouldFallBackToPrimaryWhenReplicaUnhealthy() {
+        replicaJdbcTemplate.update("UPDATE replica_lag SET lag_seconds = 5");
+        healthMonitor.check();
+
+        assertThat(healthMonitor.isUsable()).isFalse();
+        assertThat(healthMonitor.getLastLagMs()).isEqualTo(5000);
+        assertThat(node(true)).isEqualTo("primary");
+
+        replicaJdbcTemplate.execute("DROP TABLE replica_lag");
+        healthMonitor.check();
+
+        assertThat(healthMonitor.getLastLagMs()).isEqualTo(-1);
+        assertThat(node(true)).isEqualTo("primary");
+    }
+
+    /**
+     * Nombre de la base que atiende una transacción del tipo indicado
+     */
+    private String node(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static void authenticate(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
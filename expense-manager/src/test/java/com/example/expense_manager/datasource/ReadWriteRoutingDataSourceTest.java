@@ -0,0 +1,86 @@
+package com.example.expense_manager.datasource;
+
+import com.example.expense_manager.entity.User;
+import com.example.expense_manager.event.ExpenseCreatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios para ReadWriteRoutingDataSource
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de ReadWriteRoutingDataSource")
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private ReplicaHealthMonitor healthMonitor;
+
+    private ReadYourWritesTracker writesTracker;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        writesTracker = new ReadYourWritesTracker(60_000);
+        routing = new ReadWriteRoutingDataSource(healthMonitor, writesTracker);
+
+        User user = new User();
+        user.setId(1L);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe enviar las transacciones de solo lectura a la réplica")
+    void shouldRouteReadOnlyToReplica() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(healthMonitor.isUsable()).thenReturn(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRole.REPLICA);
+    }
+
+    @Test
+    @DisplayName("Debe enviar las escrituras al primario")
+    void shouldRouteWritesToPrimary() {
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Debe volver al primario si la réplica no está sana")
+    void shouldFallBackToPrimaryWhenReplicaUnhealthy() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(healthMonitor.isUsable()).thenReturn(false);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Debe leer del primario justo después de que el usuario escriba")
+    void shouldReadOwnWritesFromPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(healthMonitor.isUsable()).thenReturn(true);
+
+        writesTracker.onDomainEvent(new ExpenseCreatedEvent(10L, 1L, LocalDate.of(2024, 1, 15)));
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+    }
+}
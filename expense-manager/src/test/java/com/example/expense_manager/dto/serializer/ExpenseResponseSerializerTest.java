@@ -0,0 +1,96 @@
+package com.example.expense_manager.dto.serializer;
+
+import com.example.expense_manager.dto.ExpenseField;
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.wire.SparseFields;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests para ExpenseResponseSerializer
+ */
+@DisplayName("Tests de ExpenseResponseSerializer")
+class ExpenseResponseSerializerTest {
+
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    // Misma configuración pero ignorando @JsonSerialize, es decir, la serialización por reflexión
+    private final ObjectMapper reflectiveMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(MapperFeature.USE_ANNOTATIONS)
+            .build();
+
+    @Test
+    @DisplayName("Debe producir el mismo JSON que la serialización por defecto")
+    void shouldMatchDefaultSerialization() throws Exception {
+        ExpenseResponse expense = new ExpenseResponse(1L, new BigDecimal("50.00"), "EUR", ExpenseCategory.COMIDA,
+                LocalDate.of(2024, 1, 15), "Almuerzo \"menú\"", LocalDateTime.of(2024, 1, 15, 13, 0),
+                7L, "Test User", true, 3.5);
+
+        assertThat(mapper.readTree(mapper.writeValueAsString(expense)))
+                .isEqualTo(reflectiveMapper.readTree(reflectiveMapper.writeValueAsString(expense)));
+    }
+
+    @Test
+    @DisplayName("Debe escribir solo los campos seleccionados, en el orden habitual")
+    void shouldWriteOnlySelectedFields() throws Exception {
+        ExpenseResponse expense = new ExpenseResponse(1L, new BigDecimal("50.00"), "EUR", ExpenseCategory.COMIDA,
+                LocalDate.of(2024, 1, 15), "Almuerzo", LocalDateTime.of(2024, 1, 15, 13, 0),
+                7L, "Test User", false, null);
+
+        String json = mapper.writer(SparseFields.filters(
+                        EnumSet.of(ExpenseField.DATE, ExpenseField.ID, ExpenseField.ANOMALOUS), null))
+                .writeValueAsString(expense);
+
+        assertThat(json).isEqualTo("{\"id\":1,\"date\":\"2024-01-15\",\"anomalous\":false}");
+    }
+
+    @Test
+    @DisplayName("Debe serializar campos nulos como null")
+    void shouldSerializeNulls() throws Exception {
+        ExpenseResponse expense = new ExpenseResponse();
+
+        String json = mapper.writeValueAsString(expense);
+
+        assertThat(mapper.readTree(json)).isEqualTo(reflectiveMapper.readTree(reflectiveMapper.writeValueAsString(expense)));
+        assertThat(json).contains("\"date\":null").contains("\"anomalous\":false");
+    }
+
+    @Test
+    @DisplayName("Debe codificar en CBOR el mismo objeto, con el importe como fracción decimal")
+    void shouldEncodeSameObjectInCbor() throws Exception {
+        ObjectMapper cborMapper = CBORMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ExpenseResponse expense = new ExpenseResponse(1L, new BigDecimal("50.00"), "EUR", ExpenseCategory.COMIDA,
+                LocalDate.of(2024, 1, 15), "Almuerzo", LocalDateTime.of(2024, 1, 15, 13, 0),
+                7L, "Test User", true, 3.5);
+
+        byte[] cbor = cborMapper.writeValueAsBytes(expense);
+
+        assertThat(cborMapper.readValue(cbor, ExpenseResponse.class)).isEqualTo(expense);
+        assertThat(cbor.length).isLessThan(mapper.writeValueAsBytes(expense).length);
+        // Clave "amount" seguida de la etiqueta 4 y [-2, 5000]
+        assertThat(HexFormat.of().formatHex(cbor)).contains("66616d6f756e74" + "c4" + "82" + "21" + "191388");
+    }
+}
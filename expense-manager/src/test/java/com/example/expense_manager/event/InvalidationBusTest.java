@@ -0,0 +1,105 @@
+package com.example.expense_manager.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios para InvalidationBus
+ */
+@DisplayName("Tests de InvalidationBus")
+class InvalidationBusTest {
+
+    private final List<InvalidationBatch> delivered = new ArrayList<>();
+    private InvalidationBus bus;
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    /**
+     * Ventana muy larga para que solo entregue el flush explícito del test
+     */
+    private InvalidationBus newBus(int maxPending) {
+        bus = new InvalidationBus(List.of(delivered::add), 60_000, maxPending);
+        return bus;
+    }
+
+    @Test
+    @DisplayName("Debe coalescer eventos repetidos del mismo usuario en un solo lote")
+    void shouldCoalesceRepeatedEvents() {
+        InvalidationBus bus = newBus(1000);
+
+        bus.onDomainEvent(new ExpenseCreatedEvent(1L, 7L, LocalDate.of(2024, 1, 5)));
+        bus.onDomainEvent(new ExpenseCreatedEvent(2L, 7L, LocalDate.of(2024, 1, 20)));
+        bus.onDomainEvent(new ExpenseUpdatedEvent(2L, 7L, LocalDate.of(2024, 1, 20), 8L, LocalDate.of(2024, 2, 1)));
+        bus.flush();
+
+        assertThat(delivered).hasSize(1);
+        InvalidationBatch batch = delivered.get(0);
+        assertThat(batch.events()).isEqualTo(3);
+        assertThat(batch.userIds()).containsExactlyInAnyOrder(7L, 8L);
+        assertThat(batch.months()).containsExactlyInAnyOrder(YearMonth.of(2024, 1), YearMonth.of(2024, 2));
+        assertThat(batch.allMonths()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe invalidar todos los meses al eliminar un usuario")
+    void shouldInvalidateAllMonthsOnUserDeletion() {
+        InvalidationBus bus = newBus(1000);
+
+        bus.onDomainEvent(new ExpenseDeletedEvent(1L, 3L, LocalDate.of(2024, 3, 1)));
+        bus.onDomainEvent(new UserDeletedEvent(3L));
+        bus.flush();
+
+        InvalidationBatch batch = delivered.get(0);
+        assertThat(batch.allMonths()).isTrue();
+        assertThat(batch.months()).isEmpty();
+        assertThat(batch.deletedUserIds()).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Debe invalidar todos los meses en un cambio masivo de rango muy amplio")
+    void shouldInvalidateAllMonthsOnWideBulkChange() {
+        InvalidationBus bus = newBus(1000);
+
+        bus.onDomainEvent(new ExpensesBulkChangedEvent(3L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), 2));
+        bus.onDomainEvent(new ExpensesBulkChangedEvent(3L, LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31), 5));
+        bus.flush();
+
+        InvalidationBatch batch = delivered.get(0);
+        assertThat(batch.allMonths()).isTrue();
+        assertThat(batch.months()).isEmpty();
+        assertThat(batch.userIds()).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Debe degradar a invalidación completa al superar el máximo pendiente")
+    void shouldOverflowToFullInvalidation() {
+        InvalidationBus bus = newBus(4);
+
+        for (long i = 1; i <= 5; i++) {
+            bus.onDomainEvent(new ExpenseCreatedEvent(i, i, LocalDate.of(2024, (int) i, 1)));
+        }
+        bus.flush();
+
+        assertThat(delivered.get(0).allMonths()).isTrue();
+        assertThat(delivered.get(0).events()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("No debe entregar lotes vacíos")
+    void shouldNotDeliverEmptyBatches() {
+        newBus(1000).flush();
+
+        assertThat(delivered).isEmpty();
+    }
+}
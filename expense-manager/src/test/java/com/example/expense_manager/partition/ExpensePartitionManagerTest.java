@@ -0,0 +1,96 @@
+package com.example.expense_manager.partition;
+
+import com.example.expense_manager.dto.ExpensePartitionResponse;
+import com.example.expense_manager.dto.PartitionArchiveResponse;
+import com.example.expense_manager.event.ExpensesArchivedEvent;
+import com.example.expense_manager.exeption.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios para ExpensePartitionManager
+ */
+@DisplayName("Tests de ExpensePartitionManager")
+class ExpensePartitionManagerTest {
+
+    @Test
+    @DisplayName("Debe nombrar las particiones por año y mes")
+    void shouldNamePartitionsByMonth() {
+        assertThat(ExpensePartitionManager.partitionName(YearMonth.of(2024, 3))).isEqualTo("expenses_p2024_03");
+    }
+
+    @Test
+    @DisplayName("Debe obtener el mes a partir del nombre de la partición")
+    void shouldParseMonthFromPartitionName() {
+        assertThat(ExpensePartitionManager.monthOf("expenses_p2024_11")).isEqualTo(YearMonth.of(2024, 11));
+        assertThat(ExpensePartitionManager.monthOf(ExpensePartitionManager.DEFAULT_PARTITION)).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar archivar meses posteriores al actual")
+    void shouldRejectFutureArchiveCutoff() {
+        YearMonth current = YearMonth.of(2025, 6);
+
+        assertThatCode(() -> ExpensePartitionManager.validateArchiveCutoff(current, current)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> ExpensePartitionManager.validateArchiveCutoff(current.plusMonths(1), current))
+            .isInstanceOf(BadRequestException.class)
+            .hasMessageContaining("anteriores al actual");
+    }
+
+    @Test
+    @DisplayName("Debe quitar las claves ajenas de la partición separada antes de moverla al archivo")
+    void shouldDropForeignKeysOfArchivedPartitions() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        ExpensePartitionManager manager = new ExpensePartitionManager(jdbcTemplate,
+            mock(PlatformTransactionManager.class), eventPublisher, false, 3, 0, "archive");
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<ExpensePartitionResponse>>any()))
+            .thenReturn(List.of(
+                partition(YearMonth.of(2024, 1)),
+                partition(YearMonth.of(2024, 2)),
+                new ExpensePartitionResponse(ExpensePartitionManager.DEFAULT_PARTITION, null, null, 0)));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("expenses_p2024_01")))
+            .thenReturn(List.of("fk_expenses_partitioned_user"));
+
+        PartitionArchiveResponse response = manager.archive(YearMonth.of(2024, 2));
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE expenses DETACH PARTITION expenses_p2024_01");
+        inOrder.verify(jdbcTemplate).execute(
+            "ALTER TABLE expenses_p2024_01 DROP CONSTRAINT \"fk_expenses_partitioned_user\"");
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE expenses_p2024_01 SET SCHEMA archive");
+        verify(jdbcTemplate, never()).execute(contains("expenses_p2024_02"));
+        verify(jdbcTemplate, never()).execute(contains(ExpensePartitionManager.DEFAULT_PARTITION));
+        assertThat(response.getArchived()).containsExactly("archive.expenses_p2024_01");
+        verify(eventPublisher).publishEvent(new ExpensesArchivedEvent(Set.of(YearMonth.of(2024, 1))));
+    }
+
+    private static ExpensePartitionResponse partition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        return new ExpensePartitionResponse(ExpensePartitionManager.partitionName(month), from,
+            from.plusMonths(1), 100);
+    }
+}
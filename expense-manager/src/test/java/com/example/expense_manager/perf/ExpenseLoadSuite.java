@@ -0,0 +1,395 @@
+package com.example.expense_manager.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga HTTP contra la aplicación arrancada con el perfil perf
+ * Cada hilo inicia sesión con su propio usuario sintético y ejecuta una mezcla
+ * ponderada y reproducible (semilla fija) de escenarios: registro, login, alta de
+ * gasto, /my, rango de fechas y listado de administrador. Descarta el calentamiento
+ * y escribe throughput y percentiles de latencia por escenario en JSON.
+ *
+ * 1. Arrancar: ./mvnw spring-boot:run -Dspring-boot.run.profiles=perf
+ * 2. Ejecutar: mvn test-compile exec:java -Dexec.classpathScope=test
+ *      -Dexec.mainClass=com.example.expense_manager.perf.ExpenseLoadSuite
+ *
+ * Propiedades (-D): perf.base-url, perf.threads, perf.warmup-seconds,
+ * perf.duration-seconds, perf.seed-users, perf.password, perf.output y, para comparar
+ * con una ejecución anterior, perf.baseline y perf.tolerance (0.15 = 15 % peor).
+ * perf.read-prefix=/api/reactive/expenses lanza /my y el rango de fechas contra la
+ * lectura reactiva, para compararla con la bloqueante usando la otra como línea base.
+ * Con una línea base, el proceso termina con código 1 si algún escenario empeora
+ * más de la tolerancia en p90 o en throughput.
+ */
+public class ExpenseLoadSuite {
+
+    private static final String ADMIN_EMAIL = "admin@perf.local";
+
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final String baseUrl = System.getProperty("perf.base-url", "http://localhost:8080");
+    private final int threads = Integer.getInteger("perf.threads", 8);
+    private final int warmupSeconds = Integer.getInteger("perf.warmup-seconds", 10);
+    private final int durationSeconds = Integer.getInteger("perf.duration-seconds", 60);
+    private final int seedUsers = Integer.getInteger("perf.seed-users", 200);
+    private final String password = System.getProperty("perf.password", "password");
+    private final String readPrefix = System.getProperty("perf.read-prefix", "/api/expenses");
+    private final Path output = Path.of(System.getProperty("perf.output", "target/perf/load-results.json"));
+    private final String baseline = System.getProperty("perf.baseline");
+    private final double tolerance = Double.parseDouble(System.getProperty("perf.tolerance", "0.15"));
+
+    /**
+     * Escenarios con su peso en la mezcla
+     */
+    enum Scenario {
+        REGISTER("register", 2),
+        LOGIN("login", 8),
+        CREATE("create", 20),
+        MY("my", 35),
+        DATE_RANGE("date-range", 25),
+        ADMIN_LIST("admin-list", 10);
+
+        final String label;
+        final int weight;
+
+        Scenario(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int exitCode = new ExpenseLoadSuite().run();
+        System.exit(exitCode);
+    }
+
+    int run() throws Exception {
+        String adminToken = login(ADMIN_EMAIL).path("token").asText();
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        // Los logins iniciales (BCrypt) no cuentan como calentamiento
+        List<String> emails = new ArrayList<>();
+        List<JsonNode> sessions = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String email = "perf-user-" + (i % seedUsers + 1) + "@perf.local";
+            emails.add(email);
+            sessions.add(login(email));
+        }
+
+        long startNanos = System.nanoTime();
+        long measureFrom = startNanos + warmupSeconds * 1_000_000_000L;
+        long deadline = measureFrom + durationSeconds * 1_000_000_000L;
+
+        List<Worker> workers = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(i, emails.get(i), sessions.get(i), adminToken, runId,
+                measureFrom, deadline, done);
+            workers.add(worker);
+            Thread thread = new Thread(worker, "load-" + i);
+            thread.start();
+        }
+        done.await();
+
+        ObjectNode report = buildReport(workers);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        mapper.writeValue(output.toFile(), report);
+        System.out.println(mapper.writeValueAsString(report));
+        System.out.println("Resultados escritos en " + output.toAbsolutePath());
+
+        if (baseline != null) {
+            return compareWithBaseline(report, mapper.readTree(Path.of(baseline).toFile())) ? 0 : 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Hilo de carga: una sesión de usuario que repite escenarios hasta el final de la medición
+     */
+    private final class Worker implements Runnable {
+        private final int index;
+        private final String email;
+        private final long userId;
+        private final String adminToken;
+        private final String runId;
+        private final long measureFrom;
+        private final long deadline;
+        private final CountDownLatch done;
+        // Semilla por hilo: la secuencia de escenarios es la misma en cada ejecución
+        private final Random random;
+        private final Map<Scenario, LatencyRecorder> recorders = new LinkedHashMap<>();
+        private String token;
+        private int sequence;
+
+        Worker(int index, String email, JsonNode session, String adminToken, String runId,
+               long measureFrom, long deadline, CountDownLatch done) {
+            this.index = index;
+            this.email = email;
+            this.userId = session.path("id").asLong();
+            this.token = session.path("token").asText();
+            this.adminToken = adminToken;
+            this.runId = runId;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+            this.done = done;
+            this.random = new Random(1000L + index);
+            for (Scenario scenario : Scenario.values()) {
+                recorders.put(scenario, new LatencyRecorder());
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (System.nanoTime() < deadline) {
+                    Scenario scenario = pick(random);
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = execute(scenario);
+                    } catch (IOException e) {
+                        ok = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    long end = System.nanoTime();
+                    if (start >= measureFrom && end <= deadline) {
+                        recorders.get(scenario).record(end - start, ok);
+                    }
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private boolean execute(Scenario scenario) throws IOException, InterruptedException {
+            LocalDate today = LocalDate.now();
+            return switch (scenario) {
+                case REGISTER -> {
+                    ObjectNode body = mapper.createObjectNode()
+                        .put("email", "load-" + runId + "-" + index + "-" + (sequence++) + "@perf.local")
+                        .put("name", "Load User")
+                        .put("password", password);
+                    yield isSuccess(send(post("/api/auth/register", body, null)));
+                }
+                case LOGIN -> {
+                    HttpResponse<String> response = send(post("/api/auth/login", credentials(email), null));
+                    if (isSuccess(response)) {
+                        token = mapper.readTree(response.body()).path("token").asText();
+                        yield true;
+                    }
+                    yield false;
+                }
+                case CREATE -> {
+                    ObjectNode body = mapper.createObjectNode()
+                        .put("amount", BigDecimal.valueOf(500 + random.nextInt(20000), 2))
+                        .put("category", random.nextBoolean() ? "COMIDA" : "TRANSPORTE")
+                        .put("date", today.minusDays(random.nextInt(30)).toString())
+                        .put("description", "Carga " + runId)
+                        .put("userId", userId);
+                    yield isSuccess(send(post("/api/expenses", body, token)));
+                }
+                case MY -> isSuccess(send(get(readPrefix + "/my?page=0&size=20", token)));
+                case DATE_RANGE -> isSuccess(send(get(readPrefix + "/my/date-range?startDate="
+                    + today.minusDays(30) + "&endDate=" + today, token)));
+                case ADMIN_LIST -> isSuccess(send(get("/api/expenses?page=" + random.nextInt(10) + "&size=20",
+                    adminToken)));
+            };
+        }
+    }
+
+    private static Scenario pick(Random random) {
+        int total = Arrays.stream(Scenario.values()).mapToInt(s -> s.weight).sum();
+        int ticket = random.nextInt(total);
+        for (Scenario scenario : Scenario.values()) {
+            ticket -= scenario.weight;
+            if (ticket < 0) {
+                return scenario;
+            }
+        }
+        return Scenario.MY;
+    }
+
+    /**
+     * Inicia sesión y devuelve la respuesta de autenticación (token e id del usuario)
+     */
+    private JsonNode login(String email) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/api/auth/login", credentials(email), null));
+        if (!isSuccess(response)) {
+            throw new IllegalStateException("No se pudo iniciar sesión como " + email + " (HTTP "
+                + response.statusCode() + "). ¿Está la aplicación arrancada con el perfil perf?");
+        }
+        return mapper.readTree(response.body());
+    }
+
+    private ObjectNode credentials(String email) {
+        return mapper.createObjectNode().put("email", email).put("password", password);
+    }
+
+    private HttpRequest post(String path, JsonNode body, String bearer) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+        if (bearer != null) {
+            builder.header("Authorization", "Bearer " + bearer);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest get(String path, String bearer) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Authorization", "Bearer " + bearer)
+            .header("Accept-Encoding", "identity")
+            .GET()
+            .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() >= 200 && response.statusCode() < 300;
+    }
+
+    /**
+     * Informe con la configuración de la ejecución y las métricas por escenario
+     */
+    private ObjectNode buildReport(List<Worker> workers) {
+        ObjectNode report = mapper.createObjectNode();
+        report.put("timestamp", Instant.now().toString());
+        report.putObject("config")
+            .put("baseUrl", baseUrl)
+            .put("threads", threads)
+            .put("readPrefix", readPrefix)
+            .put("warmupSeconds", warmupSeconds)
+            .put("durationSeconds", durationSeconds);
+
+        ObjectNode scenarios = report.putObject("scenarios");
+        LatencyRecorder total = new LatencyRecorder();
+        for (Scenario scenario : Scenario.values()) {
+            LatencyRecorder merged = new LatencyRecorder();
+            for (Worker worker : workers) {
+                merged.addAll(worker.recorders.get(scenario));
+            }
+            total.addAll(merged);
+            writeMetrics(scenarios.putObject(scenario.label), merged);
+        }
+        writeMetrics(report.putObject("total"), total);
+        return report;
+    }
+
+    private void writeMetrics(ObjectNode node, LatencyRecorder recorder) {
+        long[] sorted = recorder.sorted();
+        node.put("requests", sorted.length);
+        node.put("errors", recorder.errors.get());
+        node.put("throughputPerSecond", round((double) sorted.length / durationSeconds));
+        node.put("meanMs", round(sorted.length == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1e6));
+        node.put("p50Ms", round(percentile(sorted, 0.50) / 1e6));
+        node.put("p90Ms", round(percentile(sorted, 0.90) / 1e6));
+        node.put("p99Ms", round(percentile(sorted, 0.99) / 1e6));
+        node.put("maxMs", round(sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6));
+    }
+
+    /**
+     * Compara p90 y throughput por escenario con una ejecución anterior
+     */
+    private boolean compareWithBaseline(ObjectNode current, JsonNode previous) {
+        if (!current.path("config").equals(previous.path("config"))) {
+            System.out.println("Aviso: la línea base se ejecutó con otra configuración, "
+                + "las cifras no son directamente comparables");
+        }
+        boolean ok = true;
+        for (Scenario scenario : Scenario.values()) {
+            JsonNode now = current.path("scenarios").path(scenario.label);
+            JsonNode before = previous.path("scenarios").path(scenario.label);
+            if (before.isMissingNode() || before.path("requests").asLong() == 0) {
+                continue;
+            }
+            double p90Before = before.path("p90Ms").asDouble();
+            double p90Now = now.path("p90Ms").asDouble();
+            double tpsBefore = before.path("throughputPerSecond").asDouble();
+            double tpsNow = now.path("throughputPerSecond").asDouble();
+            boolean slower = p90Before > 0 && p90Now > p90Before * (1 + tolerance);
+            boolean fewer = tpsBefore > 0 && tpsNow < tpsBefore * (1 - tolerance);
+            System.out.printf("%-12s p90 %8.2f -> %8.2f ms   throughput %8.1f -> %8.1f req/s %s%n",
+                scenario.label, p90Before, p90Now, tpsBefore, tpsNow, slower || fewer ? "  REGRESIÓN" : "");
+            ok &= !(slower || fewer);
+        }
+        return ok;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    /**
+     * Latencias exactas de un escenario (en nanosegundos), sin compartir entre hilos
+     */
+    static final class LatencyRecorder {
+        private long[] values = new long[1024];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long nanos, boolean ok) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void addAll(LatencyRecorder other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            errors.addAndGet(other.errors.get());
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.expense_manager.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el arranque de la aplicación en sus distintos modos de ejecución
+ * Para cada modo arranca el proceso varias veces con el perfil perf y mide el tiempo
+ * hasta que la sonda de readiness responde (incluye el calentamiento), hasta el
+ * primer login correcto y la latencia de la primera petición autenticada
+ * (GET /api/expenses/my), además de la memoria residente del proceso cuando el
+ * sistema la expone (/proc).
+ *
+ * Modos (los que no tengan su artefacto construido se omiten):
+ *   jvm     java -jar target/expense-manager-1.0.0.jar
+ *   aot     el mismo jar con -Dspring.aot.enabled=true (requiere "mvn -Pnative -Daot.profiles=perf package")
+ *   cds     target/application con -XX:SharedArchiveFile (requiere "mvn -Pcds package")
+ *   native  target/expense-manager (requiere "mvn -Pnative -Daot.profiles=perf native:compile")
+ *
+ * Ejecutar: mvn test-compile exec:java -Dexec.classpathScope=test
+ *      -Dexec.mainClass=com.example.expense_manager.perf.StartupBenchmark
+ *
+ * Propiedades (-D): perf.modes, perf.runs, perf.port, perf.seed-users,
+ * perf.expenses-per-user, perf.timeout-seconds, perf.password y perf.output.
+ */
+public class StartupBenchmark {
+
+    private static final String ADMIN_EMAIL = "admin@perf.local";
+    private static final String JAR_NAME = "expense-manager-1.0.0.jar";
+
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(1))
+        .build();
+
+    private final List<String> modes = Arrays.asList(System.getProperty("perf.modes", "jvm,aot,cds,native").split(","));
+    private final int runs = Integer.getInteger("perf.runs", 3);
+    private final int port = Integer.getInteger("perf.port", 18080);
+    private final int seedUsers = Integer.getInteger("perf.seed-users", 20);
+    private final int expensesPerUser = Integer.getInteger("perf.expenses-per-user", 50);
+    private final int timeoutSeconds = Integer.getInteger("perf.timeout-seconds", 120);
+    private final String password = System.getProperty("perf.password", "password");
+    private final Path target = Path.of("target").toAbsolutePath();
+    private final Path output = Path.of(System.getProperty("perf.output", "target/perf/startup-results.json"));
+
+    public static void main(String[] args) throws Exception {
+        new StartupBenchmark().run();
+    }
+
+    void run() throws Exception {
+        ObjectNode report = mapper.createObjectNode();
+        report.put("timestamp", Instant.now().toString());
+        report.putObject("config")
+            .put("runs", runs)
+            .put("seedUsers", seedUsers)
+            .put("expensesPerUser", expensesPerUser)
+            .put("javaVersion", System.getProperty("java.version"));
+
+        ObjectNode results = report.putObject("modes");
+        for (String mode : modes) {
+            List<String> command = command(mode.trim());
+            if (command == null) {
+                System.out.println("Modo " + mode + " omitido: falta su artefacto en " + target);
+                continue;
+            }
+            ArrayNode samples = mapper.createArrayNode();
+            for (int i = 0; i < runs; i++) {
+                samples.add(measure(mode, command));
+            }
+            ObjectNode summary = results.putObject(mode);
+            summary.put("readyMs", median(samples, "readyMs"));
+            summary.put("firstLoginMs", median(samples, "firstLoginMs"));
+            summary.put("firstRequestMs", median(samples, "firstRequestMs"));
+            summary.put("rssMb", median(samples, "rssMb"));
+            summary.set("runs", samples);
+        }
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        mapper.writeValue(output.toFile(), report);
+        System.out.println(mapper.writeValueAsString(report));
+        System.out.println("Resultados escritos en " + output.toAbsolutePath());
+    }
+
+    /**
+     * Línea de comandos de cada modo, o null si no está construido
+     */
+    private List<String> command(String mode) {
+        Path jar = target.resolve(JAR_NAME);
+        List<String> command = new ArrayList<>();
+        switch (mode) {
+            case "jvm" -> {
+                if (!Files.exists(jar)) {
+                    return null;
+                }
+                command.addAll(List.of(javaExecutable(), "-jar", jar.toString()));
+            }
+            case "aot" -> {
+                if (!Files.isDirectory(target.resolve("spring-aot"))) {
+                    return null;
+                }
+                command.addAll(List.of(javaExecutable(), "-Dspring.aot.enabled=true", "-jar", jar.toString()));
+            }
+            case "cds" -> {
+                Path application = target.resolve("application");
+                if (!Files.exists(application.resolve("application.jsa"))) {
+                    return null;
+                }
+                command.addAll(List.of(javaExecutable(),
+                    "-XX:SharedArchiveFile=" + application.resolve("application.jsa"),
+                    "-jar", application.resolve(JAR_NAME).toString()));
+            }
+            case "native" -> {
+                Path image = target.resolve("expense-manager");
+                if (!Files.isExecutable(image)) {
+                    return null;
+                }
+                command.add(image.toString());
+            }
+            default -> throw new IllegalArgumentException("Modo desconocido: " + mode);
+        }
+        command.addAll(List.of(
+            "--spring.profiles.active=perf",
+            "--server.port=" + port,
+            "--app.perf.seed.users=" + seedUsers,
+            "--app.perf.seed.expenses-per-user=" + expensesPerUser));
+        return command;
+    }
+
+    /**
+     * Un arranque completo: espera a que la aplicación responda, hace la primera petición y la detiene
+     */
+    private ObjectNode measure(String mode, List<String> command) throws Exception {
+        Path log = Files.createTempFile("startup-" + mode + "-", ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+        try {
+            long deadline = start + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+
+            while (!isUp()) {
+                checkAlive(process, deadline, log);
+                Thread.sleep(10);
+            }
+            long ready = System.nanoTime();
+
+            // El seeder termina después de abrir el puerto: se reintenta hasta que el usuario existe
+            String token;
+            while ((token = login()) == null) {
+                checkAlive(process, deadline, log);
+                Thread.sleep(10);
+            }
+            long loggedIn = System.nanoTime();
+
+            long requestStart = System.nanoTime();
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                    URI.create(baseUrl() + "/api/expenses/my?page=0&size=20"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+            long requestEnd = System.nanoTime();
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Primera petición fallida en modo " + mode
+                    + " (HTTP " + response.statusCode() + ")");
+            }
+
+            ObjectNode sample = mapper.createObjectNode();
+            sample.put("readyMs", millis(ready - start));
+            sample.put("firstLoginMs", millis(loggedIn - start));
+            sample.put("firstRequestMs", millis(requestEnd - requestStart));
+            sample.put("rssMb", residentMemoryMb(process.pid()));
+            System.out.printf("%-7s listo %8.1f ms   login %8.1f ms   primera petición %7.1f ms%n",
+                mode, sample.path("readyMs").asDouble(), sample.path("firstLoginMs").asDouble(),
+                sample.path("firstRequestMs").asDouble());
+            return sample;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            Files.deleteIfExists(log);
+        }
+    }
+
+    private boolean isUp() throws InterruptedException {
+        try {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl() + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(1))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private String login() throws IOException, InterruptedException {
+        ObjectNode credentials = mapper.createObjectNode().put("email", ADMIN_EMAIL).put("password", password);
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl() + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(credentials)))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        return mapper.readTree(response.body()).path("token").asText();
+    }
+
+    private void checkAlive(Process process, long deadline, Path log) throws IOException {
+        if (!process.isAlive() || System.nanoTime() > deadline) {
+            List<String> lines = Files.readAllLines(log);
+            lines.subList(0, Math.max(0, lines.size() - 30)).clear();
+            throw new IllegalStateException("La aplicación no arrancó a tiempo o terminó con error. "
+                + "Últimas líneas del log:\n" + String.join("\n", lines));
+        }
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    /**
+     * Memoria residente del proceso en MB (solo Linux); 0 si no está disponible
+     */
+    private static double residentMemoryMb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return round(Long.parseLong(line.replaceAll("\\D", "")) / 1024.0);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Sin /proc (macOS, Windows)
+        }
+        return 0;
+    }
+
+    private static String javaExecutable() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static double median(ArrayNode samples, String field) {
+        double[] values = new double[samples.size()];
+        for (int i = 0; i < values.length; i++) {
+            JsonNode sample = samples.get(i);
+            values[i] = sample.path(field).asDouble();
+        }
+        Arrays.sort(values);
+        return values.length == 0 ? 0 : values[values.length / 2];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
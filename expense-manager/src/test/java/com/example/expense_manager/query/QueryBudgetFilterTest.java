@@ -0,0 +1,69 @@
+package com.example.expense_manager.query;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitarios para QueryBudgetFilter
+ */
+@DisplayName("Tests de QueryBudgetFilter")
+class QueryBudgetFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    /**
+     * Cadena que simula un controlador que ejecuta el número de sentencias indicado
+     */
+    private static FilterChain executing(int queries) {
+        return (request, response) -> {
+            for (int i = 0; i < queries; i++) {
+                new QueryCountInspector().inspect("select 1");
+            }
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/expenses/{id}");
+        };
+    }
+
+    @Test
+    @DisplayName("Debe registrar las sentencias por endpoint")
+    void shouldRecordQueriesPerEndpoint() throws Exception {
+        QueryBudgetFilter filter = new QueryBudgetFilter(registry, 10, false);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/expenses/7"), new MockHttpServletResponse(), executing(3));
+
+        DistributionSummary summary = registry.get("http.server.requests.queries")
+            .tag("uri", "/api/expenses/{id}")
+            .summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Debe solo avisar al superar el presupuesto en modo no estricto")
+    void shouldOnlyWarnWhenNotStrict() throws Exception {
+        QueryBudgetFilter filter = new QueryBudgetFilter(registry, 2, false);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/expenses/7"), new MockHttpServletResponse(), executing(5));
+
+        assertThat(QueryCounter.count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Debe fallar al superar el presupuesto en modo estricto")
+    void shouldFailWhenStrict() {
+        QueryBudgetFilter filter = new QueryBudgetFilter(registry, 2, true);
+
+        assertThatThrownBy(() -> filter.doFilter(
+                new MockHttpServletRequest("GET", "/api/expenses/7"), new MockHttpServletResponse(), executing(3)))
+            .isInstanceOf(QueryBudgetExceededException.class)
+            .hasMessageContaining("/api/expenses/{id}");
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.expense_manager.reactive;
+
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.dto.ExpenseSummaryResponse;
+import com.example.expense_manager.entity.User;
+import com.example.expense_manager.repository.UserRepository;
+import com.example.expense_manager.service.ExpenseService;
+import com.example.expense_manager.service.ExpenseSummaryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de integración para ReactiveExpenseService
+ * Con el perfil perf las dos lecturas van contra la misma base H2; deben devolver lo mismo.
+ */
+@SpringBootTest(properties = {
+    "app.perf.seed.users=3",
+    "app.perf.seed.expenses-per-user=10",
+    "app.warmup.query-iterations=2",
+    "app.warmup.iterations=50"
+})
+@ActiveProfiles("perf")
+@DisplayName("Tests de ReactiveExpenseService")
+class ReactiveExpenseServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private ReactiveExpenseService reactiveExpenseService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseSummaryService summaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByEmail("perf-user-1@perf.local").orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Debe paginar los gastos del usuario igual que la lectura bloqueante")
+    void shouldPageLikeBlockingRead() {
+        for (Pageable pageable : List.of(PageRequest.of(0, 4, Sort.by(Sort.Direction.DESC, "date")),
+                PageRequest.of(2, 4, Sort.by(Sort.Direction.DESC, "date")),
+                PageRequest.of(5, 4, Sort.by(Sort.Direction.DESC, "date")))) {
+            Page<ExpenseResponse> reactive = reactiveExpenseService.getExpensesByUserId(user, pageable).block(TIMEOUT);
+            Page<ExpenseResponse> blocking = expenseService.getExpensesByUserId(user.getId(), pageable);
+
+            assertThat(reactive.getTotalElements()).isEqualTo(10);
+            assertThat(reactive.getTotalElements()).isEqualTo(blocking.getTotalElements());
+            assertThat(reactive.getContent()).extracting(ExpenseResponse::getDate)
+                .containsExactlyElementsOf(blocking.getContent().stream().map(ExpenseResponse::getDate).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe devolver los mismos gastos por rango de fechas")
+    void shouldReturnSameExpensesByDateRange() {
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(180);
+
+        List<ExpenseResponse> reactive = reactiveExpenseService
+            .getExpensesByUserAndDateRange(user, startDate, endDate).block(TIMEOUT);
+        List<ExpenseResponse> blocking = expenseService.getExpensesByUserAndDateRange(user.getId(), startDate, endDate);
+
+        assertThat(sortById(reactive)).isEqualTo(sortById(blocking));
+        assertThat(reactive).allSatisfy(expense -> {
+            assertThat(expense.getUserId()).isEqualTo(user.getId());
+            assertThat(expense.getUserName()).isEqualTo(user.getName());
+        });
+    }
+
+    @Test
+    @DisplayName("Debe calcular el mismo resumen anual")
+    void shouldBuildSameYearSummary() {
+        int year = LocalDate.now().getYear();
+
+        ExpenseSummaryResponse reactive = reactiveExpenseService.getYearSummary(user, year).block(TIMEOUT);
+        ExpenseSummaryResponse blocking = summaryService.getYearSummary(user.getId(), year);
+
+        assertThat(reactive).isEqualTo(blocking);
+    }
+
+    private static List<ExpenseResponse> sortById(List<ExpenseResponse> expenses) {
+        return expenses.stream().sorted(Comparator.comparing(ExpenseResponse::getId)).toList();
+    }
+}
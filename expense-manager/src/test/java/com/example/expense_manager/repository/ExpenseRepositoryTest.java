@@ -1,9 +1,12 @@
 package com.example.expense_manager.repository;
 
+import com.example.expense_manager.dto.ExpenseField;
+import com.example.expense_manager.dto.ExpenseResponse;
 import com.example.expense_manager.entity.Expense;
 import com.example.expense_manager.entity.User;
 import com.example.expense_manager.enums.ExpenseCategory;
 import com.example.expense_manager.enums.UserRole;
+import com.example.expense_manager.query.QueryCounter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,8 +15,10 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -37,6 +42,7 @@ class ExpenseRepositoryTest {
     @BeforeEach
     void setUp() {
         testUser = new User();
+        testUser.setBaseCurrency("EUR");
         testUser.setEmail("test@example.com");
         testUser.setName("Test User");
         testUser.setPassword("password");
@@ -44,6 +50,7 @@ class ExpenseRepositoryTest {
         testUser = entityManager.persistAndFlush(testUser);
 
         testExpense = new Expense();
+        testExpense.setCurrency("EUR");
         testExpense.setAmount(new BigDecimal("50.00"));
         testExpense.setCategory(ExpenseCategory.COMIDA);
         testExpense.setDate(LocalDate.of(2024, 1, 15));
@@ -68,12 +75,15 @@ class ExpenseRepositoryTest {
         entityManager.persistAndFlush(testExpense);
 
         Expense expense2 = new Expense();
+        expense2.setCurrency("EUR");
         expense2.setAmount(new BigDecimal("30.00"));
         expense2.setCategory(ExpenseCategory.TRANSPORTE);
         expense2.setDate(LocalDate.of(2024, 1, 16));
         expense2.setDescription("Taxi");
         expense2.setUser(testUser);
         entityManager.persistAndFlush(expense2);
+        entityManager.clear();
+        QueryCounter.reset();
 
         Page<Expense> expenses = expenseRepository.findByUserId(
                 testUser.getId(),
@@ -82,6 +92,8 @@ class ExpenseRepositoryTest {
 
         assertThat(expenses.getContent()).hasSize(2);
         assertThat(expenses.getTotalElements()).isEqualTo(2);
+        // Página completa en la primera consulta: no hace falta el COUNT
+        assertThat(QueryCounter.count()).isEqualTo(1);
     }
 
     @Test
@@ -90,6 +102,7 @@ class ExpenseRepositoryTest {
         entityManager.persistAndFlush(testExpense);
 
         Expense expense2 = new Expense();
+        expense2.setCurrency("EUR");
         expense2.setAmount(new BigDecimal("25.00"));
         expense2.setCategory(ExpenseCategory.OCIO);
         expense2.setDate(LocalDate.of(2024, 1, 20));
@@ -98,6 +111,7 @@ class ExpenseRepositoryTest {
         entityManager.persistAndFlush(expense2);
 
         Expense expense3 = new Expense();
+        expense3.setCurrency("EUR");
         expense3.setAmount(new BigDecimal("15.00"));
         expense3.setCategory(ExpenseCategory.COMIDA);
         expense3.setDate(LocalDate.of(2024, 2, 5));
@@ -107,18 +121,25 @@ class ExpenseRepositoryTest {
 
         LocalDate startDate = LocalDate.of(2024, 1, 1);
         LocalDate endDate = LocalDate.of(2024, 1, 31);
+        entityManager.clear();
+        QueryCounter.reset();
 
         List<Expense> expenses = expenseRepository.findByDateBetween(startDate, endDate);
 
         assertThat(expenses).hasSize(2);
         assertThat(expenses).extracting(Expense::getDescription)
                 .containsExactlyInAnyOrder("Almuerzo", "Cine");
+        // El usuario llega en la misma consulta: leerlo no dispara consultas extra (N+1)
+        assertThat(expenses).extracting(expense -> expense.getUser().getName())
+                .containsOnly("Test User");
+        assertThat(QueryCounter.count()).isEqualTo(1);
     }
 
     @Test
     @DisplayName("Debe encontrar gastos de usuario por rango de fechas")
     void shouldFindExpensesByUserAndDateRange() {
         User otherUser = new User();
+        otherUser.setBaseCurrency("EUR");
         otherUser.setEmail("other@example.com");
         otherUser.setName("Other User");
         otherUser.setPassword("password");
@@ -128,6 +149,7 @@ class ExpenseRepositoryTest {
         entityManager.persistAndFlush(testExpense);
 
         Expense otherExpense = new Expense();
+        otherExpense.setCurrency("EUR");
         otherExpense.setAmount(new BigDecimal("100.00"));
         otherExpense.setCategory(ExpenseCategory.COMIDA);
         otherExpense.setDate(LocalDate.of(2024, 1, 15));
@@ -149,6 +171,7 @@ class ExpenseRepositoryTest {
     @DisplayName("Debe eliminar gastos al eliminar usuario (CASCADE)")
     void shouldDeleteExpensesWhenUserIsDeleted() {
         Expense saved = entityManager.persistAndFlush(testExpense);
+        testUser.getExpenses().add(saved);
         Long expenseId = saved.getId();
         Long userId = testUser.getId();
 
@@ -157,4 +180,126 @@ class ExpenseRepositoryTest {
 
         assertThat(expenseRepository.findById(expenseId)).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debe eliminar en bloque solo gastos del propietario")
+    void shouldBulkDeleteOnlyOwnerExpenses() {
+        User otherUser = new User();
+        otherUser.setBaseCurrency("EUR");
+        otherUser.setEmail("other@example.com");
+        otherUser.setName("Other User");
+        otherUser.setPassword("password");
+        otherUser.setRole(UserRole.ROLE_USER);
+        otherUser = entityManager.persistAndFlush(otherUser);
+
+        Expense own = entityManager.persistAndFlush(testExpense);
+
+        Expense otherExpense = new Expense();
+        otherExpense.setCurrency("EUR");
+        otherExpense.setAmount(new BigDecimal("100.00"));
+        otherExpense.setCategory(ExpenseCategory.COMIDA);
+        otherExpense.setDate(LocalDate.of(2024, 1, 15));
+        otherExpense.setDescription("Restaurante");
+        otherExpense.setUser(otherUser);
+        otherExpense = entityManager.persistAndFlush(otherExpense);
+        entityManager.clear();
+
+        int deleted = expenseRepository.deleteByUserIdAndIdIn(
+                testUser.getId(), List.of(own.getId(), otherExpense.getId()));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(expenseRepository.findById(own.getId())).isEmpty();
+        assertThat(expenseRepository.findById(otherExpense.getId())).isPresent();
+    }
+
+    @Test
+    @DisplayName("Debe recategorizar en bloque por filtro de fechas y categoría")
+    void shouldBulkUpdateCategoryByFilter() {
+        entityManager.persistAndFlush(testExpense);
+
+        Expense expense2 = new Expense();
+        expense2.setCurrency("EUR");
+        expense2.setAmount(new BigDecimal("25.00"));
+        expense2.setCategory(ExpenseCategory.OCIO);
+        expense2.setDate(LocalDate.of(2024, 1, 20));
+        expense2.setDescription("Cine");
+        expense2.setUser(testUser);
+        entityManager.persistAndFlush(expense2);
+        entityManager.clear();
+
+        int updated = expenseRepository.updateCategoryByUserIdAndFilter(
+                testUser.getId(), ExpenseCategory.COMIDA,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                ExpenseCategory.OTROS, 5, null);
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(expenseRepository.findByUserIdAndDateBetween(
+                testUser.getId(), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)))
+                .extracting(Expense::getCategory)
+                .containsExactlyInAnyOrder(ExpenseCategory.OTROS, ExpenseCategory.OCIO);
+    }
+
+    @Test
+    @DisplayName("Debe devolver los cambios posteriores al cursor en orden de secuencia")
+    void shouldFindChangesAfterCursor() {
+        testExpense.setChangeSeq(2);
+        Expense first = entityManager.persistAndFlush(testExpense);
+        Expense second = newExpense(2);
+        Expense third = newExpense(3);
+
+        List<Expense> fromStart = expenseRepository.findChangesAfter(testUser.getId(), 0, 0, PageRequest.of(0, 10));
+        List<Expense> afterFirst = expenseRepository.findChangesAfter(
+                testUser.getId(), 2, first.getId(), PageRequest.of(0, 10));
+
+        assertThat(fromStart).extracting(Expense::getId).containsExactly(first.getId(), second.getId(), third.getId());
+        assertThat(afterFirst).extracting(Expense::getId).containsExactly(second.getId(), third.getId());
+    }
+
+    @Test
+    @DisplayName("Debe leer solo los campos pedidos, el ID y los de ordenación")
+    void shouldFindOnlyRequestedFields() {
+        entityManager.persistAndFlush(testExpense);
+        newExpense(1);
+        entityManager.clear();
+        QueryCounter.reset();
+
+        Page<ExpenseResponse> page = expenseRepository.findFieldsByUserId(testUser.getId(),
+                EnumSet.of(ExpenseField.AMOUNT, ExpenseField.CATEGORY),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "date")));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent())
+                .extracting(ExpenseResponse::getDate)
+                .containsExactly(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 15));
+        ExpenseResponse last = page.getContent().get(1);
+        assertThat(last.getId()).isEqualTo(testExpense.getId());
+        assertThat(last.getAmount()).isEqualByComparingTo("50.00");
+        assertThat(last.getDescription()).isNull();
+        assertThat(last.getUserName()).isNull();
+        assertThat(QueryCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe unir el usuario solo cuando se pide su nombre")
+    void shouldJoinUserOnlyForUserName() {
+        entityManager.persistAndFlush(testExpense);
+        entityManager.clear();
+
+        List<ExpenseResponse> expenses = expenseRepository.findFieldsByUserIdAndDateBetween(testUser.getId(),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), EnumSet.of(ExpenseField.USER_NAME));
+
+        assertThat(expenses).extracting(ExpenseResponse::getUserName).containsExactly("Test User");
+        assertThat(expenses.get(0).getUserId()).isNull();
+    }
+
+    private Expense newExpense(long changeSeq) {
+        Expense expense = new Expense();
+        expense.setCurrency("EUR");
+        expense.setAmount(new BigDecimal("10.00"));
+        expense.setCategory(ExpenseCategory.OCIO);
+        expense.setDate(LocalDate.of(2024, 2, 1));
+        expense.setUser(testUser);
+        expense.setChangeSeq(changeSeq);
+        return entityManager.persistAndFlush(expense);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.expense_manager.repository;
+
+import com.example.expense_manager.entity.User;
+import com.example.expense_manager.enums.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests para la caché de segundo nivel de User
+ * Sin transacción de test: cada llamada al repositorio usa su propia sesión, como en las peticiones reales.
+ * La búsqueda por natural id necesita una sesión abierta y se hace en su propia transacción de solo lectura.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Tests de la caché de segundo nivel de User")
+class UserCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        user = new User();
+        user.setBaseCurrency("EUR");
+        user.setEmail("cache@example.com");
+        user.setName("Cache User");
+        user.setPassword("password");
+        user.setRole(UserRole.ROLE_USER);
+        user = userRepository.save(user);
+
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Debe servir desde la caché la segunda lectura por ID y por email")
+    void shouldHitCacheOnRepeatedReads() {
+        userRepository.findById(user.getId());
+        assertThat(region(User.CACHE_REGION).getMissCount()).isEqualTo(1);
+        assertThat(region(User.CACHE_REGION).getPutCount()).isEqualTo(1);
+
+        assertThat(userRepository.findById(user.getId())).isPresent();
+        assertThat(findByEmail("cache@example.com")).isPresent();
+        assertThat(findByEmail("cache@example.com")).isPresent();
+
+        assertThat(region(User.CACHE_REGION).getHitCount()).isGreaterThanOrEqualTo(2);
+        // Cargar por ID ya guarda el natural id: las dos búsquedas por email aciertan
+        assertThat(region(User.NATURAL_ID_CACHE_REGION).getHitCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe actualizar la entrada cacheada al modificar el usuario")
+    void shouldRefreshCacheOnUpdate() {
+        userRepository.findById(user.getId());
+
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+        loaded.setName("Nombre nuevo");
+        userRepository.save(loaded);
+        statistics.clear();
+
+        assertThat(userRepository.findById(user.getId())).get()
+            .extracting(User::getName).isEqualTo("Nombre nuevo");
+        assertThat(region(User.CACHE_REGION).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe dejar de servir desde la caché al usuario borrado")
+    void shouldEvictOnDelete() {
+        userRepository.findById(user.getId());
+        findByEmail("cache@example.com");
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.getId())).isTrue();
+
+        userRepository.deleteById(user.getId());
+        statistics.clear();
+
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+        assertThat(findByEmail("cache@example.com")).isEmpty();
+        assertThat(region(User.CACHE_REGION).getHitCount()).isZero();
+        assertThat(region(User.NATURAL_ID_CACHE_REGION).getHitCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe vaciar la región al borrar con una sentencia masiva")
+    void shouldEvictOnBulkDelete() {
+        userRepository.findById(user.getId());
+
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> userRepository.deleteUserById(user.getId()));
+
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.getId())).isFalse();
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+    }
+
+    private Optional<User> findByEmail(String email) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> userRepository.findCachedByEmail(email));
+    }
+
+    private CacheRegionStatistics region(String name) {
+        return statistics.getDomainDataRegionStatistics(name);
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.expense_manager.repository;
 
+import com.example.expense_manager.entity.Expense;
 import com.example.expense_manager.entity.User;
+import com.example.expense_manager.enums.ExpenseCategory;
 import com.example.expense_manager.enums.UserRole;
+import com.example.expense_manager.query.QueryCounter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -21,6 +26,9 @@ class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
     @Autowired
     private TestEntityManager entityManager;
 
@@ -29,6 +37,7 @@ class UserRepositoryTest {
     @BeforeEach
     void setUp() {
         testUser = new User();
+        testUser.setBaseCurrency("EUR");
         testUser.setEmail("test@example.com");
         testUser.setName("Test User");
         testUser.setPassword("encodedPassword");
@@ -50,11 +59,14 @@ class UserRepositoryTest {
     @DisplayName("Debe encontrar usuario por email")
     void shouldFindUserByEmail() {
         entityManager.persistAndFlush(testUser);
+        entityManager.clear();
+        QueryCounter.reset();
 
         Optional<User> found = userRepository.findByEmail("test@example.com");
 
         assertThat(found).isPresent();
         assertThat(found.get().getName()).isEqualTo("Test User");
+        assertThat(QueryCounter.count()).isEqualTo(1);
     }
 
     @Test
@@ -69,9 +81,11 @@ class UserRepositoryTest {
     @DisplayName("Debe verificar si existe usuario por email")
     void shouldCheckIfUserExistsByEmail() {
         entityManager.persistAndFlush(testUser);
+        QueryCounter.reset();
 
         assertThat(userRepository.existsByEmail("test@example.com")).isTrue();
         assertThat(userRepository.existsByEmail("noexiste@example.com")).isFalse();
+        assertThat(QueryCounter.count()).isEqualTo(2);
     }
 
     @Test
@@ -80,6 +94,8 @@ class UserRepositoryTest {
         entityManager.persistAndFlush(testUser);
 
         User duplicateUser = new User();
+
+        duplicateUser.setBaseCurrency("EUR");
         duplicateUser.setEmail("test@example.com");
         duplicateUser.setName("Otro Usuario");
         duplicateUser.setPassword("password");
@@ -99,4 +115,30 @@ class UserRepositoryTest {
 
         assertThat(userRepository.findById(userId)).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debe eliminar usuario y gastos con dos sentencias sin cargarlos")
+    void shouldDeleteUserWithBulkStatements() {
+        User saved = entityManager.persistAndFlush(testUser);
+        for (int i = 0; i < 3; i++) {
+            Expense expense = new Expense();
+            expense.setCurrency("EUR");
+            expense.setAmount(new BigDecimal("10.00"));
+            expense.setCategory(ExpenseCategory.COMIDA);
+            expense.setDate(LocalDate.of(2024, 1, i + 1));
+            expense.setUser(saved);
+            entityManager.persist(expense);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        QueryCounter.reset();
+
+        int deleted = expenseRepository.deleteAllByUserId(saved.getId());
+        int users = userRepository.deleteUserById(saved.getId());
+
+        assertThat(deleted).isEqualTo(3);
+        assertThat(users).isEqualTo(1);
+        assertThat(QueryCounter.count()).isEqualTo(2);
+        assertThat(userRepository.findById(saved.getId())).isEmpty();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.expense_manager.security;
+
+import com.example.expense_manager.perf.PerfDataSeeder;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del acceso a los endpoints de Actuator con el perfil perf (usuarios sintéticos)
+ * AutoConfigureObservability activa el registro de Prometheus, que los tests desactivan por defecto.
+ */
+@SpringBootTest(properties = {
+    "app.perf.seed.users=1",
+    "app.perf.seed.expenses-per-user=1",
+    "app.warmup.enabled=false"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("perf")
+@DisplayName("Tests de seguridad de Actuator")
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Las regiones JCache se comparten entre todos los contextos de test de la JVM:
+     * se vacían para no leer usuarios de otra base con el mismo ID
+     */
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar el scraping de Prometheus sin token")
+    void shouldRejectAnonymousPrometheusScrape() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar el scraping de Prometheus de un usuario sin rol ADMIN")
+    void shouldRejectPrometheusScrapeForUsers() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")
+                .header(HttpHeaders.AUTHORIZATION, bearer("perf-user-1@perf.local")))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Debe servir las métricas de Prometheus a un administrador")
+    void shouldServePrometheusToAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")
+                .header(HttpHeaders.AUTHORIZATION, bearer(PerfDataSeeder.ADMIN_EMAIL)))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("jvm_memory_used_bytes")));
+    }
+
+    @Test
+    @DisplayName("Debe mantener health accesible sin token")
+    void shouldKeepHealthPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health/liveness"))
+            .andExpect(status().isOk());
+    }
+
+    private String bearer(String email) {
+        return "Bearer " + tokenProvider.generateTokenFromEmail(email);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.entity.CategoryBaseline;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.repository.CategoryBaselineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ExpenseAnomalyDetector
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de ExpenseAnomalyDetector")
+class ExpenseAnomalyDetectorTest {
+
+    @Mock
+    private CategoryBaselineRepository baselineRepository;
+
+    private ExpenseAnomalyDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new ExpenseAnomalyDetector(baselineRepository, 0.1, 3.0, 5);
+    }
+
+    @Test
+    @DisplayName("No debe marcar gastos sin historial suficiente")
+    void shouldNotFlagWithoutEnoughHistory() {
+        for (int i = 0; i < 5; i++) {
+            ExpenseAnomalyDetector.AnomalyScore score =
+                    detector.score(1L, ExpenseCategory.COMIDA, new BigDecimal("1000.00"));
+            assertThat(score.anomalous()).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe marcar un gasto muy superior al historial")
+    void shouldFlagLargeDeviation() {
+        for (int i = 0; i < 20; i++) {
+            detector.score(1L, ExpenseCategory.COMIDA, new BigDecimal(i % 2 == 0 ? "10.00" : "12.00"));
+        }
+
+        ExpenseAnomalyDetector.AnomalyScore normal =
+                detector.score(1L, ExpenseCategory.COMIDA, new BigDecimal("11.00"));
+        ExpenseAnomalyDetector.AnomalyScore unusual =
+                detector.score(1L, ExpenseCategory.COMIDA, new BigDecimal("500.00"));
+
+        assertThat(normal.anomalous()).isFalse();
+        assertThat(unusual.anomalous()).isTrue();
+        assertThat(unusual.score()).isGreaterThan(normal.score());
+    }
+
+    @Test
+    @DisplayName("Debe mantener historiales separados por categoría")
+    void shouldKeepCategoriesIndependent() {
+        for (int i = 0; i < 20; i++) {
+            detector.score(1L, ExpenseCategory.COMIDA, new BigDecimal("10.00"));
+        }
+
+        ExpenseAnomalyDetector.AnomalyScore score =
+                detector.score(1L, ExpenseCategory.TRANSPORTE, new BigDecimal("500.00"));
+
+        assertThat(score.anomalous()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe persistir solo los historiales modificados")
+    void shouldPersistOnlyDirtyStats() {
+        when(baselineRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        detector.score(1L, ExpenseCategory.COMIDA, new BigDecimal("10.00"));
+
+        detector.persist();
+        detector.persist();
+
+        verify(baselineRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("Debe actualizar la fila existente del par y no bloquear el resto si una fila falla")
+    void shouldUpsertRowByRow() {
+        // En el primer intento no hay fila; otra instancia la inserta antes del segundo
+        when(baselineRepository.findByUserIdAndCategory(1L, ExpenseCategory.COMIDA))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new CategoryBaseline(7L, 1L, ExpenseCategory.COMIDA, 1, 0.0, 0.0, null)));
+        when(baselineRepository.save(argThat(b -> b != null && b.getCategory() == ExpenseCategory.OCIO)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(baselineRepository.save(argThat(b -> b != null && b.getCategory() == ExpenseCategory.COMIDA)))
+                .thenThrow(new IllegalStateException("fila duplicada"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        detector.score(1L, ExpenseCategory.COMIDA, new BigDecimal("10.00"));
+        detector.score(1L, ExpenseCategory.OCIO, new BigDecimal("10.00"));
+
+        detector.persist();
+        detector.persist();
+
+        verify(baselineRepository, times(1)).save(argThat(b -> b != null && b.getCategory() == ExpenseCategory.OCIO));
+        verify(baselineRepository).save(argThat(b -> b != null && Long.valueOf(7L).equals(b.getId())));
+    }
+
+    @Test
+    @DisplayName("No debe modificar el historial si la transacción del gasto no se confirma")
+    void shouldUpdateOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int i = 0; i < 20; i++) {
+                detector.score(1L, ExpenseCategory.COMIDA, new BigDecimal("10.00"));
+            }
+        } finally {
+            // Rollback: no se llama a afterCommit
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(detector.score(1L, ExpenseCategory.COMIDA, new BigDecimal("500.00")).anomalous()).isFalse();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            detector.score(1L, ExpenseCategory.COMIDA, new BigDecimal("10.00"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        when(baselineRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        detector.persist();
+        // Solo el gasto fuera de transacción y el confirmado
+        verify(baselineRepository).save(argThat(b -> b != null && b.getSampleCount() == 2));
+    }
+
+    @Test
+    @DisplayName("Debe puntuar un par aún no cargado sin leer la base")
+    void shouldNotReadBaselineOnMiss() {
+        assertThat(detector.score(1L, ExpenseCategory.OCIO, new BigDecimal("400.00"))).isEqualTo(
+                ExpenseAnomalyDetector.AnomalyScore.NONE);
+
+        verifyNoInteractions(baselineRepository);
+    }
+
+    @Test
+    @DisplayName("Debe recoger al sincronizar los historiales escritos por otras instancias")
+    void shouldPickUpOtherInstancesBaselinesOnSynchronize() {
+        CategoryBaseline comida = new CategoryBaseline(1L, 1L, ExpenseCategory.COMIDA, 50, Math.log1p(20.0), 0.01, null);
+        CategoryBaseline ocio = new CategoryBaseline(2L, 1L, ExpenseCategory.OCIO, 50, Math.log1p(20.0), 0.01, null);
+        when(baselineRepository.findAll()).thenReturn(List.of()).thenReturn(List.of(comida, ocio));
+        detector.load();
+        // Par puntuado vacío en esta instancia antes de conocer la fila de la otra
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            detector.score(1L, ExpenseCategory.OCIO, new BigDecimal("400.00"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        detector.synchronize();
+
+        assertThat(detector.score(1L, ExpenseCategory.COMIDA, new BigDecimal("400.00")).anomalous()).isTrue();
+        assertThat(detector.score(1L, ExpenseCategory.OCIO, new BigDecimal("400.00")).anomalous()).isTrue();
+        verify(baselineRepository, never()).findByUserIdAndCategory(any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe cargar el estado persistido al arrancar")
+    void shouldLoadPersistedState() {
+        CategoryBaseline baseline = new CategoryBaseline(1L, 1L, ExpenseCategory.OCIO, 50, Math.log1p(20.0), 0.01, null);
+        when(baselineRepository.findAll()).thenReturn(List.of(baseline));
+
+        detector.load();
+
+        assertThat(detector.score(1L, ExpenseCategory.OCIO, new BigDecimal("400.00")).anomalous()).isTrue();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.entity.Expense;
+import com.example.expense_manager.entity.ExpenseTombstone;
+import com.example.expense_manager.entity.User;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.enums.UserRole;
+import com.example.expense_manager.exeption.InvalidCursorException;
+import com.example.expense_manager.repository.ExpenseTombstoneRepository;
+import com.example.expense_manager.shard.ShardRouter;
+import com.example.expense_manager.shard.ShardingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests para ExpenseChangeLog
+ */
+@DataJpaTest(properties = "app.sync.tombstone-retention-days=30")
+@Import({ExpenseChangeLog.class, ExpenseChangeLogTest.Config.class})
+@DisplayName("Tests de ExpenseChangeLog")
+class ExpenseChangeLogTest {
+
+    @Autowired
+    private ExpenseChangeLog changeLog;
+
+    @Autowired
+    private ExpenseTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setBaseCurrency("EUR");
+        testUser.setEmail("test@example.com");
+        testUser.setName("Test User");
+        testUser.setPassword("password");
+        testUser.setRole(UserRole.ROLE_USER);
+        testUser = entityManager.persistAndFlush(testUser);
+    }
+
+    @Test
+    @DisplayName("Debe reservar valores consecutivos de la secuencia del usuario")
+    void shouldReserveConsecutiveValues() {
+        assertThat(changeLog.reserve(testUser.getId(), 3)).isEqualTo(1);
+        assertThat(changeLog.reserve(testUser.getId(), 1)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Debe marcar como borrados solo los gastos del filtro")
+    void shouldRecordDeletionsByFilter() {
+        Expense food = persistExpense(ExpenseCategory.COMIDA);
+        persistExpense(ExpenseCategory.OCIO);
+
+        int recorded = changeLog.recordDeletions(testUser.getId(), ExpenseCategory.COMIDA,
+            LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), 9);
+
+        assertThat(recorded).isEqualTo(1);
+        assertThat(tombstoneRepository.findChangesAfter(testUser.getId(), 0, 0, PageRequest.of(0, 10)))
+            .extracting(ExpenseTombstone::getExpenseId, ExpenseTombstone::getChangeSeq)
+            .containsExactly(tuple(food.getId(), 9L));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar cursores mal formados o más antiguos que la retención")
+    void shouldRejectInvalidOrExpiredCursors() {
+        long now = System.currentTimeMillis();
+        String expired = new ExpenseChangeCursor(5, false, 1, now - Duration.ofDays(30).toMillis()).encode();
+        String recent = new ExpenseChangeCursor(5, true, 1, now - Duration.ofDays(1).toMillis()).encode();
+
+        assertThat(changeLog.resolve(null, now)).isEqualTo(ExpenseChangeCursor.start(now));
+        assertThat(changeLog.resolve(recent, now).deletion()).isTrue();
+        assertThatThrownBy(() -> changeLog.resolve(expired, now)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> changeLog.resolve("no-es-un-cursor", now)).isInstanceOf(InvalidCursorException.class);
+    }
+
+    private Expense persistExpense(ExpenseCategory category) {
+        Expense expense = new Expense();
+        expense.setCurrency("EUR");
+        expense.setAmount(new BigDecimal("10.00"));
+        expense.setCategory(category);
+        expense.setDate(LocalDate.of(2024, 1, 15));
+        expense.setUser(testUser);
+        return entityManager.persistAndFlush(expense);
+    }
+
+    @TestConfiguration
+    static class Config {
+        // Sin sharding: un solo shard y todo en el hilo de quien llama
+        @Bean
+        ShardRouter shardRouter() {
+            return new ShardRouter(new ShardingProperties(), null, null);
+        }
+    }
+}
@@ -1,27 +1,46 @@
 package com.example.expense_manager.service;
 
+import com.example.expense_manager.archive.ArchivedExpense;
+import com.example.expense_manager.archive.ExpenseColdStorage;
+import com.example.expense_manager.dto.BulkOperationResponse;
+import com.example.expense_manager.dto.ExpenseChangesResponse;
+import com.example.expense_manager.dto.ExpenseBulkRequest;
 import com.example.expense_manager.dto.ExpenseRequest;
 import com.example.expense_manager.dto.ExpenseResponse;
 import com.example.expense_manager.entity.Expense;
+import com.example.expense_manager.entity.ExpenseTombstone;
 import com.example.expense_manager.entity.User;
 import com.example.expense_manager.enums.ExpenseCategory;
 import com.example.expense_manager.enums.UserRole;
+import com.example.expense_manager.event.ExpenseDeletedEvent;
+import com.example.expense_manager.event.ExpensesBulkChangedEvent;
+import com.example.expense_manager.exeption.BadRequestException;
 import com.example.expense_manager.exeption.ResourceNotFoundException;
 import com.example.expense_manager.repository.ExpenseRepository;
+import com.example.expense_manager.repository.ExpenseTombstoneRepository;
 import com.example.expense_manager.repository.UserRepository;
+import com.example.expense_manager.shard.ShardRouter;
+import com.example.expense_manager.shard.ShardingProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -37,6 +56,28 @@ class ExpenseServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ExpenseAnomalyDetector anomalyDetector;
+
+    @Mock
+    private FxRateService fxRateService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ExpenseColdStorage coldStorage;
+
+    @Mock
+    private ExpenseChangeLog changeLog;
+
+    @Mock
+    private ExpenseTombstoneRepository tombstoneRepository;
+
+    // Sin sharding: un solo shard y todo en el hilo de quien llama
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), null, null);
+
     @InjectMocks
     private ExpenseService expenseService;
 
@@ -51,6 +92,7 @@ class ExpenseServiceTest {
         testUser.setEmail("test@example.com");
         testUser.setName("Test User");
         testUser.setRole(UserRole.ROLE_USER);
+        testUser.setBaseCurrency("EUR");
 
         testExpense = new Expense();
         testExpense.setId(1L);
@@ -72,6 +114,11 @@ class ExpenseServiceTest {
     @DisplayName("Debe crear gasto correctamente")
     void shouldCreateExpense() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(fxRateService.supports("EUR")).thenReturn(true);
+        when(fxRateService.convert(requestDto.getAmount(), "EUR", "EUR", requestDto.getDate()))
+                .thenReturn(requestDto.getAmount());
+        when(anomalyDetector.score(1L, ExpenseCategory.COMIDA, requestDto.getAmount()))
+                .thenReturn(ExpenseAnomalyDetector.AnomalyScore.NONE);
         when(expenseRepository.save(any(Expense.class))).thenReturn(testExpense);
 
         ExpenseResponse result = expenseService.createExpense(requestDto);
@@ -110,12 +157,100 @@ class ExpenseServiceTest {
     @Test
     @DisplayName("Debe eliminar gasto correctamente")
     void shouldDeleteExpense() {
-        when(expenseRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(expenseRepository).deleteById(1L);
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(testExpense));
+        doNothing().when(expenseRepository).delete(testExpense);
 
         expenseService.deleteExpense(1L);
 
-        verify(expenseRepository).deleteById(1L);
+        verify(expenseRepository).delete(testExpense);
+        verify(changeLog).recordDeletion(eq(1L), eq(1L), anyLong());
+        verify(eventPublisher).publishEvent(new ExpenseDeletedEvent(1L, 1L, testExpense.getDate()));
+    }
+
+    @Test
+    @DisplayName("Debe eliminar en bloque por filtro y publicar el cambio")
+    void shouldBulkDeleteByFilter() {
+        ExpenseBulkRequest bulk = new ExpenseBulkRequest(
+            null, ExpenseCategory.COMIDA, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), null);
+        when(expenseRepository.deleteByUserIdAndFilter(
+            1L, ExpenseCategory.COMIDA, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31)))
+            .thenReturn(4);
+
+        BulkOperationResponse result = expenseService.bulkDeleteExpenses(1L, bulk);
+
+        assertThat(result.getAffected()).isEqualTo(4);
+        verify(eventPublisher).publishEvent(new ExpensesBulkChangedEvent(
+            1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), 4));
+    }
+
+    @Test
+    @DisplayName("No debe publicar cambios si la operación en bloque no afecta a ningún gasto")
+    void shouldNotPublishWhenBulkUpdateAffectsNothing() {
+        ExpenseBulkRequest bulk = new ExpenseBulkRequest(
+            List.of(99L), null, null, null, ExpenseCategory.OTROS);
+        when(expenseRepository.findDateRangeByUserIdAndIdIn(1L, List.of(99L))).thenReturn(null);
+
+        BulkOperationResponse result = expenseService.bulkUpdateExpenses(1L, bulk);
+
+        assertThat(result.getAffected()).isZero();
+        verify(expenseRepository, never()).updateCategoryByUserIdAndIdIn(any(), any(), any(), anyLong(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar operaciones en bloque con IDs y filtro a la vez")
+    void shouldRejectBulkWithIdsAndFilter() {
+        ExpenseBulkRequest bulk = new ExpenseBulkRequest(
+            List.of(1L), null, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null);
+
+        assertThatThrownBy(() -> expenseService.bulkDeleteExpenses(1L, bulk))
+            .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(expenseRepository);
+    }
+
+    @Test
+    @DisplayName("Debe marcar como baja para el usuario anterior un gasto reasignado")
+    void shouldRecordDeletionForPreviousUserWhenReassigned() {
+        User otherUser = new User();
+        otherUser.setId(2L);
+        otherUser.setName("Other User");
+        requestDto.setUserId(2L);
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(testExpense));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(otherUser));
+        when(changeLog.reserveEach(List.of(1L, 2L))).thenReturn(Map.of(1L, 7L, 2L, 3L));
+        when(expenseRepository.save(testExpense)).thenReturn(testExpense);
+
+        expenseService.updateExpense(1L, requestDto);
+
+        verify(changeLog).recordDeletion(1L, 1L, 7L);
+        assertThat(testExpense.getChangeSeq()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Debe mezclar cambios y bajas en orden y paginar por cursor")
+    void shouldMergeChangesAndDeletionsByCursor() {
+        ExpenseChangeCursor since = new ExpenseChangeCursor(4, false, 1, 1000);
+        when(changeLog.resolve(eq(since.encode()), anyLong())).thenReturn(since);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        Expense moved = new Expense();
+        moved.setId(9L);
+        moved.setUser(testUser);
+        moved.setChangeSeq(7);
+        testExpense.setChangeSeq(5);
+        when(expenseRepository.findChangesAfter(eq(1L), eq(4L), eq(1L), any()))
+            .thenReturn(List.of(testExpense, moved));
+        when(tombstoneRepository.findChangesAfter(eq(1L), eq(4L), eq(Long.MIN_VALUE), any()))
+            .thenReturn(List.of(new ExpenseTombstone(1L, 9L, 1L, 6, null),
+                new ExpenseTombstone(2L, 8L, 1L, 7, null)));
+
+        ExpenseChangesResponse page = expenseService.getChanges(1L, since.encode(), 3);
+
+        // El gasto 9 salió y volvió a entrar: solo cuenta como cambiado
+        assertThat(page.getChanged()).extracting(ExpenseResponse::getId).containsExactly(1L, 9L);
+        assertThat(page.getDeletedIds()).isEmpty();
+        assertThat(page.isHasMore()).isTrue();
+        ExpenseChangeCursor next = ExpenseChangeCursor.decode(page.getNextCursor());
+        assertThat(next).isEqualTo(new ExpenseChangeCursor(7, false, 9, 1000));
     }
 
     @Test
@@ -126,4 +261,25 @@ class ExpenseServiceTest {
         assertThat(expenseService.isOwner(1L, "test@example.com")).isTrue();
         assertThat(expenseService.isOwner(1L, "other@example.com")).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debe unir los gastos archivados a los de la base de datos en un rango de fechas")
+    void shouldIncludeArchivedExpensesInDateRange() {
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        LocalDate end = LocalDate.of(2024, 12, 31);
+        ArchivedExpense archived = new ArchivedExpense(7L, 1L, new BigDecimal("12.50"), "EUR",
+                ExpenseCategory.TRANSPORTE, LocalDate.of(2021, 3, 2), null, null, false, null);
+        ArchivedExpense stillInDatabase = new ArchivedExpense(1L, 1L, new BigDecimal("50.00"), "EUR",
+                ExpenseCategory.COMIDA, LocalDate.of(2024, 1, 15), "Almuerzo", null, false, null);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.findByUserIdAndDateBetween(1L, start, end)).thenReturn(List.of(testExpense));
+        when(coldStorage.find(1L, start, end)).thenReturn(List.of(archived, stillInDatabase));
+        when(userRepository.findAllById(Set.of(1L))).thenReturn(List.of(testUser));
+
+        List<ExpenseResponse> result = expenseService.getExpensesByUserAndDateRange(1L, start, end);
+
+        assertThat(result).extracting(ExpenseResponse::getId).containsExactly(7L, 1L);
+        assertThat(result.get(0).getUserName()).isEqualTo("Test User");
+        assertThat(result.get(0).getCategory()).isEqualTo(ExpenseCategory.TRANSPORTE);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.dto.ExpenseStatisticsResponse;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.exeption.BadRequestException;
+import com.example.expense_manager.repository.ExpenseRepository;
+import com.example.expense_manager.repository.projection.ExpenseAmountView;
+import com.example.expense_manager.shard.ShardContext;
+import com.example.expense_manager.shard.ShardRouter;
+import com.example.expense_manager.shard.ShardingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios para ExpenseStatisticsService
+ */
+@DisplayName("Tests de ExpenseStatisticsService")
+class ExpenseStatisticsServiceTest {
+
+    private ExpenseRepository expenseRepository;
+    private FxRateService fxRateService;
+    private ShardRouter shardRouter;
+
+    @BeforeEach
+    void setUp() {
+        expenseRepository = mock(ExpenseRepository.class);
+        fxRateService = mock(FxRateService.class);
+        when(fxRateService.getReferenceCurrency()).thenReturn("EUR");
+        when(fxRateService.convert(anyDouble(), anyString(), anyString(), any(LocalDate.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (shardRouter != null) {
+            shardRouter.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe agrupar los montos por mes y por categoría")
+    void shouldBucketAmountsByMonthAndCategory() {
+        when(expenseRepository.streamAmountsByDateBetween(any(), any())).thenAnswer(invocation -> Stream.of(
+            row("2024-01-10", ExpenseCategory.COMIDA, "10.00"),
+            row("2024-01-31", ExpenseCategory.OCIO, "30.00"),
+            row("2024-03-01", ExpenseCategory.COMIDA, "20.00")));
+
+        ExpenseStatisticsResponse response = service(1).getStatistics(YearMonth.of(2024, 1), YearMonth.of(2024, 3));
+
+        assertThat(response.getOverall().getCount()).isEqualTo(3);
+        assertThat(response.getByMonth()).containsOnlyKeys(
+            YearMonth.of(2024, 1), YearMonth.of(2024, 2), YearMonth.of(2024, 3));
+        assertThat(response.getByMonth().get(YearMonth.of(2024, 1)).getCount()).isEqualTo(2);
+        assertThat(response.getByMonth().get(YearMonth.of(2024, 2)).getCount()).isZero();
+        assertThat(response.getByMonth().get(YearMonth.of(2024, 3)).getMax()).isEqualByComparingTo("20.00");
+        assertThat(response.getByCategory().get(ExpenseCategory.COMIDA).getCount()).isEqualTo(2);
+        assertThat(response.getByCategory().get(ExpenseCategory.OCIO).getMin()).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    @DisplayName("Debe rechazar rangos invertidos o de más de MAX_MONTHS meses sin consultar la base")
+    void shouldRejectInvalidRanges() {
+        ExpenseStatisticsService service = service(1);
+
+        assertThatThrownBy(() -> service.getStatistics(YearMonth.of(2024, 2), YearMonth.of(2024, 1)))
+            .isInstanceOf(BadRequestException.class);
+        YearMonth from = YearMonth.of(2000, 1);
+        assertThatThrownBy(() -> service.getStatistics(from, from.plusMonths(ExpenseStatisticsService.MAX_MONTHS)))
+            .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(expenseRepository);
+
+        service.getStatistics(from, from.plusMonths(ExpenseStatisticsService.MAX_MONTHS - 1));
+    }
+
+    @Test
+    @DisplayName("Debe recorrer todos los shards y reutilizar los meses cacheados")
+    void shouldWalkEveryShardAndCacheMonths() {
+        when(expenseRepository.streamAmountsByDateBetween(any(), any())).thenAnswer(invocation ->
+            ShardContext.current() == 0
+                ? Stream.of(row("2024-01-10", ExpenseCategory.COMIDA, "10.00"))
+                : Stream.of(row("2024-01-20", ExpenseCategory.COMIDA, "50.00"),
+                            row("2024-01-21", ExpenseCategory.OCIO, "5.00")));
+        ExpenseStatisticsService service = service(2);
+
+        ExpenseStatisticsResponse first = service.getStatistics(YearMonth.of(2024, 1), YearMonth.of(2024, 1));
+        ExpenseStatisticsResponse second = service.getStatistics(YearMonth.of(2024, 1), YearMonth.of(2024, 1));
+
+        assertThat(first.getOverall().getCount()).isEqualTo(3);
+        assertThat(first.getOverall().getMax()).isEqualByComparingTo("50.00");
+        assertThat(second.getOverall()).isEqualTo(first.getOverall());
+        verify(expenseRepository, times(2)).streamAmountsByDateBetween(
+            LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+    }
+
+    private ExpenseStatisticsService service(int shards) {
+        ShardingProperties properties = new ShardingProperties();
+        if (shards > 1) {
+            properties.setEnabled(true);
+            for (int i = 0; i < shards; i++) {
+                properties.getShards().add(new DataSourceProperties());
+            }
+        }
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        shardRouter = new ShardRouter(properties, null, transactionManager);
+        return new ExpenseStatisticsService(expenseRepository, fxRateService, transactionManager, shardRouter);
+    }
+
+    private static ExpenseAmountView row(String date, ExpenseCategory category, String amount) {
+        return new ExpenseAmountView() {
+            @Override
+            public LocalDate getDate() {
+                return LocalDate.parse(date);
+            }
+
+            @Override
+            public ExpenseCategory getCategory() {
+                return category;
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return new BigDecimal(amount);
+            }
+
+            @Override
+            public String getCurrency() {
+                return "EUR";
+            }
+        };
+    }
+}
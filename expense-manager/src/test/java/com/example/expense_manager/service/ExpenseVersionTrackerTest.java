@@ -0,0 +1,71 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.event.ExpensesArchivedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios para ExpenseVersionTracker
+ */
+@DisplayName("Tests de ExpenseVersionTracker")
+class ExpenseVersionTrackerTest {
+
+    private final ExpenseVersionTracker tracker = new ExpenseVersionTracker();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe cambiar el ETag solo para el usuario modificado")
+    void shouldChangeEtagOnlyForModifiedUser() {
+        String before = tracker.etag(1L, "my", 0, 10);
+        String otherBefore = tracker.etag(2L, "my", 0, 10);
+
+        tracker.bump(1L);
+
+        assertThat(tracker.etag(1L, "my", 0, 10)).isNotEqualTo(before).startsWith("W/\"");
+        assertThat(tracker.etag(2L, "my", 0, 10)).isEqualTo(otherBefore);
+    }
+
+    @Test
+    @DisplayName("Debe distinguir variantes de la misma versión")
+    void shouldDistinguishVariants() {
+        assertThat(tracker.etag(1L, "my", 0, 10)).isNotEqualTo(tracker.etag(1L, "my", 1, 10));
+    }
+
+    @Test
+    @DisplayName("Debe esperar al commit para incrementar la versión")
+    void shouldBumpAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        tracker.bump(1L);
+        assertThat(tracker.current(1L)).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(tracker.current(1L)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Debe cambiar el ETag de todos los usuarios al archivar meses")
+    void shouldChangeEveryEtagWhenMonthsAreArchived() {
+        String first = tracker.etag(1L, "my", 0, 10);
+        String second = tracker.etag(2L, "my", 0, 10);
+
+        tracker.onDomainEvent(new ExpensesArchivedEvent(Set.of(YearMonth.of(2023, 1))));
+
+        assertThat(tracker.etag(1L, "my", 0, 10)).isNotEqualTo(first);
+        assertThat(tracker.etag(2L, "my", 0, 10)).isNotEqualTo(second);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.dto.FxRateImportResponse;
+import com.example.expense_manager.entity.FxRate;
+import com.example.expense_manager.exeption.BadRequestException;
+import com.example.expense_manager.repository.FxRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para FxRateService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de FxRateService")
+class FxRateServiceTest {
+
+    @Mock
+    private FxRateRepository fxRateRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FxRateService fxRateService;
+
+    @BeforeEach
+    void setUp() {
+        fxRateService = new FxRateService(fxRateRepository, transactionManager, "EUR", "");
+    }
+
+    @Test
+    @DisplayName("Debe convertir usando el tipo del día y heredar el último tipo conocido")
+    void shouldConvertWithDailyRates() {
+        when(fxRateRepository.findAllByOrderByCurrencyAscRateDateAsc()).thenReturn(List.of(
+                new FxRate(1L, LocalDate.of(2024, 1, 1), "USD", new BigDecimal("1.10")),
+                new FxRate(2L, LocalDate.of(2024, 1, 3), "USD", new BigDecimal("1.20"))
+        ));
+
+        fxRateService.reload();
+
+        assertThat(fxRateService.supports("USD")).isTrue();
+        assertThat(fxRateService.supports("EUR")).isTrue();
+        assertThat(fxRateService.supports("GBP")).isFalse();
+        assertThat(fxRateService.rate("USD", LocalDate.of(2024, 1, 2))).isEqualTo(1.10);
+        assertThat(fxRateService.rate("USD", LocalDate.of(2024, 6, 1))).isEqualTo(1.20);
+        assertThat(fxRateService.convert(110.0, "USD", "EUR", LocalDate.of(2024, 1, 1))).isCloseTo(100.0, within(1e-9));
+        assertThat(fxRateService.convert(new BigDecimal("100.00"), "EUR", "USD", LocalDate.of(2024, 1, 3)))
+                .isEqualByComparingTo("120.00");
+    }
+
+    @Test
+    @DisplayName("Debe importar un CSV y recargar la tabla")
+    void shouldImportCsv() throws Exception {
+        String csv = "date,currency,rate\n2024-01-01,usd,1.10\n2024-01-02,GBP,0.86\n";
+        when(fxRateRepository.findAllByOrderByCurrencyAscRateDateAsc()).thenReturn(List.of());
+
+        FxRateImportResponse result = fxRateService.importRates(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getCurrencies()).containsExactly("GBP", "USD");
+        assertThat(result.getFrom()).isEqualTo(LocalDate.of(2024, 1, 1));
+        assertThat(result.getTo()).isEqualTo(LocalDate.of(2024, 1, 2));
+        verify(fxRateRepository).deleteByCurrenciesAndDateRange(any(), any(), any());
+        verify(fxRateRepository).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar líneas inválidas")
+    void shouldRejectInvalidLines() {
+        String csv = "2024-01-01,USD\n";
+
+        assertThatThrownBy(() -> fxRateService.importRates(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Línea 1");
+    }
+}
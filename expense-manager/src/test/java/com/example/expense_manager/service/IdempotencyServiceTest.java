@@ -0,0 +1,239 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.dto.ExpenseRequest;
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.entity.IdempotencyRecord;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.exeption.BadRequestException;
+import com.example.expense_manager.exeption.IdempotencyConflictException;
+import com.example.expense_manager.repository.IdempotencyRecordRepository;
+import com.example.expense_manager.shard.ShardRouter;
+import com.example.expense_manager.shard.ShardingProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios para IdempotencyService
+ */
+@DisplayName("Tests de IdempotencyService")
+class IdempotencyServiceTest {
+
+    private static final TypeReference<ExpenseResponse> RESPONSE = new TypeReference<>() { };
+
+    private IdempotencyRecordRepository recordRepository;
+    private ObjectMapper objectMapper;
+    private IdempotencyService idempotencyService;
+    private ExpenseRequest request;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        recordRepository = mock(IdempotencyRecordRepository.class);
+        when(recordRepository.findByUserIdAndIdempotencyKey(anyLong(), anyString())).thenReturn(Optional.empty());
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        idempotencyService = new IdempotencyService(recordRepository, objectMapper,
+            new ShardRouter(new ShardingProperties(), null, null), mock(PlatformTransactionManager.class), 24, 100);
+
+        request = new ExpenseRequest();
+        request.setUserId(1L);
+        request.setAmount(new BigDecimal("12.50"));
+        request.setCategory(ExpenseCategory.COMIDA);
+        request.setDate(LocalDate.of(2025, 3, 1));
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Debe ejecutar la primera petición y guardar su respuesta")
+    void shouldExecuteFirstRequest() {
+        IdempotencyService.Result<ExpenseResponse> result = execute("key-1", request);
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(result.body().getId()).isEqualTo(100L);
+        assertThat(executions).hasValue(1);
+        verify(recordRepository).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Debe devolver la respuesta guardada a los reintentos sin volver a ejecutar")
+    void shouldReplayWithoutExecutingAgain() {
+        execute("key-1", request);
+        IdempotencyService.Result<ExpenseResponse> replay = execute("key-1", request);
+
+        assertThat(replay.replayed()).isTrue();
+        assertThat(replay.body().getId()).isEqualTo(100L);
+        assertThat(replay.body().getAmount()).isEqualByComparingTo("12.50");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar una clave reutilizada con una petición distinta")
+    void shouldRejectKeyReusedWithDifferentRequest() {
+        execute("key-1", request);
+        ExpenseRequest other = new ExpenseRequest();
+        other.setUserId(1L);
+        other.setAmount(new BigDecimal("99.00"));
+        other.setCategory(ExpenseCategory.OCIO);
+        other.setDate(LocalDate.of(2025, 3, 1));
+
+        assertThatThrownBy(() -> execute("key-1", other))
+            .isInstanceOf(IdempotencyConflictException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Debe usar la respuesta persistida cuando no está en memoria")
+    void shouldReplayPersistedResponse() {
+        // Huella de la petición obtenida de una primera ejecución en otra instancia
+        List<IdempotencyRecord> saved = new ArrayList<>();
+        when(recordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            saved.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        execute("key-1", request);
+
+        IdempotencyService restarted = new IdempotencyService(recordRepository, objectMapper,
+            new ShardRouter(new ShardingProperties(), null, null), mock(PlatformTransactionManager.class), 24, 100);
+        when(recordRepository.findByUserIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.of(saved.get(0)));
+
+        IdempotencyService.Result<ExpenseResponse> replay = restarted.execute(1L, "key-1", "create", request, RESPONSE,
+            this::createExpense);
+
+        assertThat(replay.replayed()).isTrue();
+        assertThat(replay.body().getId()).isEqualTo(100L);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Debe ejecutar de nuevo si la clave persistida ha caducado")
+    void shouldExecuteAgainWhenPersistedKeyExpired() {
+        IdempotencyRecord expired = new IdempotencyRecord(7L, 1L, "key-1", "otra", "{}",
+            LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        when(recordRepository.findByUserIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.of(expired));
+
+        IdempotencyService.Result<ExpenseResponse> result = execute("key-1", request);
+
+        assertThat(result.replayed()).isFalse();
+        verify(recordRepository).delete(expired);
+    }
+
+    @Test
+    @DisplayName("Debe quedarse con la respuesta de otra instancia si guardó la clave antes")
+    void shouldReplayWinnerOnUniqueViolation() {
+        IdempotencyRecord[] winner = new IdempotencyRecord[1];
+        when(recordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            ExpenseResponse other = createExpense();
+            other.setId(200L);
+            winner[0] = new IdempotencyRecord(1L, 1L, "key-1", record.getRequestHash(),
+                objectMapper.writeValueAsString(other), record.getCreatedAt(), record.getExpiresAt());
+            throw new DataIntegrityViolationException("duplicada");
+        });
+        when(recordRepository.findByUserIdAndIdempotencyKey(1L, "key-1"))
+            .thenAnswer(invocation -> Optional.ofNullable(winner[0]));
+
+        IdempotencyService.Result<ExpenseResponse> result = execute("key-1", request);
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.body().getId()).isEqualTo(200L);
+    }
+
+    @Test
+    @DisplayName("Debe ejecutar una sola vez las peticiones simultáneas con la misma clave")
+    void shouldCoalesceConcurrentDuplicates() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<IdempotencyService.Result<ExpenseResponse>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> idempotencyService.execute(1L, "key-1", "create", request, RESPONSE,
+                    () -> {
+                        started.countDown();
+                        await(release);
+                        return createExpense();
+                    })));
+            }
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            // Deja que el resto de peticiones lleguen mientras la primera sigue en curso
+            Thread.sleep(100);
+            release.countDown();
+
+            int replayed = 0;
+            for (Future<IdempotencyService.Result<ExpenseResponse>> future : futures) {
+                IdempotencyService.Result<ExpenseResponse> result = future.get(5, TimeUnit.SECONDS);
+                assertThat(result.body().getId()).isEqualTo(100L);
+                replayed += result.replayed() ? 1 : 0;
+            }
+            assertThat(executions).hasValue(1);
+            assertThat(replayed).isEqualTo(3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("No debe guardar nada si la operación falla y debe permitir reintentarla")
+    void shouldNotStoreFailedExecutions() {
+        assertThatThrownBy(() -> idempotencyService.execute(1L, "key-1", "create", request, RESPONSE, () -> {
+            throw new BadRequestException("moneda no soportada");
+        })).isInstanceOf(BadRequestException.class);
+        verify(recordRepository, never()).saveAndFlush(any(IdempotencyRecord.class));
+
+        assertThat(execute("key-1", request).replayed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar claves vacías o demasiado largas")
+    void shouldValidateKeys() {
+        assertThatThrownBy(() -> IdempotencyService.validateKey(" "))
+            .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> IdempotencyService.validateKey("x".repeat(IdempotencyService.MAX_KEY_LENGTH + 1)))
+            .isInstanceOf(BadRequestException.class);
+    }
+
+    private IdempotencyService.Result<ExpenseResponse> execute(String key, ExpenseRequest body) {
+        return idempotencyService.execute(1L, key, "create", body, RESPONSE, this::createExpense);
+    }
+
+    private ExpenseResponse createExpense() {
+        executions.incrementAndGet();
+        return new ExpenseResponse(100L, request.getAmount(), "EUR", request.getCategory(), request.getDate(),
+            null, LocalDateTime.of(2025, 3, 1, 10, 0), 1L, "Test User", false, 0.0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.expense_manager.service;
+
+import com.example.expense_manager.dto.UserDeletionResponse;
+import com.example.expense_manager.enums.DeletionStatus;
+import com.example.expense_manager.event.UserDeletedEvent;
+import com.example.expense_manager.exeption.ResourceNotFoundException;
+import com.example.expense_manager.repository.ExpenseRepository;
+import com.example.expense_manager.repository.ExpenseTombstoneRepository;
+import com.example.expense_manager.repository.IdempotencyRecordRepository;
+import com.example.expense_manager.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para UserDeletionService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de UserDeletionService")
+class UserDeletionServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private ExpenseTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserDeletionService deletionService;
+
+    @BeforeEach
+    void setUp() {
+        // Umbral de 10 gastos y lotes de 2
+        deletionService = new UserDeletionService(userRepository, expenseRepository, tombstoneRepository,
+            idempotencyRecordRepository, eventPublisher, transactionManager, 10, 2, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deletionService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debe borrar gastos, claves de idempotencia y usuario con sentencias masivas en la propia llamada")
+    void shouldDeleteSmallUserSynchronously() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.countByUserId(1L)).thenReturn(3L);
+        when(expenseRepository.deleteAllByUserId(1L)).thenReturn(3);
+
+        UserDeletionResponse result = deletionService.deleteUser(1L);
+
+        assertThat(result.getStatus()).isEqualTo(DeletionStatus.COMPLETED);
+        assertThat(result.getJobId()).isNull();
+        assertThat(result.getDeletedExpenses()).isEqualTo(3);
+        verify(tombstoneRepository).deleteAllByUserId(1L);
+        verify(idempotencyRecordRepository).deleteAllByUserId(1L);
+        verify(userRepository).deleteUserById(1L);
+        verify(userRepository, never()).deleteById(any());
+        verify(eventPublisher).publishEvent(new UserDeletedEvent(1L));
+    }
+
+    @Test
+    @DisplayName("Debe borrar por lotes en segundo plano a los usuarios con muchos gastos")
+    void shouldDeleteLargeUserInChunks() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.countByUserId(1L)).thenReturn(11L);
+        when(expenseRepository.findIdsByUserId(1L, PageRequest.of(0, 2)))
+            .thenReturn(List.of(1L, 2L))
+            .thenReturn(List.of(3L, 4L))
+            .thenReturn(List.of(5L));
+        when(expenseRepository.deleteByUserIdAndIdIn(eq(1L), any())).thenReturn(2, 2, 1);
+        when(expenseRepository.deleteAllByUserId(1L)).thenReturn(0);
+
+        UserDeletionResponse accepted = deletionService.deleteUser(1L);
+
+        assertThat(accepted.getJobId()).isNotNull();
+        assertThat(accepted.getTotalExpenses()).isEqualTo(11);
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+            assertThat(deletionService.getDeletionStatus(accepted.getJobId()).getStatus())
+                .isEqualTo(DeletionStatus.COMPLETED));
+
+        UserDeletionResponse finished = deletionService.getDeletionStatus(accepted.getJobId());
+        assertThat(finished.getDeletedExpenses()).isEqualTo(5);
+        assertThat(finished.getFinishedAt()).isNotNull();
+        verify(expenseRepository, times(3)).deleteByUserIdAndIdIn(eq(1L), any());
+        verify(userRepository).deleteUserById(1L);
+        verify(eventPublisher).publishEvent(new UserDeletedEvent(1L));
+    }
+
+    @Test
+    @DisplayName("Debe lanzar excepción si el usuario no existe")
+    void shouldThrowWhenUserNotFound() {
+        when(userRepository.existsById(999L)).thenReturn(false);
+
+        assertThatThrownBy(() -> deletionService.deleteUser(999L))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Usuario no encontrado con ID: 999");
+        verifyNoInteractions(expenseRepository);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar excepción si el borrado no existe")
+    void shouldThrowWhenJobNotFound() {
+        assertThatThrownBy(() -> deletionService.getDeletionStatus("desconocido"))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -1,18 +1,24 @@
 package com.example.expense_manager.service;
 
+import com.example.expense_manager.dto.UserDeletionResponse;
 import com.example.expense_manager.dto.UserRequest;
 import com.example.expense_manager.dto.UserResponse;
 import com.example.expense_manager.entity.User;
+import com.example.expense_manager.enums.DeletionStatus;
 import com.example.expense_manager.enums.UserRole;
 import com.example.expense_manager.exeption.ResourceNotFoundException;
 import com.example.expense_manager.repository.UserRepository;
+import com.example.expense_manager.shard.ShardRouter;
+import com.example.expense_manager.shard.ShardingProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +26,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -32,6 +39,19 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private FxRateService fxRateService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserDeletionService userDeletionService;
+
+    // Sin sharding: un solo shard y todo en el hilo de quien llama
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), null, null);
+
     @InjectMocks
     private UserService userService;
 
@@ -53,9 +73,10 @@ class UserServiceTest {
     }
 
     @Test
-    @DisplayName("Debe crear usuario correctamente")
+    @DisplayName("Debe crear usuario correctamente con la moneda de referencia por defecto")
     void shouldCreateUser() {
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(fxRateService.getReferenceCurrency()).thenReturn("USD");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         UserResponse result = userService.createUser(userRequestDto);
@@ -64,7 +85,7 @@ class UserServiceTest {
         assertThat(result.getEmail()).isEqualTo(testUser.getEmail());
 
         verify(userRepository).existsByEmail(anyString());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).save(argThat(user -> "USD".equals(user.getBaseCurrency())));
     }
 
     @Test
@@ -136,14 +157,14 @@ class UserServiceTest {
     }
 
     @Test
-    @DisplayName("Debe eliminar usuario correctamente")
+    @DisplayName("Debe delegar el borrado de usuario en UserDeletionService")
     void shouldDeleteUser() {
-        when(userRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(1L);
-
-        userService.deleteUser(1L);
+        UserDeletionResponse deletion = new UserDeletionResponse(
+            null, 1L, DeletionStatus.COMPLETED, 3, 3, null, null, null);
+        when(userDeletionService.deleteUser(1L)).thenReturn(deletion);
 
-        verify(userRepository).deleteById(1L);
+        assertThat(userService.deleteUser(1L)).isSameAs(deletion);
+        verify(userRepository, never()).deleteById(any());
     }
 
     @Test
@@ -0,0 +1,155 @@
+package com.example.expense_manager.shard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests unitarios para ShardRouter
+ */
+@DisplayName("Tests de ShardRouter")
+class ShardRouterTest {
+
+    private ShardRouter router;
+
+    @AfterEach
+    void tearDown() {
+        if (router != null) {
+            router.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe deducir el shard a partir del id")
+    void shouldResolveShardFromId() {
+        router = router(3);
+
+        assertThat(router.shardOfId(1)).isZero();
+        assertThat(router.shardOfId(2)).isEqualTo(1);
+        assertThat(router.shardOfId(3)).isEqualTo(2);
+        assertThat(router.shardOfId(301)).isZero();
+        assertThat(router.sameShard(2L, 5L)).isTrue();
+        assertThat(router.sameShard(2L, 6L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe generar en cada shard ids que se resuelven a ese shard")
+    void shouldGenerateIdsOfTheirOwnShard() {
+        router = router(3);
+
+        for (int shard = 0; shard < 3; shard++) {
+            for (long max = 0; max < 10; max++) {
+                long next = ShardDataSources.nextId(max, shard, 3);
+                assertThat(next).isGreaterThan(max).isLessThanOrEqualTo(max + 3);
+                assertThat(router.shardOfId(next)).isEqualTo(shard);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debe colocar cada email siempre en el mismo shard sin distinguir mayúsculas")
+    void shouldPlaceEmailsDeterministically() {
+        assertThat(ShardRouter.placement("Ana@Example.com", 4)).isEqualTo(ShardRouter.placement("ana@example.com", 4));
+
+        List<Integer> placements = IntStream.range(0, 300)
+            .mapToObj(i -> ShardRouter.placement("user" + i + "@example.com", 3))
+            .collect(Collectors.toList());
+        assertThat(placements).allMatch(shard -> shard >= 0 && shard < 3);
+        // Un reparto razonable: cada shard recibe al menos una cuarta parte
+        for (int shard = 0; shard < 3; shard++) {
+            int target = shard;
+            assertThat(placements.stream().filter(p -> p == target).count()).isGreaterThan(75);
+        }
+    }
+
+    @Test
+    @DisplayName("Sin sharding debe usar un solo shard y ejecutar la consulta tal cual")
+    void shouldRunInlineWithoutSharding() {
+        router = new ShardRouter(new ShardingProperties(), null, null);
+
+        assertThat(router.shardCount()).isEqualTo(1);
+        assertThat(router.shardOfId(7)).isZero();
+        assertThat(router.shardForEmail("ana@example.com")).isZero();
+        assertThat(router.onEveryShard(() -> ShardContext.current())).containsExactly((Integer) null);
+    }
+
+    @Test
+    @DisplayName("Debe ejecutar la consulta en cada shard y devolver los resultados en orden de shard")
+    void shouldQueryEveryShard() {
+        router = router(3);
+
+        assertThat(router.onEveryShard(ShardContext::current)).containsExactly(0, 1, 2);
+        assertThat(ShardContext.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe mezclar las páginas de los shards respetando el orden y sumando los totales")
+    void shouldMergePagesFromEveryShard() {
+        router = router(3);
+        // Shard k contiene los importes k, k + 3, k + 6... hasta 29
+        List<List<Row>> data = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            List<Row> rows = new ArrayList<>();
+            for (int amount = shard; amount < 30; amount += 3) {
+                rows.add(new Row((long) amount + 1, amount));
+            }
+            data.add(rows);
+        }
+
+        Page<Row> page = router.mergePages(PageRequest.of(2, 4, Sort.by(Sort.Direction.DESC, "amount")),
+            pageable -> {
+                List<Row> rows = data.get(ShardContext.current()).stream()
+                    .sorted(Comparator.comparing(Row::getAmount).reversed())
+                    .collect(Collectors.toList());
+                int end = (int) Math.min(rows.size(), pageable.getOffset() + pageable.getPageSize());
+                return new PageImpl<>(rows.subList((int) pageable.getOffset(), end), pageable, rows.size());
+            });
+
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(page.getTotalPages()).isEqualTo(8);
+        assertThat(page.getContent()).extracting(Row::getAmount).containsExactly(21, 20, 19, 18);
+    }
+
+    @Test
+    @DisplayName("Debe ordenar por varias propiedades y dejar los nulos al final")
+    void shouldCompareByPropertiesWithNullsLast() {
+        List<Row> rows = new ArrayList<>(List.of(new Row(3L, null), new Row(1L, 5), new Row(2L, 5), new Row(4L, 1)));
+
+        rows.sort(ShardRouter.comparator(Sort.by(Sort.Order.asc("amount"), Sort.Order.desc("id"))));
+
+        assertThat(rows).extracting(Row::getId).containsExactly(4L, 2L, 1L, 3L);
+    }
+
+    private static ShardRouter router(int shards) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        for (int i = 0; i < shards; i++) {
+            properties.getShards().add(new DataSourceProperties());
+        }
+        return new ShardRouter(properties, null, mock(PlatformTransactionManager.class));
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Row {
+        private Long id;
+        private Integer amount;
+    }
+}
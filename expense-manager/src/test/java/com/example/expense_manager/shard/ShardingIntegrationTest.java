@@ -0,0 +1,168 @@
+package com.example.expense_manager.shard;
+
+import com.example.expense_manager.dto.ExpenseRequest;
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.dto.RegisterRequest;
+import com.example.expense_manager.dto.AuthResponse;
+import com.example.expense_manager.dto.UserResponse;
+import com.example.expense_manager.enums.ExpenseCategory;
+import com.example.expense_manager.exeption.CrossShardMoveException;
+import com.example.expense_manager.security.CustomUserDetailsService;
+import com.example.expense_manager.service.AuthService;
+import com.example.expense_manager.service.ExpenseService;
+import com.example.expense_manager.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Arranca la aplicación con el perfil sharded (tres bases H2) y reparte usuarios y gastos
+ */
+@SpringBootTest(properties = "app.warmup.enabled=false")
+@ActiveProfiles("sharded")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Tests de sharding por usuario")
+class ShardingIntegrationTest {
+
+    private static final int USERS = 12;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardDataSources shards;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<AuthResponse> users = new ArrayList<>();
+
+    @BeforeAll
+    void createUsers() {
+        // La caché L2 (JCache) es la misma para todos los contextos de la JVM de tests, y otros
+        // contextos (perfil perf) pueden haber dejado en ella usuarios con estos mismos ids
+        entityManagerFactory.getCache().evictAll();
+        for (int i = 0; i < USERS; i++) {
+            RegisterRequest request = new RegisterRequest();
+            request.setEmail("shard" + i + "@example.com");
+            request.setName("Usuario " + i);
+            request.setPassword("password");
+            AuthResponse user = authService.register(request);
+            users.add(user);
+
+            ExpenseRequest expense = new ExpenseRequest();
+            expense.setUserId(user.getId());
+            expense.setAmount(BigDecimal.valueOf(10 + i));
+            expense.setCategory(ExpenseCategory.COMIDA);
+            expense.setDate(LocalDate.now());
+            expenseService.createExpense(expense);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe guardar cada usuario y sus gastos en el shard que indica su id")
+    void shouldStoreUsersAndExpensesInTheirShard() {
+        long stored = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.get(shard));
+            List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users", Long.class);
+            List<Long> expenseUserIds = jdbcTemplate.queryForList("SELECT user_id FROM expenses", Long.class);
+            for (Long id : userIds) {
+                assertThat(shardRouter.shardOfId(id)).isEqualTo(shard);
+            }
+            assertThat(expenseUserIds).allMatch(userIds::contains);
+            stored += userIds.size();
+        }
+        assertThat(stored).isEqualTo(USERS);
+        assertThat(users).extracting(user -> shardRouter.shardOfId(user.getId())).contains(0, 1, 2);
+    }
+
+    @Test
+    @DisplayName("Debe encontrar a cualquier usuario por email a través del directorio")
+    void shouldLoadUsersByEmailFromAnyShard() {
+        for (AuthResponse user : users) {
+            assertThat(userDetailsService.loadUserByUsername(user.getEmail()).getUsername()).isEqualTo(user.getEmail());
+            assertThat(shardRouter.shardForEmail(user.getEmail())).isEqualTo(shardRouter.shardOfId(user.getId()));
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un email ya registrado en otro shard")
+    void shouldRejectDuplicateEmailAcrossShards() {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(users.get(0).getEmail());
+        request.setName("Duplicado");
+        request.setPassword("password");
+
+        assertThatThrownBy(() -> authService.register(request))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Debe combinar los listados globales de todos los shards")
+    void shouldMergeGlobalListings() {
+        assertThat(userService.getAllUsers()).extracting(UserResponse::getId)
+            .containsAll(users.stream().map(AuthResponse::getId).toList())
+            .isSorted();
+
+        Page<ExpenseResponse> first = expenseService.getAllExpenses(PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "amount")));
+        Page<ExpenseResponse> second = expenseService.getAllExpenses(PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "amount")));
+        assertThat(first.getTotalElements()).isEqualTo(USERS);
+        assertThat(first.getContent()).extracting(ExpenseResponse::getAmount)
+            .map(BigDecimal::intValue)
+            .containsExactly(21, 20, 19, 18, 17);
+        assertThat(second.getContent()).extracting(ExpenseResponse::getAmount)
+            .map(BigDecimal::intValue)
+            .containsExactly(16, 15, 14, 13, 12);
+
+        assertThat(expenseService.getExpensesByDateRange(LocalDate.now(), LocalDate.now())).hasSize(USERS);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar mover un gasto a un usuario de otro shard")
+    void shouldRejectMovingExpenseAcrossShards() {
+        AuthResponse owner = users.stream().filter(user -> shardRouter.shardOfId(user.getId()) == 1).findFirst().orElseThrow();
+        AuthResponse other = users.stream().filter(user -> shardRouter.shardOfId(user.getId()) == 2).findFirst().orElseThrow();
+        ExpenseResponse expense = expenseService.getExpensesByUserId(owner.getId(), PageRequest.of(0, 1)).getContent().get(0);
+
+        ExpenseRequest request = new ExpenseRequest();
+        request.setUserId(other.getId());
+        request.setAmount(expense.getAmount());
+        request.setCategory(expense.getCategory());
+        request.setDate(expense.getDate());
+
+        assertThatThrownBy(() -> expenseService.updateExpense(expense.getId(), request))
+            .isInstanceOf(CrossShardMoveException.class)
+            .hasMessageContaining("otro shard");
+        assertThat(expenseService.getExpenseById(expense.getId()).getUserId()).isEqualTo(owner.getId());
+    }
+}
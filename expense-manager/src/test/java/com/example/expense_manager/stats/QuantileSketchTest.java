@@ -0,0 +1,67 @@
+package com.example.expense_manager.stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests unitarios para QuantileSketch
+ */
+@DisplayName("Tests de QuantileSketch")
+class QuantileSketchTest {
+
+    @Test
+    @DisplayName("Debe devolver valores exactos con pocos datos")
+    void shouldBeExactForSmallInputs() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 1; i <= 100; i++) {
+            sketch.update(i);
+        }
+
+        assertThat(sketch.getCount()).isEqualTo(100);
+        assertThat(sketch.getMin()).isEqualTo(1.0);
+        assertThat(sketch.getMax()).isEqualTo(100.0);
+        assertThat(sketch.getQuantile(0.5)).isEqualTo(50.0);
+        assertThat(sketch.getQuantile(0.9)).isEqualTo(90.0);
+    }
+
+    @Test
+    @DisplayName("Debe aproximar cuantiles con memoria acotada")
+    void shouldApproximateQuantilesWithBoundedMemory() {
+        QuantileSketch sketch = new QuantileSketch();
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000_000; i++) {
+            sketch.update(random.nextDouble() * 1000);
+        }
+
+        assertThat(sketch.getCount()).isEqualTo(1_000_000);
+        assertThat(sketch.retained()).isLessThan(4 * QuantileSketch.DEFAULT_K);
+        assertThat(sketch.getQuantile(0.5)).isCloseTo(500.0, within(15.0));
+        assertThat(sketch.getQuantile(0.99)).isCloseTo(990.0, within(15.0));
+    }
+
+    @Test
+    @DisplayName("Debe combinar sketches conservando el total")
+    void shouldMergeSketches() {
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        for (int i = 0; i < 50_000; i++) {
+            first.update(i);
+            second.update(50_000 + i);
+        }
+
+        QuantileSketch merged = new QuantileSketch();
+        merged.merge(first);
+        merged.merge(second);
+
+        assertThat(merged.getCount()).isEqualTo(100_000);
+        assertThat(merged.getMin()).isEqualTo(0.0);
+        assertThat(merged.getMax()).isEqualTo(99_999.0);
+        assertThat(merged.getQuantile(0.5)).isCloseTo(50_000.0, within(1_500.0));
+        assertThat(first.getCount()).isEqualTo(50_000);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.expense_manager.stream;
+
+import com.example.expense_manager.dto.ExpenseResponse;
+import com.example.expense_manager.dto.ExpenseSummaryResponse;
+import com.example.expense_manager.event.ExpenseCreatedEvent;
+import com.example.expense_manager.event.ExpenseDeletedEvent;
+import com.example.expense_manager.event.UserDeletedEvent;
+import com.example.expense_manager.exeption.StreamCapacityException;
+import com.example.expense_manager.service.ExpenseService;
+import com.example.expense_manager.service.ExpenseSummaryService;
+import com.example.expense_manager.shard.ShardRouter;
+import com.example.expense_manager.shard.ShardingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios para ExpenseStreamBroadcaster
+ */
+@DisplayName("Tests de ExpenseStreamBroadcaster")
+class ExpenseStreamBroadcasterTest {
+
+    private ExpenseService expenseService;
+    private ExpenseSummaryService summaryService;
+    private ExpenseStreamBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        expenseService = mock(ExpenseService.class);
+        summaryService = mock(ExpenseSummaryService.class);
+        when(summaryService.getYearSummary(anyLong(), anyInt())).thenReturn(new ExpenseSummaryResponse());
+        when(expenseService.getExpenseById(anyLong())).thenReturn(new ExpenseResponse());
+        // Ventana larga: los tests entregan con flush() cuando les conviene
+        broadcaster = new ExpenseStreamBroadcaster(expenseService, summaryService,
+            new ShardRouter(new ShardingProperties(), null, null), mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(), 60_000, 60_000, 60_000, 3, 2, 10, 100, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debe enviar los totales del año al abrir la conexión")
+    void shouldSendTotalsOnSubscribe() {
+        broadcaster.subscribe(1L);
+
+        verify(summaryService, timeout(2000)).getYearSummary(1L, LocalDate.now().getYear());
+        assertThat(broadcaster.connectionCount(1L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe ignorar los eventos de usuarios sin conexiones")
+    void shouldIgnoreEventsOfUsersWithoutConnections() {
+        broadcaster.subscribe(1L);
+
+        broadcaster.onDomainEvent(new ExpenseCreatedEvent(10L, 2L, LocalDate.now()));
+        broadcaster.flush();
+
+        verify(expenseService, never()).getExpenseById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Debe cargar el gasto creado y recalcular los totales una vez por ventana")
+    void shouldLoadCreatedExpenseAndTotalsOncePerWindow() {
+        broadcaster.subscribe(1L);
+        verify(summaryService, timeout(2000)).getYearSummary(anyLong(), anyInt());
+
+        broadcaster.onDomainEvent(new ExpenseCreatedEvent(10L, 1L, LocalDate.now()));
+        broadcaster.onDomainEvent(new ExpenseCreatedEvent(11L, 1L, LocalDate.now()));
+        broadcaster.onDomainEvent(new ExpenseDeletedEvent(12L, 1L, LocalDate.now()));
+        broadcaster.flush();
+
+        verify(expenseService).getExpenseById(10L);
+        verify(expenseService).getExpenseById(11L);
+        verify(expenseService, never()).getExpenseById(12L);
+        verify(summaryService, times(2)).getYearSummary(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Debe cerrar la conexión más antigua al superar el máximo por usuario")
+    void shouldCloseOldestConnectionOverUserLimit() {
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(1L);
+
+        assertThat(broadcaster.connectionCount(1L)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar conexiones por encima del máximo de la instancia")
+    void shouldRejectConnectionsOverInstanceLimit() {
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(2L);
+        broadcaster.subscribe(3L);
+
+        assertThatThrownBy(() -> broadcaster.subscribe(4L)).isInstanceOf(StreamCapacityException.class);
+    }
+
+    @Test
+    @DisplayName("Debe cerrar las conexiones de un usuario eliminado")
+    void shouldCloseConnectionsOfDeletedUser() {
+        broadcaster.subscribe(1L);
+
+        broadcaster.onDomainEvent(new UserDeletedEvent(1L));
+        broadcaster.flush();
+
+        assertThat(broadcaster.connectionCount(1L)).isZero();
+        // La conexión liberada vuelve a estar disponible
+        broadcaster.subscribe(2L);
+        broadcaster.subscribe(3L);
+        broadcaster.subscribe(4L);
+    }
+}
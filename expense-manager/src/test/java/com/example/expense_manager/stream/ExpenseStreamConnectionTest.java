@@ -0,0 +1,120 @@
+package com.example.expense_manager.stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios para ExpenseStreamConnection
+ */
+@DisplayName("Tests de ExpenseStreamConnection")
+class ExpenseStreamConnectionTest {
+
+    private RecordingEmitter emitter;
+    private ExpenseStreamConnection connection;
+
+    @BeforeEach
+    void setUp() {
+        emitter = new RecordingEmitter();
+        connection = new ExpenseStreamConnection(1L, emitter, 3);
+    }
+
+    @Test
+    @DisplayName("Debe pedir un solo vaciado mientras haya uno en curso")
+    void shouldScheduleOneDrainAtATime() {
+        assertThat(connection.offer(event("a"))).isEqualTo(ExpenseStreamConnection.Outcome.SCHEDULE);
+        assertThat(connection.offer(event("b"))).isEqualTo(ExpenseStreamConnection.Outcome.QUEUED);
+
+        connection.drain();
+
+        assertThat(emitter.sent).hasSize(2);
+        assertThat(connection.offer(event("c"))).isEqualTo(ExpenseStreamConnection.Outcome.SCHEDULE);
+    }
+
+    @Test
+    @DisplayName("Debe avisar del desbordamiento cuando el cliente no lee")
+    void shouldOverflowWhenBufferIsFull() {
+        connection.offer(event("a"));
+        connection.offer(event("b"));
+        connection.offer(event("c"));
+
+        assertThat(connection.offer(event("d"))).isEqualTo(ExpenseStreamConnection.Outcome.OVERFLOW);
+    }
+
+    @Test
+    @DisplayName("Debe enviar solo los últimos totales y después de los eventos")
+    void shouldKeepOnlyLatestTotals() {
+        connection.offerTotals(event("totals-1"));
+        connection.offer(event("a"));
+        connection.offerTotals(event("totals-2"));
+
+        connection.drain();
+
+        assertThat(emitter.sent).hasSize(2);
+        assertThat(emitter.sent.get(0)).isSameAs(emitter.events.get("a"));
+        assertThat(emitter.sent.get(1)).isSameAs(emitter.events.get("totals-2"));
+    }
+
+    @Test
+    @DisplayName("Debe enviar latidos solo a las conexiones sin nada pendiente")
+    void shouldSendHeartbeatOnlyWhenIdle() {
+        connection.offer(event("a"));
+        assertThat(connection.offerHeartbeat(event("ping"))).isEqualTo(ExpenseStreamConnection.Outcome.QUEUED);
+
+        connection.drain();
+
+        assertThat(connection.offerHeartbeat(event("ping"))).isEqualTo(ExpenseStreamConnection.Outcome.SCHEDULE);
+    }
+
+    @Test
+    @DisplayName("Debe cerrarse y descartar lo pendiente si el envío falla")
+    void shouldCloseWhenSendFails() {
+        emitter.fail = true;
+        connection.offer(event("a"));
+        connection.offer(event("b"));
+
+        connection.drain();
+
+        assertThat(connection.isClosed()).isTrue();
+        assertThat(emitter.completed).isTrue();
+        assertThat(connection.offer(event("c"))).isEqualTo(ExpenseStreamConnection.Outcome.QUEUED);
+    }
+
+    private SseEmitter.SseEventBuilder event(String name) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(name);
+        emitter.events.put(name, event);
+        return event;
+    }
+
+    /**
+     * Emisor que guarda lo enviado en lugar de escribirlo en una respuesta
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final Map<String, SseEventBuilder> events = new HashMap<>();
+        private final List<SseEventBuilder> sent = new ArrayList<>();
+        private boolean fail;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (fail) {
+                throw new IOException("Conexión cerrada por el cliente");
+            }
+            sent.add(builder);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+}
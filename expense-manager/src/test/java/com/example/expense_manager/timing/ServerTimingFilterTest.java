@@ -0,0 +1,102 @@
+package com.example.expense_manager.timing;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests unitarios para ServerTimingFilter
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de ServerTimingFilter")
+class ServerTimingFilterTest {
+
+    @Mock
+    private SlowRequestLog slowRequestLog;
+
+    /**
+     * Cadena que simula una consulta a repositorio y escribe el cuerpo
+     */
+    private static final FilterChain CHAIN = (request, response) -> {
+        long start = RequestTimings.start();
+        RequestTimings.stop(TimingPhase.DB, start);
+        response.getWriter().write("{\"ok\":true}");
+    };
+
+    @Test
+    @DisplayName("Debe devolver el desglose cuando la petición lo pide")
+    void shouldEmitServerTimingOnOptIn() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(slowRequestLog, true, true, 0.0, 500);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses/my");
+        request.addHeader(ServerTimingFilter.OPT_IN_HEADER, "1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, CHAIN);
+
+        assertThat(response.getHeader("Server-Timing")).contains("db;dur=").contains("total;dur=");
+        assertThat(response.getContentAsString()).isEqualTo("{\"ok\":true}");
+        verifyNoInteractions(slowRequestLog);
+    }
+
+    @Test
+    @DisplayName("No debe medir ni almacenar la respuesta sin opt-in ni muestreo")
+    void shouldPassThroughWhenNotRequested() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(slowRequestLog, true, true, 0.0, 500);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/expenses/my"), response,
+            (req, res) -> assertThat(RequestTimings.start()).isZero());
+
+        assertThat(response.getHeader("Server-Timing")).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe ignorar la cabecera X-Server-Timing si el opt-in no está permitido")
+    void shouldIgnoreOptInWhenNotAllowed() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(slowRequestLog, true, false, 0.0, 500);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses/my");
+        request.addHeader(ServerTimingFilter.OPT_IN_HEADER, "1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, CHAIN);
+
+        assertThat(response.getHeader("Server-Timing")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("{\"ok\":true}");
+    }
+
+    @Test
+    @DisplayName("No debe medir flujos de eventos")
+    void shouldSkipEventStreams() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(slowRequestLog, true, true, 1.0, 500);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses/stream");
+        request.addHeader("Accept", "text/event-stream");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, CHAIN);
+
+        assertThat(response.getHeader("Server-Timing")).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe enviar las peticiones lentas al registro agregado")
+    void shouldRecordSlowRequests() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(slowRequestLog, true, true, 1.0, 0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/expenses/my"), response, CHAIN);
+
+        verify(slowRequestLog).record(eq("GET /api/expenses/my"), any(RequestTimings.class), anyLong());
+    }
+}
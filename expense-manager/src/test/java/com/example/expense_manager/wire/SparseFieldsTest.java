@@ -0,0 +1,77 @@
+package com.example.expense_manager.wire;
+
+import com.example.expense_manager.dto.ExpenseField;
+import com.example.expense_manager.dto.UserField;
+import com.example.expense_manager.dto.UserResponse;
+import com.example.expense_manager.exeption.InvalidFieldsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitarios para SparseFields
+ */
+@DisplayName("Tests de SparseFields")
+class SparseFieldsTest {
+
+    // Como el mapper de la aplicación: sin filtros en la respuesta, los DTOs salen completos
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .filterProvider(new SimpleFilterProvider().setFailOnUnknownId(false))
+            .build();
+
+    @Test
+    @DisplayName("Debe interpretar la lista de campos y registrarla en la petición")
+    void shouldParseAndRegisterFields() {
+        ServletWebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest());
+
+        assertThat(SparseFields.expenses(webRequest, " amount, date,,id "))
+                .containsExactly(ExpenseField.ID, ExpenseField.AMOUNT, ExpenseField.DATE);
+        assertThat(webRequest.getAttribute(SparseFields.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("No debe registrar nada si no se piden campos")
+    void shouldIgnoreMissingFields() {
+        ServletWebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest());
+
+        assertThat(SparseFields.expenses(webRequest, null)).isNull();
+        assertThat(SparseFields.users(webRequest, " ")).isNull();
+        assertThat(webRequest.getAttribute(SparseFields.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar campos desconocidos o una lista vacía")
+    void shouldRejectUnknownFields() {
+        ServletWebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest());
+
+        assertThatThrownBy(() -> SparseFields.expenses(webRequest, "amount,password"))
+                .isInstanceOf(InvalidFieldsException.class);
+        assertThatThrownBy(() -> SparseFields.users(webRequest, ","))
+                .isInstanceOf(InvalidFieldsException.class);
+    }
+
+    @Test
+    @DisplayName("Debe filtrar las propiedades de UserResponse solo cuando hay selección")
+    void shouldFilterUserResponse() throws Exception {
+        UserResponse user = new UserResponse(1L, "test@example.com", "Test User", "ROLE_USER", "EUR", null);
+
+        String sparse = mapper.writer(SparseFields.filters(null, EnumSet.of(UserField.ID, UserField.NAME)))
+                .writeValueAsString(user);
+        String full = mapper.writeValueAsString(user);
+
+        assertThat(sparse).isEqualTo("{\"id\":1,\"name\":\"Test User\"}");
+        assertThat(mapper.readTree(full).size()).isEqualTo(6);
+    }
+}
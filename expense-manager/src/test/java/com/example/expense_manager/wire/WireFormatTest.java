@@ -0,0 +1,46 @@
+package com.example.expense_manager.wire;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios para WireFormat
+ */
+@DisplayName("Tests de WireFormat")
+class WireFormatTest {
+
+    @Test
+    @DisplayName("Debe elegir JSON sin Accept, con comodines o con una cabecera no válida")
+    void shouldDefaultToJson() {
+        assertThat(WireFormat.of(request(null))).isEqualTo(WireFormat.JSON);
+        assertThat(WireFormat.of(request("*/*"))).isEqualTo(WireFormat.JSON);
+        assertThat(WireFormat.of(request("application/*"))).isEqualTo(WireFormat.JSON);
+        assertThat(WireFormat.of(request("no es un tipo"))).isEqualTo(WireFormat.JSON);
+    }
+
+    @Test
+    @DisplayName("Debe elegir el formato binario pedido explícitamente")
+    void shouldPickRequestedBinaryFormat() {
+        assertThat(WireFormat.of(request("application/cbor"))).isEqualTo(WireFormat.CBOR);
+        assertThat(WireFormat.of(request("application/x-jackson-smile, */*;q=0.1"))).isEqualTo(WireFormat.SMILE);
+    }
+
+    @Test
+    @DisplayName("Debe respetar la calidad indicada en Accept")
+    void shouldRespectQualityValues() {
+        assertThat(WireFormat.of(request("application/cbor;q=0.5, application/json"))).isEqualTo(WireFormat.JSON);
+        assertThat(WireFormat.of(request("application/json;q=0, application/cbor;q=0.2"))).isEqualTo(WireFormat.CBOR);
+    }
+
+    private static ServletWebRequest request(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        return new ServletWebRequest(request);
+    }
+}